@@ -0,0 +1,64 @@
+package com.backstreetbrogrammer.benchmark;
+
+import com.backstreetbrogrammer.ch01_introductionToLambdas.AdaptivePredicate;
+import com.backstreetbrogrammer.model.Student;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+// skewed data: the clauses are written from the slowest and least selective to the fastest and most selective
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class AdaptivePredicateBenchmark {
+
+    private static final Pattern NAME = Pattern.compile("[A-Z][a-z]+\\d+");
+
+    private static final Predicate<Student> WELL_FORMED_NAME = student -> NAME.matcher(student.getName()).matches();
+    private static final Predicate<Student> NO_SPACE = student -> student.getName().indexOf(' ') < 0;
+    private static final Predicate<Student> NOT_EMPTY_NAME = student -> !student.getName().isEmpty();
+    private static final Predicate<Student> NOT_THOMAS = student -> !student.getName().startsWith("Thomas");
+    private static final Predicate<Student> ADULT = student -> student.getAge() >= 18;
+    private static final Predicate<Student> OLDER_THAN_24 = student -> student.getAge() > 24;
+
+    @Param({"100000"})
+    private int size;
+
+    private List<Student> students;
+    private Predicate<Student> fixed;
+    private Predicate<Student> handOrdered;
+    private Predicate<Student> adaptive;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        students = BenchmarkData.students(size);
+        fixed = WELL_FORMED_NAME.and(NO_SPACE).and(NOT_EMPTY_NAME).and(NOT_THOMAS).and(ADULT).and(OLDER_THAN_24);
+        handOrdered = OLDER_THAN_24.and(ADULT).and(NOT_THOMAS).and(NOT_EMPTY_NAME).and(NO_SPACE)
+                                   .and(WELL_FORMED_NAME);
+        adaptive = AdaptivePredicate.allOf(WELL_FORMED_NAME, NO_SPACE, NOT_EMPTY_NAME, NOT_THOMAS, ADULT,
+                                           OLDER_THAN_24);
+    }
+
+    @Benchmark
+    public long fixedAndChain() {
+        return students.stream().filter(fixed).count();
+    }
+
+    // the best order, known in advance
+    @Benchmark
+    public long handOrderedAndChain() {
+        return students.stream().filter(handOrdered).count();
+    }
+
+    @Benchmark
+    public long adaptive() {
+        return students.stream().filter(adaptive).count();
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.backstreetbrogrammer.benchmark;
+
+import com.backstreetbrogrammer.ch05_collectors.Aggregations;
+import com.backstreetbrogrammer.model.Student;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// the six CollectorsDemo statistics computed with one collect() each, against a single fused pass
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class AggregationsBenchmark {
+
+    @Param({"100000", "10000000"})
+    private int size;
+
+    private List<Student> students;
+    private Aggregations<Student> aggregations;
+    private Aggregations.IntMetric age;
+    private Aggregations.Partition olderThan20;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        students = BenchmarkData.students(size);
+        aggregations = new Aggregations<>();
+        age = aggregations.summarizingInt(Student::getAge);
+        olderThan20 = aggregations.partitioningBy(student -> student.getAge() > 20);
+    }
+
+    @Benchmark
+    public void sixPasses(final Blackhole blackhole) {
+        blackhole.consume(students.stream().collect(Collectors.counting()));
+        blackhole.consume(students.stream().collect(Collectors.summarizingDouble(Student::getAge)));
+        blackhole.consume(students.stream().collect(Collectors.averagingDouble(Student::getAge)));
+        blackhole.consume(students.stream().collect(Collectors.summingDouble(Student::getAge)));
+        blackhole.consume(students.stream()
+                                  .map(Student::getAge)
+                                  .collect(Collectors.maxBy(Comparator.naturalOrder())));
+        blackhole.consume(students.stream()
+                                  .collect(Collectors.partitioningBy(student -> student.getAge() > 20,
+                                                                     Collectors.counting())));
+    }
+
+    @Benchmark
+    public void onePass(final Blackhole blackhole) {
+        final Aggregations.Result result = students.stream().collect(aggregations.collector());
+        blackhole.consume(result.count());
+        blackhole.consume(result.get(age));
+        blackhole.consume(result.get(olderThan20));
+    }
+
+    @Benchmark
+    public void onePassParallel(final Blackhole blackhole) {
+        final Aggregations.Result result = students.parallelStream().collect(aggregations.collector());
+        blackhole.consume(result.count());
+        blackhole.consume(result.get(age));
+        blackhole.consume(result.get(olderThan20));
+    }
+
+}
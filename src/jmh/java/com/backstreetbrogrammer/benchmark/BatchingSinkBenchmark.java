@@ -0,0 +1,96 @@
+package com.backstreetbrogrammer.benchmark;
+
+import com.backstreetbrogrammer.ch01_introductionToLambdas.BatchingSink;
+import com.backstreetbrogrammer.model.Student;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// writing every student as a line to a file: printf on a PrintStream vs the batching sink
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class BatchingSinkBenchmark {
+
+    private static final BatchingSink.Encoder<Student> ENCODER =
+            (student, out) -> out.append(student.getName()).append(',').append(student.getAge()).append('\n');
+
+    @Param({"100000"})
+    private int size;
+
+    private List<Student> students;
+    private Path path;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        students = BenchmarkData.students(size);
+        path = Files.createTempFile("students", ".csv");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    private FileChannel open() throws IOException {
+        return FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    private void printf(final PrintStream out) {
+        students.parallelStream().forEach(student -> out.printf("%s,%d%n", student.getName(), student.getAge()));
+    }
+
+    // like System.out: a small buffer, flushed on every line
+    @Benchmark
+    public long printStreamAutoFlush() throws IOException {
+        try (final OutputStream file = Files.newOutputStream(path, StandardOpenOption.TRUNCATE_EXISTING);
+             final PrintStream out = new PrintStream(new BufferedOutputStream(file, 128), true,
+                                                     StandardCharsets.UTF_8)) {
+            printf(out);
+        }
+        return Files.size(path);
+    }
+
+    @Benchmark
+    public long printStreamBuffered() throws IOException {
+        try (final OutputStream file = Files.newOutputStream(path, StandardOpenOption.TRUNCATE_EXISTING);
+             final PrintStream out = new PrintStream(new BufferedOutputStream(file, 1 << 16), false,
+                                                     StandardCharsets.UTF_8)) {
+            printf(out);
+        }
+        return Files.size(path);
+    }
+
+    @Benchmark
+    public long batchingSink() throws IOException {
+        try (final FileChannel channel = open();
+             final BatchingSink<Student> sink = BatchingSink.of(channel, ENCODER)) {
+            students.parallelStream().forEach(sink);
+        }
+        return Files.size(path);
+    }
+
+    @Benchmark
+    public long batchingSinkAsync() throws IOException {
+        try (final FileChannel channel = open();
+             final BatchingSink<Student> sink = BatchingSink.async(channel, ENCODER, BatchingSink.DEFAULT_BATCH_SIZE,
+                                                                   4)) {
+            students.parallelStream().forEach(sink);
+        }
+        return Files.size(path);
+    }
+
+}
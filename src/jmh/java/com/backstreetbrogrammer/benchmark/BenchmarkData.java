@@ -0,0 +1,123 @@
+package com.backstreetbrogrammer.benchmark;
+
+import com.backstreetbrogrammer.model.Course;
+import com.backstreetbrogrammer.model.Student;
+import com.backstreetbrogrammer.model.StudentWithCourse;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+public final class BenchmarkData {
+
+    private static final long SEED = 42L;
+
+    private static final String[] NAMES = {"John", "Mary", "Thomas", "Rahul", "Jenny", "Tatiana", "Peter"};
+    private static final String[] COURSES = {"Java", "Python", "JavaScript", "Advanced Java", "Algorithms"};
+
+    private BenchmarkData() {
+    }
+
+    // names are made unique by suffixing the index, so that Collectors.toMap() does not see duplicate keys
+    public static List<Student> students(final int size) {
+        final var random = new SplittableRandom(SEED);
+        final List<Student> students = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            students.add(new Student(NAMES[random.nextInt(NAMES.length)] + i, 16 + random.nextInt(10)));
+        }
+        return students;
+    }
+
+    // names drawn from a pool of the requested number of distinct names
+    public static List<Student> students(final int size, final int distinctNames) {
+        final var random = new SplittableRandom(SEED);
+        final String[] names = new String[distinctNames];
+        for (int i = 0; i < distinctNames; i++) {
+            names[i] = NAMES[i % NAMES.length] + i;
+        }
+        final List<Student> students = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            students.add(new Student(names[random.nextInt(distinctNames)], 16 + random.nextInt(10)));
+        }
+        return students;
+    }
+
+    // one of the shared course names
+    public static String course(final SplittableRandom random) {
+        return COURSES[random.nextInt(COURSES.length)];
+    }
+
+    public static List<StudentWithCourse> studentsWithCourse(final int size) {
+        final var random = new SplittableRandom(SEED);
+        final List<StudentWithCourse> students = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            students.add(new StudentWithCourse(NAMES[random.nextInt(NAMES.length)] + i,
+                                               16 + random.nextInt(10),
+                                               course(random)));
+        }
+        return students;
+    }
+
+    // course names are shared instances, drawn from a pool of the requested number of distinct courses
+    public static List<StudentWithCourse> studentsWithCourse(final int size, final int distinctCourses) {
+        final var random = new SplittableRandom(SEED);
+        final String[] courses = new String[distinctCourses];
+        for (int i = 0; i < distinctCourses; i++) {
+            courses[i] = COURSES[i % COURSES.length] + "-" + i;
+        }
+        final List<StudentWithCourse> students = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            students.add(new StudentWithCourse(NAMES[random.nextInt(NAMES.length)] + i,
+                                               16 + random.nextInt(10),
+                                               courses[random.nextInt(distinctCourses)]));
+        }
+        return students;
+    }
+
+    public static List<Course> courses(final List<Student> students, final int studentsPerCourse) {
+        final List<Course> courses = new ArrayList<>(students.size() / studentsPerCourse + 1);
+        for (int from = 0; from < students.size(); from += studentsPerCourse) {
+            final var roster = students.subList(from, Math.min(from + studentsPerCourse, students.size()));
+            courses.add(new Course(COURSES[courses.size() % COURSES.length], roster.toArray(new Student[0])));
+        }
+        return courses;
+    }
+
+    public static List<String> names(final int size) {
+        final List<String> names = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            names.add(NAMES[i % NAMES.length] + i);
+        }
+        return names;
+    }
+
+    public static List<Integer> numbers(final int size) {
+        final List<Integer> numbers = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            numbers.add(i % 100);
+        }
+        return numbers;
+    }
+
+    // words from src/main/resources/200words.txt repeated until the temp file reaches the requested size
+    public static Path textFile(final int sizeInMegabytes) throws IOException {
+        final List<String> words = Files.readAllLines(Path.of("src", "main", "resources", "200words.txt"));
+        final Path path = Files.createTempFile("words", ".txt");
+        final long size = (long) sizeInMegabytes << 20;
+        long written = 0L;
+        try (final BufferedWriter writer = Files.newBufferedWriter(path)) {
+            for (int i = 0; written < size; i++) {
+                final String word = words.get(i % words.size());
+                writer.write(word);
+                writer.newLine();
+                written += word.length() + 1;
+            }
+        }
+        return path;
+    }
+
+}
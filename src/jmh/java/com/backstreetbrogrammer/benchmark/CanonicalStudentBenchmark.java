@@ -0,0 +1,99 @@
+package com.backstreetbrogrammer.benchmark;
+
+import com.backstreetbrogrammer.model.StudentWithCourse;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// "parsed" students hold their own copy of the course name, like rows read from a file
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class CanonicalStudentBenchmark {
+
+    @Param({"1000000"})
+    private int size;
+
+    private List<StudentWithCourse> parsed;
+    private List<StudentWithCourse> canonical;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        parsed = new ArrayList<>(size);
+        canonical = new ArrayList<>(size);
+        final var courses = new StudentWithCourse.CoursePool();
+        for (final StudentWithCourse student : BenchmarkData.studentsWithCourse(size)) {
+            parsed.add(new StudentWithCourse(student.getName(), student.getAge(), new String(student.getCourse())));
+            canonical.add(courses.student(student.getName(), student.getAge(), new String(student.getCourse())));
+        }
+    }
+
+    // what hashCode() used to do
+    @Benchmark
+    public int hashObjectsHash() {
+        int sum = 0;
+        for (final StudentWithCourse student : parsed) {
+            sum += Objects.hash(student.getName(), student.getAge(), student.getCourse());
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int hashCached() {
+        int sum = 0;
+        for (final StudentWithCourse student : parsed) {
+            sum += student.hashCode();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public Set<StudentWithCourse> distinctStudents() {
+        return new HashSet<>(parsed);
+    }
+
+    @Benchmark
+    public Map<String, Long> countPerCourseParsed() {
+        return parsed.stream()
+                     .collect(Collectors.groupingBy(StudentWithCourse::getCourse, Collectors.counting()));
+    }
+
+    @Benchmark
+    public Map<String, Long> countPerCourseCanonical() {
+        return canonical.stream()
+                        .collect(Collectors.groupingBy(StudentWithCourse::getCourse, Collectors.counting()));
+    }
+
+    @Benchmark
+    public Map<String, Long> countPerCourseIdentity() {
+        return canonical.stream()
+                        .collect(Collectors.groupingBy(StudentWithCourse::getCourse,
+                                                       IdentityHashMap::new,
+                                                       Collectors.counting()));
+    }
+
+    @Benchmark
+    public Map<String, List<StudentWithCourse>> studentsPerCourseParsed() {
+        return parsed.stream().collect(Collectors.groupingBy(StudentWithCourse::getCourse));
+    }
+
+    @Benchmark
+    public Map<String, List<StudentWithCourse>> studentsPerCourseIdentity() {
+        return canonical.stream()
+                        .collect(Collectors.groupingBy(StudentWithCourse::getCourse,
+                                                       IdentityHashMap::new,
+                                                       Collectors.toList()));
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.backstreetbrogrammer.benchmark;
+
+import com.backstreetbrogrammer.ch03_buildingStream.CharStats;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class CharStatsBenchmark {
+
+    @Param({"1", "16"})
+    private int sizeInMegabytes;
+
+    private String text;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        final Path path = BenchmarkData.textFile(sizeInMegabytes);
+        text = Files.readString(path);
+        Files.delete(path);
+    }
+
+    // the StreamFromString pipeline
+    @Benchmark
+    public String distinctSortedStreams() {
+        return text.chars()
+                   .mapToObj(Character::toString)
+                   .filter(letter -> !letter.equals(" "))
+                   .distinct()
+                   .sorted()
+                   .collect(Collectors.joining());
+    }
+
+    @Benchmark
+    public int[] distinctSortedCharStats() {
+        return CharStats.of(text)
+                        .distinct()
+                        .filter(codePoint -> codePoint != ' ')
+                        .toArray();
+    }
+
+    @Benchmark
+    public Map<Integer, Long> histogramGroupingBy() {
+        return text.codePoints()
+                   .boxed()
+                   .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+    }
+
+    @Benchmark
+    public CharStats histogramCharStats() {
+        return CharStats.of(text);
+    }
+
+    @Benchmark
+    public CharStats histogramCharStatsParallel() {
+        return CharStats.parallelOf(text);
+    }
+
+}
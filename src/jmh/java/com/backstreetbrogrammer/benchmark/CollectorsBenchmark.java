@@ -0,0 +1,206 @@
+package com.backstreetbrogrammer.benchmark;
+
+import com.backstreetbrogrammer.model.Student;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class CollectorsBenchmark {
+
+    @Param({"10", "1000", "100000", "10000000"})
+    private int size;
+
+    private List<Student> students;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        students = BenchmarkData.students(size);
+    }
+
+    @Benchmark
+    public List<String> toList() {
+        return students.stream()
+                       .map(Student::getName)
+                       .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<String> toListLoop() {
+        final List<String> names = new ArrayList<>();
+        for (final Student student : students) {
+            names.add(student.getName());
+        }
+        return names;
+    }
+
+    @Benchmark
+    public List<String> toUnmodifiableList() {
+        return students.stream()
+                       .map(Student::getName)
+                       .collect(Collectors.toUnmodifiableList());
+    }
+
+    @Benchmark
+    public Set<String> toSet() {
+        return students.stream()
+                       .map(Student::getName)
+                       .collect(Collectors.toSet());
+    }
+
+    @Benchmark
+    public Set<String> toSetLoop() {
+        final Set<String> names = new HashSet<>();
+        for (final Student student : students) {
+            names.add(student.getName());
+        }
+        return names;
+    }
+
+    @Benchmark
+    public Set<String> toUnmodifiableSet() {
+        return students.stream()
+                       .map(Student::getName)
+                       .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Benchmark
+    public List<String> toCollection() {
+        return students.stream()
+                       .map(Student::getName)
+                       .collect(Collectors.toCollection(LinkedList::new));
+    }
+
+    @Benchmark
+    public Map<String, Integer> toMap() {
+        return students.stream()
+                       .map(Student::getName)
+                       .collect(Collectors.toMap(Function.identity(), String::length));
+    }
+
+    @Benchmark
+    public Map<String, Integer> toMapLoop() {
+        final Map<String, Integer> map = new HashMap<>();
+        for (final Student student : students) {
+            map.put(student.getName(), student.getName().length());
+        }
+        return map;
+    }
+
+    @Benchmark
+    public Map<String, Integer> toUnmodifiableMap() {
+        return students.stream()
+                       .map(Student::getName)
+                       .collect(Collectors.toUnmodifiableMap(Function.identity(), String::length));
+    }
+
+    @Benchmark
+    public List<String> collectingAndThen() {
+        return students.stream()
+                       .map(Student::getName)
+                       .collect(Collectors.collectingAndThen(Collectors.toList(), Collections::unmodifiableList));
+    }
+
+    @Benchmark
+    public String joining() {
+        return students.stream()
+                       .map(Student::getName)
+                       .collect(Collectors.joining(" "));
+    }
+
+    @Benchmark
+    public String joiningLoop() {
+        final var joiner = new StringJoiner(" ");
+        for (final Student student : students) {
+            joiner.add(student.getName());
+        }
+        return joiner.toString();
+    }
+
+    @Benchmark
+    public Long counting() {
+        return students.stream()
+                       .collect(Collectors.counting());
+    }
+
+    @Benchmark
+    public DoubleSummaryStatistics summarizingDouble() {
+        return students.stream()
+                       .collect(Collectors.summarizingDouble(Student::getAge));
+    }
+
+    @Benchmark
+    public DoubleSummaryStatistics summarizingDoubleLoop() {
+        final var statistics = new DoubleSummaryStatistics();
+        for (final Student student : students) {
+            statistics.accept(student.getAge());
+        }
+        return statistics;
+    }
+
+    @Benchmark
+    public Double averagingDouble() {
+        return students.stream()
+                       .collect(Collectors.averagingDouble(Student::getAge));
+    }
+
+    @Benchmark
+    public Double summingDouble() {
+        return students.stream()
+                       .collect(Collectors.summingDouble(Student::getAge));
+    }
+
+    @Benchmark
+    public double summingLoop() {
+        double sum = 0D;
+        for (final Student student : students) {
+            sum += student.getAge();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public Optional<Integer> maxBy() {
+        return students.stream()
+                       .map(Student::getAge)
+                       .collect(Collectors.maxBy(Comparator.naturalOrder()));
+    }
+
+    @Benchmark
+    public int maxLoop() {
+        int max = Integer.MIN_VALUE;
+        for (final Student student : students) {
+            max = Math.max(max, student.getAge());
+        }
+        return max;
+    }
+
+    @Benchmark
+    public Map<Boolean, List<Student>> partitioningBy() {
+        return students.stream()
+                       .collect(Collectors.partitioningBy(student -> student.getAge() > 20));
+    }
+
+    @Benchmark
+    public Map<Boolean, List<Student>> partitioningByLoop() {
+        final List<Student> older = new ArrayList<>();
+        final List<Student> younger = new ArrayList<>();
+        for (final Student student : students) {
+            if (student.getAge() > 20) {
+                older.add(student);
+            } else {
+                younger.add(student);
+            }
+        }
+        return Map.of(Boolean.TRUE, older, Boolean.FALSE, younger);
+    }
+
+}
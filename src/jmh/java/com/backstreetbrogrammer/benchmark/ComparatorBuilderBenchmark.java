@@ -0,0 +1,77 @@
+package com.backstreetbrogrammer.benchmark;
+
+import com.backstreetbrogrammer.ch01_introductionToLambdas.ComparatorBuilder;
+import com.backstreetbrogrammer.model.Student;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ComparatorBuilderBenchmark {
+
+    // the chains of CombiningLambdas
+    private static final Comparator<Student> CMP_NAME = Comparator.comparing(user -> user.getName());
+    private static final Comparator<Student> CMP_AGE = Comparator.comparing(user -> user.getAge());
+    private static final Comparator<Student> JDK_NAME_AGE_REVERSED = CMP_NAME.thenComparing(CMP_AGE).reversed();
+
+    private static final ComparatorBuilder<Student> FLAT_NAME_AGE_REVERSED
+            = ComparatorBuilder.byString(Student::getName).thenInt(Student::getAge).descending();
+    private static final ComparatorBuilder<Student> FLAT_AGE = ComparatorBuilder.byInt(Student::getAge);
+
+    @Param({"1000000"})
+    private int size;
+
+    @Param({"1000"})
+    private int distinctNames;
+
+    private List<Student> students;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        students = BenchmarkData.students(size, distinctNames);
+    }
+
+    @Benchmark
+    public List<Student> jdkChainNameAgeReversed() {
+        final List<Student> copy = new ArrayList<>(students);
+        copy.sort(JDK_NAME_AGE_REVERSED);
+        return copy;
+    }
+
+    @Benchmark
+    public List<Student> builderNameAgeReversed() {
+        final List<Student> copy = new ArrayList<>(students);
+        copy.sort(FLAT_NAME_AGE_REVERSED);
+        return copy;
+    }
+
+    @Benchmark
+    public List<Student> jdkComparingAge() {
+        final List<Student> copy = new ArrayList<>(students);
+        copy.sort(CMP_AGE);
+        return copy;
+    }
+
+    @Benchmark
+    public List<Student> builderAge() {
+        final List<Student> copy = new ArrayList<>(students);
+        copy.sort(FLAT_AGE);
+        return copy;
+    }
+
+    @Benchmark
+    public List<Student> builderAgePackedKeys() {
+        final List<Student> copy = new ArrayList<>(students);
+        FLAT_AGE.sort(copy);
+        return copy;
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.backstreetbrogrammer.benchmark;
+
+import com.backstreetbrogrammer.model.Course;
+import com.backstreetbrogrammer.model.Student;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+// one enrollment and one unenrollment per operation, and reads of the whole roster
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class CourseRosterBenchmark {
+
+    @Param({"100", "10000"})
+    private int size;
+
+    private Course course;
+    private CopyOnWriteArrayList<Student> copyOnWriteList;
+    private Student newcomer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final List<Student> students = BenchmarkData.students(size);
+        course = new Course("Java", students.toArray(new Student[0]));
+        copyOnWriteList = new CopyOnWriteArrayList<>(students);
+        newcomer = new Student("Newcomer", 20);
+    }
+
+    @Benchmark
+    public boolean enrollUnenrollCourse() {
+        course.enroll(newcomer);
+        return course.unenroll(newcomer);
+    }
+
+    @Benchmark
+    public boolean enrollUnenrollCopyOnWriteArrayList() {
+        copyOnWriteList.add(newcomer);
+        return copyOnWriteList.remove(newcomer);
+    }
+
+    // what getStudents() used to cost
+    @Benchmark
+    public long sumAgesListCopy() {
+        return List.copyOf(course.getStudents()).stream().mapToInt(Student::getAge).sum();
+    }
+
+    @Benchmark
+    public long sumAgesStudents() {
+        return course.students().mapToInt(Student::getAge).sum();
+    }
+
+}
@@ -0,0 +1,84 @@
+package com.backstreetbrogrammer.benchmark;
+
+import com.backstreetbrogrammer.ch02_mapFilterReduce.CrossProduct;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// counts the pairs whose two names have the same length, over a students x languages product
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class CrossProductBenchmark {
+
+    @Param({"10000"})
+    private int students;
+
+    @Param({"1000"})
+    private int languages;
+
+    private List<String> left;
+    private List<String> right;
+    private CrossProduct<String, String> crossProduct;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        left = BenchmarkData.names(students);
+        right = BenchmarkData.names(languages);
+        crossProduct = CrossProduct.of(left, right);
+    }
+
+    @Benchmark
+    public long flatMapArrays() {
+        return left.stream()
+                   .flatMap(student -> right.stream()
+                                            .map(language -> new String[]{student, language}))
+                   .filter(pair -> pair[0].length() == pair[1].length())
+                   .count();
+    }
+
+    @Benchmark
+    public long flatMapArraysParallel() {
+        return left.parallelStream()
+                   .flatMap(student -> right.stream()
+                                            .map(language -> new String[]{student, language}))
+                   .filter(pair -> pair[0].length() == pair[1].length())
+                   .count();
+    }
+
+    @Benchmark
+    public long crossProductStreamParallel() {
+        return crossProduct.stream((student, language) -> student.length() == language.length())
+                           .parallel()
+                           .filter(sameLength -> sameLength)
+                           .count();
+    }
+
+    @Benchmark
+    public long forEachPair() {
+        final long[] count = new long[1];
+        crossProduct.forEachPair((student, language) -> {
+            if (student.length() == language.length()) {
+                count[0]++;
+            }
+        });
+        return count[0];
+    }
+
+    @Benchmark
+    public long parallelForEachPair() {
+        final LongAdder count = new LongAdder();
+        crossProduct.parallelForEachPair((student, language) -> {
+            if (student.length() == language.length()) {
+                count.increment();
+            }
+        });
+        return count.sum();
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.backstreetbrogrammer.benchmark;
+
+import com.backstreetbrogrammer.ch05_collectors.ExternalCollectors;
+import com.backstreetbrogrammer.model.StudentWithCourse;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+// rows are generated on the fly, so that only the collectors hold students: the external ones run in a 64 MB heap
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx64m")
+@State(Scope.Benchmark)
+public class ExternalCollectorsBenchmark {
+
+    @Param({"1000000", "10000000"})
+    private int rows;
+
+    private Stream<StudentWithCourse> rows() {
+        return LongStream.range(0L, rows).mapToObj(i -> {
+            final var random = new SplittableRandom(i);
+            return new StudentWithCourse("Student" + i, 16 + random.nextInt(44), BenchmarkData.course(random));
+        });
+    }
+
+    @Benchmark
+    public long externalSortedByAge() {
+        try (final Stream<StudentWithCourse> sorted = rows().collect(
+                ExternalCollectors.externalSorted(Comparator.comparingInt(StudentWithCourse::getAge),
+                                                  ExternalCollectors.Codec.studentsWithCourse(), 100_000))) {
+            return sorted.mapToLong(StudentWithCourse::getAge).sum();
+        }
+    }
+
+    @Benchmark
+    public long externalGroupingByAge() {
+        try (final Stream<Map.Entry<Integer, Long>> groups = rows().collect(
+                ExternalCollectors.groupingBy(StudentWithCourse::getAge, Comparator.naturalOrder(),
+                                              Collectors.counting(), ExternalCollectors.Codec.studentsWithCourse(),
+                                              100_000))) {
+            return groups.count();
+        }
+    }
+
+    // baseline: needs every row in the heap (a SIZED pipeline would skip sorted() for a plain count())
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+    public long inMemorySortedByAge() {
+        return rows().sorted(Comparator.comparingInt(StudentWithCourse::getAge))
+                     .mapToLong(StudentWithCourse::getAge).sum();
+    }
+
+}
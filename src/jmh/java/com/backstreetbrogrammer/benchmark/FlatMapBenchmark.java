@@ -0,0 +1,50 @@
+package com.backstreetbrogrammer.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class FlatMapBenchmark {
+
+    // the number of pairs is size * favoriteLanguages.size()
+    @Param({"10", "1000", "100000", "10000000"})
+    private int size;
+
+    private List<String> students;
+    private final List<String> favoriteLanguages = List.of("Java", "Python");
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        students = BenchmarkData.names(size);
+    }
+
+    @Benchmark
+    public List<String[]> flatMapPairs() {
+        return students.stream()
+                       .flatMap(student -> favoriteLanguages.stream()
+                                                            .map(favoriteLanguage ->
+                                                                         new String[]{student, favoriteLanguage}))
+                       .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<String[]> nestedLoopPairs() {
+        final List<String[]> pairs = new ArrayList<>();
+        for (final String student : students) {
+            for (final String favoriteLanguage : favoriteLanguages) {
+                pairs.add(new String[]{student, favoriteLanguage});
+            }
+        }
+        return pairs;
+    }
+
+}
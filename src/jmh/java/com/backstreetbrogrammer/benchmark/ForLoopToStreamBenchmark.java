@@ -0,0 +1,38 @@
+package com.backstreetbrogrammer.benchmark;
+
+import com.backstreetbrogrammer.ch03_buildingStream.ForLoopToStream;
+import com.backstreetbrogrammer.model.Student;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ForLoopToStreamBenchmark {
+
+    @Param({"10", "1000", "100000", "10000000"})
+    private int size;
+
+    private List<Student> students;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        students = BenchmarkData.students(size);
+    }
+
+    @Benchmark
+    public double averageAgeUsingForLoop() {
+        return ForLoopToStream.getAverageAgeUsingForLoop(students);
+    }
+
+    @Benchmark
+    public double averageAgeUsingStreams() {
+        return ForLoopToStream.getAverageAgeUsingStreams(students);
+    }
+
+}
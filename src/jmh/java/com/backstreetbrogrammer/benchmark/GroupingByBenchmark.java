@@ -0,0 +1,67 @@
+package com.backstreetbrogrammer.benchmark;
+
+import com.backstreetbrogrammer.model.StudentWithCourse;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class GroupingByBenchmark {
+
+    @Param({"10", "1000", "100000", "10000000"})
+    private int size;
+
+    private List<StudentWithCourse> students;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        students = BenchmarkData.studentsWithCourse(size);
+    }
+
+    @Benchmark
+    public Map<String, List<StudentWithCourse>> groupingBy() {
+        return students.stream()
+                       .collect(Collectors.groupingBy(StudentWithCourse::getCourse));
+    }
+
+    @Benchmark
+    public Map<String, List<StudentWithCourse>> groupingByLoop() {
+        final Map<String, List<StudentWithCourse>> studentsPerCourse = new HashMap<>();
+        for (final StudentWithCourse student : students) {
+            studentsPerCourse.computeIfAbsent(student.getCourse(), course -> new ArrayList<>()).add(student);
+        }
+        return studentsPerCourse;
+    }
+
+    @Benchmark
+    public Map<String, Long> groupingByCounting() {
+        return students.stream()
+                       .collect(Collectors.groupingBy(StudentWithCourse::getCourse, Collectors.counting()));
+    }
+
+    @Benchmark
+    public Map<String, Long> groupingByCountingParallel() {
+        return students.parallelStream()
+                       .collect(Collectors.groupingBy(StudentWithCourse::getCourse, Collectors.counting()));
+    }
+
+    @Benchmark
+    public Map<String, Long> groupingByCountingLoop() {
+        final Map<String, Long> countPerCourse = new HashMap<>();
+        for (final StudentWithCourse student : students) {
+            countPerCourse.merge(student.getCourse(), 1L, Long::sum);
+        }
+        return countPerCourse;
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.backstreetbrogrammer.benchmark;
+
+import com.backstreetbrogrammer.ch05_collectors.IncrementalView;
+import com.backstreetbrogrammer.model.StudentWithCourse;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.IntSummaryStatistics;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// one operation replaces a student by another, then polls the age summary of every course
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class IncrementalViewBenchmark {
+
+    @Param({"10000", "1000000"})
+    private int size;
+
+    private List<StudentWithCourse> students;
+    private List<StudentWithCourse> replacements;
+    private IncrementalView<StudentWithCourse> view;
+    private IncrementalView.Grouping<String> agePerCourse;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final List<StudentWithCourse> all = BenchmarkData.studentsWithCourse(size * 2);
+        students = new ArrayList<>(all.subList(0, size));
+        replacements = new ArrayList<>(all.subList(size, size * 2));
+        view = new IncrementalView<>();
+        agePerCourse = view.groupingBy(StudentWithCourse::getCourse, StudentWithCourse::getAge);
+        view.insertAll(students);
+    }
+
+    // swaps the student at 'next' with its replacement, both in the list and in the view
+    private void replaceNext() {
+        final int index = next;
+        next = (next + 1) % size;
+        final StudentWithCourse leaving = students.get(index);
+        final StudentWithCourse joining = replacements.get(index);
+        students.set(index, joining);
+        replacements.set(index, leaving);
+        view.delete(leaving);
+        view.insert(joining);
+    }
+
+    @Benchmark
+    public Map<String, IntSummaryStatistics> recomputeWithCollectors() {
+        replaceNext();
+        return students.stream()
+                       .collect(Collectors.groupingBy(StudentWithCourse::getCourse,
+                                                      Collectors.summarizingInt(StudentWithCourse::getAge)));
+    }
+
+    @Benchmark
+    public Map<String, IntSummaryStatistics> incrementalView() {
+        replaceNext();
+        return agePerCourse.snapshot();
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.backstreetbrogrammer.benchmark;
+
+import com.backstreetbrogrammer.ch03_buildingStream.LineIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// pages 10 lines at 90% of the file: pagedLines should stay flat as the file grows, skip/limit should not
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class LineIndexBenchmark {
+
+    @Param({"1", "16", "256"})
+    private int sizeInMegabytes;
+
+    private Path path;
+    private long skip;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        path = BenchmarkData.textFile(sizeInMegabytes);
+        skip = LineIndex.of(path).lineCount() * 9 / 10;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(path);
+        Files.deleteIfExists(path.resolveSibling(path.getFileName() + ".lidx"));
+    }
+
+    @Benchmark
+    public List<String> deepPageSkipLimit() throws IOException {
+        try (final Stream<String> lines = Files.lines(path)) {
+            return lines.skip(skip).limit(10).collect(Collectors.toList());
+        }
+    }
+
+    @Benchmark
+    public List<String> deepPagePagedLines() throws IOException {
+        try (final Stream<String> lines = LineIndex.pagedLines(path, skip, 10)) {
+            return lines.collect(Collectors.toList());
+        }
+    }
+
+}
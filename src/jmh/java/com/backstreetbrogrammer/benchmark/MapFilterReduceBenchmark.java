@@ -0,0 +1,135 @@
+package com.backstreetbrogrammer.benchmark;
+
+import com.backstreetbrogrammer.ch02_mapFilterReduce.InstrumentedStream;
+import com.backstreetbrogrammer.model.Course;
+import com.backstreetbrogrammer.model.Student;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class MapFilterReduceBenchmark {
+
+    @Param({"10", "1000", "100000", "10000000"})
+    private int size;
+
+    private List<Student> students;
+    private List<Course> courses;
+    private final InstrumentedStream.Metrics metrics = new InstrumentedStream.Metrics();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        students = BenchmarkData.students(size);
+        courses = BenchmarkData.courses(students, 100);
+    }
+
+    @Benchmark
+    public long countOlderThan20Stream() {
+        return students.stream()
+                       .mapToInt(student -> student.getAge())
+                       .filter(age -> age >= 20)
+                       .count();
+    }
+
+    @Benchmark
+    public long countOlderThan20Instrumented() {
+        InstrumentedStream.setEnabled(true);
+        return InstrumentedStream.of(students.stream(), metrics)
+                                 .mapToInt("age", student -> student.getAge())
+                                 .filter("olderThan20", age -> age >= 20)
+                                 .count();
+    }
+
+    // the switch is read while building the pipeline: the stream runs the original lambdas
+    @Benchmark
+    public long countOlderThan20InstrumentedDisabled() {
+        InstrumentedStream.setEnabled(false);
+        return InstrumentedStream.of(students.stream(), metrics)
+                                 .mapToInt("age", student -> student.getAge())
+                                 .filter("olderThan20", age -> age >= 20)
+                                 .count();
+    }
+
+    // more workers than this machine may have cores, so that the per-thread counters are used by several threads
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Djava.util.concurrent.ForkJoinPool.common.parallelism=4"})
+    public long countOlderThan20ParallelStream() {
+        return students.parallelStream()
+                       .mapToInt(student -> student.getAge())
+                       .filter(age -> age >= 20)
+                       .count();
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Djava.util.concurrent.ForkJoinPool.common.parallelism=4"})
+    public long countOlderThan20InstrumentedParallel() {
+        InstrumentedStream.setEnabled(true);
+        return InstrumentedStream.of(students.parallelStream(), metrics)
+                                 .mapToInt("age", student -> student.getAge())
+                                 .filter("olderThan20", age -> age >= 20)
+                                 .count();
+    }
+
+    @Benchmark
+    public long countOlderThan20Loop() {
+        long count = 0L;
+        for (final Student student : students) {
+            if (student.getAge() >= 20) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public long countLessThan20Stream() {
+        return students.stream()
+                       .mapToInt(student -> student.getAge())
+                       .filter(age -> age < 20)
+                       .count();
+    }
+
+    @Benchmark
+    public long countLessThan20Loop() {
+        long count = 0L;
+        for (final Student student : students) {
+            if (student.getAge() < 20) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public void flatMapCourseNamesStream(final Blackhole blackhole) {
+        courses.stream()
+               .flatMap(course -> course.getStudents().stream())
+               .map(p -> p.getName())
+               .forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void flatMapCourseNamesStudentsStream(final Blackhole blackhole) {
+        courses.stream()
+               .flatMap(Course::students)
+               .map(p -> p.getName())
+               .forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void flatMapCourseNamesLoop(final Blackhole blackhole) {
+        for (final Course course : courses) {
+            for (final Student student : course.getStudents()) {
+                blackhole.consume(student.getName());
+            }
+        }
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.backstreetbrogrammer.benchmark;
+
+import com.backstreetbrogrammer.ch03_buildingStream.MappedLines;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class MappedLinesBenchmark {
+
+    @Param({"16", "256"})
+    private int sizeInMegabytes;
+
+    private Path path;
+    private MappedLines mappedLines;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        path = BenchmarkData.textFile(sizeInMegabytes);
+        mappedLines = MappedLines.of(path);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    @Benchmark
+    public long filesLinesCount() throws IOException {
+        try (final Stream<String> lines = Files.lines(path)) {
+            return lines.count();
+        }
+    }
+
+    @Benchmark
+    public long mappedLinesCount() {
+        return mappedLines.count();
+    }
+
+    @Benchmark
+    public long filesLinesParallelFilter() throws IOException {
+        try (final Stream<String> lines = Files.lines(path)) {
+            return lines.parallel().filter(line -> line.length() > 5).count();
+        }
+    }
+
+    @Benchmark
+    public long mappedLinesParallelFilter() {
+        return mappedLines.lines().parallel().filter(line -> line.length() > 5).count();
+    }
+
+}
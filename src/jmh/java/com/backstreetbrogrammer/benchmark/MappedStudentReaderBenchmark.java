@@ -0,0 +1,94 @@
+package com.backstreetbrogrammer.benchmark;
+
+import com.backstreetbrogrammer.model.MappedStudentReader;
+import com.backstreetbrogrammer.model.StudentRecords;
+import com.backstreetbrogrammer.model.StudentWithCourse;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// warm start: parsing a CSV file into objects vs mapping the binary file
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class MappedStudentReaderBenchmark {
+
+    @Param({"1000000"})
+    private int size;
+
+    private Path csvPath;
+    private Path binaryPath;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        final List<StudentWithCourse> students = BenchmarkData.studentsWithCourse(size);
+        csvPath = Files.createTempFile("students", ".csv");
+        try (final BufferedWriter writer = Files.newBufferedWriter(csvPath)) {
+            for (final StudentWithCourse student : students) {
+                writer.write(student.getName() + "," + student.getAge() + "," + student.getCourse());
+                writer.newLine();
+            }
+        }
+        binaryPath = Files.createTempFile("students", ".bin");
+        StudentRecords.writeWithCourse(binaryPath, students);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(csvPath);
+        Files.deleteIfExists(binaryPath);
+    }
+
+    private List<StudentWithCourse> parseCsv() throws IOException {
+        try (final Stream<String> lines = Files.lines(csvPath)) {
+            return lines.map(line -> line.split(","))
+                        .map(fields -> new StudentWithCourse(fields[0], Integer.parseInt(fields[1]), fields[2]))
+                        .collect(Collectors.toList());
+        }
+    }
+
+    @Benchmark
+    public List<StudentWithCourse> loadCsv() throws IOException {
+        return parseCsv();
+    }
+
+    @Benchmark
+    public MappedStudentReader loadMapped() throws IOException {
+        return MappedStudentReader.open(binaryPath);
+    }
+
+    @Benchmark
+    public double averageAgeCsv() throws IOException {
+        return parseCsv().stream().mapToInt(StudentWithCourse::getAge).average().orElse(0D);
+    }
+
+    @Benchmark
+    public double averageAgeMapped() throws IOException {
+        return MappedStudentReader.open(binaryPath).ages().average().orElse(0D);
+    }
+
+    @Benchmark
+    public Map<String, Long> countPerCourseCsv() throws IOException {
+        return parseCsv().stream()
+                         .collect(Collectors.groupingBy(StudentWithCourse::getCourse, Collectors.counting()));
+    }
+
+    @Benchmark
+    public Map<String, Long> countPerCourseMapped() throws IOException {
+        final MappedStudentReader reader = MappedStudentReader.open(binaryPath);
+        return reader.studentsWithCourse()
+                     .collect(Collectors.groupingBy(StudentWithCourse::getCourse, Collectors.counting()));
+    }
+
+}
@@ -0,0 +1,74 @@
+package com.backstreetbrogrammer.benchmark;
+
+import com.backstreetbrogrammer.ch01_introductionToLambdas.Memoize;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+// one operation maps one key; every key fits in the cache, so the memoized benchmarks measure the hit path
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class MemoizeBenchmark {
+
+    // stands for a lookup or an enrichment
+    private static final Function<String, String> ENRICH = name -> String.format("%s (%d)", name.toUpperCase(),
+                                                                                 name.length());
+    private static final ToIntFunction<String> CHECKSUM = name -> ENRICH.apply(name).hashCode();
+
+    @Param({"1000", "100000"})
+    private int keys;
+
+    private List<String> names;
+    private Memoize.CachedFunction<String, String> memoized;
+    private Memoize.CachedToIntFunction<String> memoizedToInt;
+    private Map<String, String> unbounded;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        names = BenchmarkData.names(keys);
+        memoized = Memoize.function(ENRICH, keys);
+        memoizedToInt = Memoize.toIntFunction(CHECKSUM, keys);
+        unbounded = new ConcurrentHashMap<>();
+        names.forEach(memoized::apply);
+        names.forEach(memoizedToInt::applyAsInt);
+        names.forEach(name -> unbounded.computeIfAbsent(name, ENRICH));
+    }
+
+    private String nextName() {
+        final String name = names.get(next);
+        next = next + 1 == keys ? 0 : next + 1;
+        return name;
+    }
+
+    @Benchmark
+    public String direct() {
+        return ENRICH.apply(nextName());
+    }
+
+    @Benchmark
+    public String memoizedHit() {
+        return memoized.apply(nextName());
+    }
+
+    @Benchmark
+    public int memoizedToIntHit() {
+        return memoizedToInt.applyAsInt(nextName());
+    }
+
+    // no bound and no eviction
+    @Benchmark
+    public String concurrentHashMapHit() {
+        return unbounded.computeIfAbsent(nextName(), ENRICH);
+    }
+
+}
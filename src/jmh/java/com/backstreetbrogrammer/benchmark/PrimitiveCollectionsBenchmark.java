@@ -0,0 +1,65 @@
+package com.backstreetbrogrammer.benchmark;
+
+import com.backstreetbrogrammer.function.IntArrayList;
+import com.backstreetbrogrammer.function.IntIntHashMap;
+import com.backstreetbrogrammer.function.ObjIntHashMap;
+import com.backstreetbrogrammer.function.PrimitiveCollectors;
+import com.backstreetbrogrammer.model.Student;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// collecting ages: boxed JDK collectors vs the primitive collections
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class PrimitiveCollectionsBenchmark {
+
+    @Param({"1000000"})
+    private int size;
+
+    private List<Student> students;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        students = BenchmarkData.students(size, 1_000);
+    }
+
+    @Benchmark
+    public List<Integer> agesToList() {
+        return students.stream().map(Student::getAge).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public IntArrayList agesToIntList() {
+        return students.stream().collect(PrimitiveCollectors.toIntList(Student::getAge));
+    }
+
+    @Benchmark
+    public Map<Integer, Long> countPerAgeGroupingBy() {
+        return students.stream().collect(Collectors.groupingBy(Student::getAge, Collectors.counting()));
+    }
+
+    @Benchmark
+    public IntIntHashMap countPerAgeIntInt() {
+        return students.stream().collect(PrimitiveCollectors.countingByInt(Student::getAge));
+    }
+
+    @Benchmark
+    public Map<String, Integer> sumOfAgesPerNameGroupingBy() {
+        return students.stream().collect(Collectors.groupingBy(Student::getName,
+                                                               Collectors.summingInt(Student::getAge)));
+    }
+
+    @Benchmark
+    public ObjIntHashMap<String> sumOfAgesPerNameObjInt() {
+        return students.stream().collect(PrimitiveCollectors.summingInt(Student::getName, Student::getAge));
+    }
+
+}
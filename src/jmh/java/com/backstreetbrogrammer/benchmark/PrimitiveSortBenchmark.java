@@ -0,0 +1,80 @@
+package com.backstreetbrogrammer.benchmark;
+
+import com.backstreetbrogrammer.model.PrimitiveSort;
+import com.backstreetbrogrammer.model.Student;
+import com.backstreetbrogrammer.model.StudentTable;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class PrimitiveSortBenchmark {
+
+    // the chained comparator of CombiningLambdas, boxing the age on every comparison
+    private static final Comparator<Student> AGE_THEN_NAME
+            = Comparator.comparing((Student user) -> user.getAge()).thenComparing(user -> user.getName());
+
+    @Param({"10000", "1000000"})
+    private int size;
+
+    @Param({"1000", "1000000"})
+    private int distinctNames;
+
+    private List<Student> students;
+    private StudentTable studentTable;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        students = BenchmarkData.students(size, distinctNames);
+        studentTable = StudentTable.of(students);
+    }
+
+    @Benchmark
+    public List<Student> listSortChainedComparator() {
+        final List<Student> copy = new ArrayList<>(students);
+        copy.sort(AGE_THEN_NAME);
+        return copy;
+    }
+
+    @Benchmark
+    public List<Student> primitiveSort() {
+        final List<Student> copy = new ArrayList<>(students);
+        PrimitiveSort.sortByInt(copy, Student::getAge, Student::getName);
+        return copy;
+    }
+
+    @Benchmark
+    public List<Student> listSortByAge() {
+        final List<Student> copy = new ArrayList<>(students);
+        copy.sort(Comparator.comparing(user -> user.getAge()));
+        return copy;
+    }
+
+    @Benchmark
+    public List<Student> primitiveSortByAge() {
+        final List<Student> copy = new ArrayList<>(students);
+        PrimitiveSort.sortByInt(copy, Student::getAge);
+        return copy;
+    }
+
+    @Benchmark
+    public List<Student> primitiveSortParallel() {
+        final List<Student> copy = new ArrayList<>(students);
+        PrimitiveSort.parallelSortByInt(copy, Student::getAge, Student::getName);
+        return copy;
+    }
+
+    @Benchmark
+    public StudentTable primitiveSortTable() {
+        return PrimitiveSort.sortByAgeThenName(studentTable);
+    }
+
+}
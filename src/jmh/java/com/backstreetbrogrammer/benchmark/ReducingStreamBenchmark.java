@@ -0,0 +1,70 @@
+package com.backstreetbrogrammer.benchmark;
+
+import com.backstreetbrogrammer.ch04_reducingStream.ParallelPipelines;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ReducingStreamBenchmark {
+
+    @Param({"10", "1000", "100000", "10000000"})
+    private int size;
+
+    private List<Integer> numbers;
+    private ParallelPipelines pipelines;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        numbers = BenchmarkData.numbers(size);
+        pipelines = ParallelPipelines.dedicated("benchmark", Runtime.getRuntime().availableProcessors(),
+                                                ParallelPipelines.DEFAULT_SPLIT_THRESHOLD);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pipelines.close();
+    }
+
+    @Benchmark
+    public int sumReduce() {
+        return numbers.stream()
+                      .reduce(0, Integer::sum);
+    }
+
+    @Benchmark
+    public int sumReduceParallel() {
+        return numbers.parallelStream()
+                      .reduce(0, Integer::sum, Integer::sum);
+    }
+
+    // same reduction on a dedicated pool, never splitting below 1024 elements
+    @Benchmark
+    public int sumReduceParallelDedicatedPool() {
+        return pipelines.invoke(() -> pipelines.stream(numbers)
+                                               .reduce(0, Integer::sum, Integer::sum));
+    }
+
+    @Benchmark
+    public int sumMapToInt() {
+        return numbers.stream()
+                      .mapToInt(Integer::intValue)
+                      .sum();
+    }
+
+    @Benchmark
+    public int sumLoop() {
+        int sum = 0;
+        for (final Integer number : numbers) {
+            sum += number;
+        }
+        return sum;
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.backstreetbrogrammer.benchmark;
+
+import com.backstreetbrogrammer.ch03_buildingStream.SortedSource;
+import com.backstreetbrogrammer.model.Student;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// a range of ages among students sorted by age: linear dropWhile/takeWhile vs binary search
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class SortedSourceBenchmark {
+
+    private static final Comparator<Student> BY_AGE = Comparator.comparingInt(Student::getAge);
+
+    @Param({"1000000"})
+    private int size;
+
+    private List<Student> students;
+    private SortedSource<Student> byAge;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        students = BenchmarkData.students(size).stream().sorted(BY_AGE).collect(Collectors.toList());
+        byAge = SortedSource.of(students, BY_AGE);
+    }
+
+    @Benchmark
+    public long rangeLinear() {
+        return students.stream()
+                       .dropWhile(student -> student.getAge() < 20)
+                       .takeWhile(student -> student.getAge() < 22)
+                       .mapToInt(Student::getAge)
+                       .sum();
+    }
+
+    @Benchmark
+    public long rangeBinarySearch() {
+        return byAge.rangeBetween(new Student("", 20), new Student("", 22))
+                    .mapToInt(Student::getAge)
+                    .sum();
+    }
+
+    @Benchmark
+    public long rangeBinarySearchParallel() {
+        return byAge.rangeBetween(new Student("", 20), new Student("", 22))
+                    .parallel()
+                    .mapToInt(Student::getAge)
+                    .sum();
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.backstreetbrogrammer.benchmark;
+
+import com.backstreetbrogrammer.ch05_collectors.StripedCollectors;
+import com.backstreetbrogrammer.model.StudentWithCourse;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// parallel streams started from inside a ForkJoinPool run on that pool, which pins the number of cores used
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class StripedCollectorsBenchmark {
+
+    @Param({"1", "4", "16"})
+    private int parallelism;
+
+    @Param({"10", "100000"})
+    private int distinctCourses;
+
+    @Param({"1000000"})
+    private int size;
+
+    private List<StudentWithCourse> students;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        students = BenchmarkData.studentsWithCourse(size, distinctCourses);
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public Map<String, Long> groupingByCounting() throws ExecutionException, InterruptedException {
+        return onPool(() -> students.parallelStream()
+                                    .collect(Collectors.groupingBy(StudentWithCourse::getCourse,
+                                                                   Collectors.counting())));
+    }
+
+    @Benchmark
+    public Map<String, Long> groupingByConcurrentCounting() throws ExecutionException, InterruptedException {
+        return onPool(() -> students.parallelStream()
+                                    .collect(Collectors.groupingByConcurrent(StudentWithCourse::getCourse,
+                                                                             Collectors.counting())));
+    }
+
+    @Benchmark
+    public Map<String, Long> stripedCounting() throws ExecutionException, InterruptedException {
+        return onPool(() -> students.parallelStream()
+                                    .collect(StripedCollectors.counting(StudentWithCourse::getCourse)));
+    }
+
+    @Benchmark
+    public Map<String, Long> groupingBySummingAge() throws ExecutionException, InterruptedException {
+        return onPool(() -> students.parallelStream()
+                                    .collect(Collectors.groupingBy(StudentWithCourse::getCourse,
+                                                                   Collectors.summingLong(
+                                                                           StudentWithCourse::getAge))));
+    }
+
+    @Benchmark
+    public Map<String, Long> stripedSummingAge() throws ExecutionException, InterruptedException {
+        return onPool(() -> students.parallelStream()
+                                    .collect(StripedCollectors.summingInt(StudentWithCourse::getCourse,
+                                                                          StudentWithCourse::getAge)));
+    }
+
+    private <R> R onPool(final Callable<R> task) throws ExecutionException, InterruptedException {
+        return pool.submit(task).get();
+    }
+
+}
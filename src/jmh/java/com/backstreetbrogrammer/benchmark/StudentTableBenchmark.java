@@ -0,0 +1,60 @@
+package com.backstreetbrogrammer.benchmark;
+
+import com.backstreetbrogrammer.model.Student;
+import com.backstreetbrogrammer.model.StudentTable;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class StudentTableBenchmark {
+
+    @Param({"1000", "100000", "10000000"})
+    private int size;
+
+    private List<Student> students;
+    private StudentTable studentTable;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        students = BenchmarkData.students(size);
+        studentTable = StudentTable.of(students);
+    }
+
+    @Benchmark
+    public long countOlderThan20List() {
+        return students.stream()
+                       .mapToInt(Student::getAge)
+                       .filter(age -> age >= 20)
+                       .count();
+    }
+
+    @Benchmark
+    public long countOlderThan20Table() {
+        return studentTable.ages()
+                           .filter(age -> age >= 20)
+                           .count();
+    }
+
+    @Benchmark
+    public double averageAgeList() {
+        return students.stream()
+                       .mapToInt(Student::getAge)
+                       .average()
+                       .orElse(0D);
+    }
+
+    @Benchmark
+    public double averageAgeTable() {
+        return studentTable.ages()
+                           .average()
+                           .orElse(0D);
+    }
+
+}
@@ -0,0 +1,72 @@
+package com.backstreetbrogrammer.benchmark;
+
+import com.backstreetbrogrammer.ch03_buildingStream.Tokenizer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class TokenizerBenchmark {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s");
+
+    @Param({"1", "16"})
+    private int sizeInMegabytes;
+
+    private String text;
+    private final Tokenizer tokenizer = Tokenizer.whitespace();
+
+    // the text file has one word per line: every token is separated by a single '\n'
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        final Path path = BenchmarkData.textFile(sizeInMegabytes);
+        text = Files.readString(path);
+        Files.delete(path);
+    }
+
+    // the StreamFromRegEx pipeline
+    @Benchmark
+    public long countSplitAsStream() {
+        return WHITESPACE.splitAsStream(text).count();
+    }
+
+    @Benchmark
+    public long countStringSplit() {
+        return text.split("\\s").length;
+    }
+
+    @Benchmark
+    public long countTokenizer() {
+        return tokenizer.count(text);
+    }
+
+    @Benchmark
+    public long countTokenizerParallel() {
+        return tokenizer.parallelCount(text);
+    }
+
+    @Benchmark
+    public long longWordsSplitAsStream() {
+        return WHITESPACE.splitAsStream(text).filter(word -> word.length() > 4).count();
+    }
+
+    @Benchmark
+    public long longWordsTokenizer() {
+        return tokenizer.tokens(text).filter(token -> token.length() > 4).count();
+    }
+
+    @Benchmark
+    public long longWordsTokenizerParallel() {
+        return tokenizer.tokens(text).parallel().filter(token -> token.length() > 4).count();
+    }
+
+}
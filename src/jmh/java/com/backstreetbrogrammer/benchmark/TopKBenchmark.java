@@ -0,0 +1,69 @@
+package com.backstreetbrogrammer.benchmark;
+
+import com.backstreetbrogrammer.ch05_collectors.TopKCollectors;
+import com.backstreetbrogrammer.model.Student;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class TopKBenchmark {
+
+    private static final Comparator<Student> BY_AGE = Comparator.comparingInt(Student::getAge);
+
+    @Param({"100000", "1000000"})
+    private int size;
+
+    @Param({"10", "1000"})
+    private int k;
+
+    private List<Student> students;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        students = BenchmarkData.students(size);
+    }
+
+    @Benchmark
+    public List<Student> fullSort() {
+        final List<Student> sorted = new ArrayList<>(students);
+        sorted.sort(BY_AGE.reversed());
+        return sorted.subList(0, k);
+    }
+
+    @Benchmark
+    public List<Student> sortedLimit() {
+        return students.stream()
+                       .sorted(BY_AGE.reversed())
+                       .limit(k)
+                       .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Student> topK() {
+        return students.stream()
+                       .collect(TopKCollectors.topK(k, BY_AGE));
+    }
+
+    @Benchmark
+    public List<Student> topKByInt() {
+        return students.stream()
+                       .collect(TopKCollectors.topKByInt(k, Student::getAge));
+    }
+
+    @Benchmark
+    public List<Student> topKByIntParallel() {
+        return students.parallelStream()
+                       .collect(TopKCollectors.topKByInt(k, Student::getAge));
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.backstreetbrogrammer.benchmark;
+
+import com.backstreetbrogrammer.ch03_buildingStream.WordIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class WordIndexBenchmark {
+
+    @Param({"1", "16"})
+    private int sizeInMegabytes;
+
+    private Path path;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        path = BenchmarkData.textFile(sizeInMegabytes);
+        WordIndex.of(path); // writes the sidecar
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(path);
+        Files.deleteIfExists(path.resolveSibling(path.getFileName() + ".widx"));
+    }
+
+    @Benchmark
+    public Map<String, Long> frequenciesGroupingBy() throws IOException {
+        try (final Stream<String> lines = Files.lines(path)) {
+            return lines.flatMap(line -> Stream.of(line.split("\\s+")))
+                        .filter(word -> !word.isEmpty())
+                        .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        }
+    }
+
+    // word -> line numbers, the way it is usually written with collectors
+    @Benchmark
+    public Map<String, List<Integer>> postingsGroupingBy() throws IOException {
+        final List<String> lines = Files.readAllLines(path);
+        return IntStream.range(0, lines.size())
+                        .boxed()
+                        .flatMap(line -> Stream.of(lines.get(line).split("\\s+"))
+                                               .filter(word -> !word.isEmpty())
+                                               .distinct()
+                                               .map(word -> new AbstractMap.SimpleEntry<>(word, line)))
+                        .collect(Collectors.groupingBy(Map.Entry::getKey,
+                                                       Collectors.mapping(Map.Entry::getValue, Collectors.toList())));
+    }
+
+    @Benchmark
+    public WordIndex buildWordIndex() throws IOException {
+        return WordIndex.build(path);
+    }
+
+    // what a restart pays once the sidecar exists
+    @Benchmark
+    public long loadWordIndex() {
+        try {
+            return WordIndex.of(path).frequency("the");
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
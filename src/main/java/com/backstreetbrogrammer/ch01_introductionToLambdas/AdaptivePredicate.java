@@ -0,0 +1,167 @@
+package com.backstreetbrogrammer.ch01_introductionToLambdas;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+
+/**
+ * A conjunction or disjunction of predicates which reorders its clauses at runtime, so that the clauses most likely to
+ * decide the result for the least time run first. {@code Predicate.and()} always runs its clauses in the order they
+ * were written.
+ * <p>
+ * On one call out of {@value #SAMPLING_RATE} on average, drawn at random so that periodic data is not always sampled
+ * at the same phase, every clause is evaluated and timed, short-circuiting nothing; every {@value #SAMPLES_PER_REORDER} such samples, the clauses are sorted by estimated cost divided by
+ * the probability to decide the result (to fail for {@link #allOf}, to pass for {@link #anyOf}), which is the
+ * optimal order for independent clauses, and the statistics are halved so that the order follows the data when it
+ * drifts. Other calls evaluate the clauses in the current order and stop at the first deciding one, like
+ * {@code and()} and {@code or()}.
+ * <p>
+ * Since clauses run in any order, and sometimes all of them, they must be free of side effects and defined on every
+ * input: keep guards such as a null check out of the adaptive part, e.g.
+ * {@code isNull.negate().and(AdaptivePredicate.allOf(...))}. Calls which are not sampled write nothing shared; the
+ * statistics are updated without synchronization, so under {@code parallel()} some samples are lost: the order stays
+ * a good one, the results are always exact.
+ */
+public final class AdaptivePredicate<T> implements Predicate<T> {
+
+    static final int SAMPLING_RATE = 64;
+    static final int SAMPLES_PER_REORDER = 64;
+
+    private static final long CLOCK_COST = clockCost();
+
+    private final boolean all; // allOf, or anyOf
+    private final Clause<T>[] clauses; // in the original order
+    private volatile Clause<T>[] order;
+    private int samples;
+
+    private AdaptivePredicate(final boolean all, final List<? extends Predicate<? super T>> predicates) {
+        if (predicates.isEmpty()) {
+            throw new IllegalArgumentException("No clause");
+        }
+        this.all = all;
+        @SuppressWarnings("unchecked") final Clause<T>[] array = (Clause<T>[]) new Clause<?>[predicates.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = new Clause<T>(Objects.requireNonNull(predicates.get(i)), i);
+        }
+        this.clauses = array;
+        this.order = array.clone();
+    }
+
+    // the smallest time between two calls to nanoTime(), taken out of every measure
+    private static long clockCost() {
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < 1_000; i++) {
+            final long start = System.nanoTime();
+            min = Math.min(min, System.nanoTime() - start);
+        }
+        return min;
+    }
+
+    // the array is only read, into the clauses
+    @SafeVarargs
+    public static <T> AdaptivePredicate<T> allOf(final Predicate<? super T>... clauses) {
+        @SuppressWarnings("varargs") final List<Predicate<? super T>> list = Arrays.asList(clauses);
+        return new AdaptivePredicate<>(true, list);
+    }
+
+    public static <T> AdaptivePredicate<T> allOf(final List<? extends Predicate<? super T>> clauses) {
+        return new AdaptivePredicate<>(true, clauses);
+    }
+
+    @SafeVarargs
+    public static <T> AdaptivePredicate<T> anyOf(final Predicate<? super T>... clauses) {
+        @SuppressWarnings("varargs") final List<Predicate<? super T>> list = Arrays.asList(clauses);
+        return new AdaptivePredicate<>(false, list);
+    }
+
+    public static <T> AdaptivePredicate<T> anyOf(final List<? extends Predicate<? super T>> clauses) {
+        return new AdaptivePredicate<>(false, clauses);
+    }
+
+    @Override
+    public boolean test(final T t) {
+        if (ThreadLocalRandom.current().nextInt(SAMPLING_RATE) == 0) {
+            return sample(t);
+        }
+        for (final Clause<T> clause : order) {
+            if (clause.predicate.test(t) != all) {
+                return !all;
+            }
+        }
+        return all;
+    }
+
+    private boolean sample(final T t) {
+        boolean result = all;
+        for (final Clause<T> clause : clauses) {
+            final long start = System.nanoTime();
+            final boolean passed = clause.predicate.test(t);
+            clause.nanos += Math.max(0L, System.nanoTime() - start - CLOCK_COST);
+            clause.evaluations++;
+            if (passed) {
+                clause.passes++;
+            }
+            if (passed != all) {
+                result = !all;
+            }
+        }
+        if (++samples >= SAMPLES_PER_REORDER) {
+            samples = 0;
+            reorder();
+        }
+        return result;
+    }
+
+    private void reorder() {
+        final Clause<T>[] next = clauses.clone();
+        final double[] ranks = new double[next.length];
+        for (final Clause<T> clause : next) {
+            final double evaluations = Math.max(1L, clause.evaluations);
+            final double cost = (clause.nanos + evaluations) / evaluations; // at least 1 ns
+            final double deciding = (all ? clause.evaluations - clause.passes : clause.passes) / evaluations;
+            ranks[clause.index] = cost / Math.max(deciding, 1e-6);
+            clause.evaluations >>= 1;
+            clause.passes >>= 1;
+            clause.nanos >>= 1;
+        }
+        Arrays.sort(next, Comparator.comparingDouble(clause -> ranks[clause.index]));
+        order = next;
+    }
+
+    // indexes of the clauses, as given to allOf() or anyOf(), in the order they are evaluated now
+    public List<Integer> order() {
+        final List<Integer> indexes = new ArrayList<>(clauses.length);
+        for (final Clause<T> clause : order) {
+            indexes.add(clause.index);
+        }
+        return indexes;
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptivePredicate{" +
+                (all ? "allOf" : "anyOf") +
+                ", order=" + order() +
+                '}';
+    }
+
+    private static final class Clause<T> {
+
+        private final Predicate<? super T> predicate;
+        private final int index;
+        // sampled, halved at every reorder
+        private long evaluations;
+        private long passes;
+        private long nanos;
+
+        private Clause(final Predicate<? super T> predicate, final int index) {
+            this.predicate = predicate;
+            this.index = index;
+        }
+    }
+
+}
@@ -0,0 +1,342 @@
+package com.backstreetbrogrammer.ch01_introductionToLambdas;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Consumer;
+
+/**
+ * A {@link Consumer} writing its elements as text to a {@link WritableByteChannel} in large batches, instead of one
+ * synchronized write, and often one system call, per element like {@code forEach(System.out::println)}:
+ * <pre>
+ *     try (final BatchingSink&lt;Student&gt; sink = BatchingSink.of(channel, (student, out) -&gt;
+ *             out.append(student.getName()).append(',').append(student.getAge()).append('\n'))) {
+ *         students.parallelStream().forEach(sink);
+ *     }
+ * </pre>
+ * Each element is encoded by the calling thread into a reusable per-thread {@link StringBuilder}, then appended to the
+ * current batch under a short lock, so that {@code parallel().forEach()} encodes in parallel. A full batch is
+ * encoded to UTF-8 into a reusable direct {@link ByteBuffer} and written, either by the thread filling it, or, with
+ * {@link #async}, by a single background writer: full batches then wait in a bounded queue, and when the queue is
+ * full the producers block until the writer catches up. The channel is not closed by {@link #close()}.
+ */
+public final class BatchingSink<T> implements Consumer<T>, AutoCloseable {
+
+    public static final int DEFAULT_BATCH_SIZE = 1 << 16;
+
+    private static final ThreadLocal<StringBuilder> SCRATCH = ThreadLocal.withInitial(StringBuilder::new);
+
+    /**
+     * Appends the text of one element.
+     */
+    @FunctionalInterface
+    public interface Encoder<T> {
+
+        void encode(T value, StringBuilder out);
+
+        // String.valueOf() and a line feed, like println()
+        static <T> Encoder<T> lines() {
+            return (value, out) -> out.append(value).append('\n');
+        }
+    }
+
+    private final WritableByteChannel channel;
+    private final Encoder<? super T> encoder;
+    private final int batchSize;
+    private final Object lock = new Object();
+    private final Encoding encoding = new Encoding();
+    private final Writer writer; // null when synchronous
+    private StringBuilder batch; // guarded by the lock
+    private boolean closed; // guarded by the lock
+
+    private BatchingSink(final WritableByteChannel channel, final Encoder<? super T> encoder, final int batchSize,
+                         final int queuedBatches) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        this.channel = channel;
+        this.encoder = encoder;
+        this.batchSize = batchSize;
+        this.batch = new StringBuilder(batchSize + 256);
+        if (queuedBatches > 0) {
+            this.writer = new Writer(queuedBatches);
+            writer.start();
+        } else {
+            this.writer = null;
+        }
+    }
+
+    public static <T> BatchingSink<T> of(final WritableByteChannel channel, final Encoder<? super T> encoder) {
+        return new BatchingSink<>(channel, encoder, DEFAULT_BATCH_SIZE, 0);
+    }
+
+    // a batch is written once it holds batchSize chars
+    public static <T> BatchingSink<T> of(final WritableByteChannel channel, final Encoder<? super T> encoder,
+                                         final int batchSize) {
+        return new BatchingSink<>(channel, encoder, batchSize, 0);
+    }
+
+    // written by a background thread, with at most queuedBatches full batches waiting for it
+    public static <T> BatchingSink<T> async(final WritableByteChannel channel, final Encoder<? super T> encoder,
+                                            final int batchSize, final int queuedBatches) {
+        if (queuedBatches < 1) {
+            throw new IllegalArgumentException("queuedBatches must be positive: " + queuedBatches);
+        }
+        return new BatchingSink<>(channel, encoder, batchSize, queuedBatches);
+    }
+
+    public static <T> BatchingSink<T> lines(final WritableByteChannel channel) {
+        return of(channel, Encoder.lines());
+    }
+
+    @Override
+    public void accept(final T value) {
+        final StringBuilder scratch = SCRATCH.get();
+        scratch.setLength(0);
+        encoder.encode(value, scratch);
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("Sink closed");
+            }
+            batch.append(scratch);
+            if (batch.length() >= batchSize) {
+                handOff(null);
+            }
+        }
+        if (scratch.capacity() > batchSize) {
+            SCRATCH.remove(); // do not keep one huge element per thread
+        }
+    }
+
+    // writes everything accepted so far, and waits until it is written
+    public void flush() {
+        synchronized (lock) {
+            if (closed) {
+                return; // flushed by close()
+            }
+        }
+        writeAndWait();
+    }
+
+    // flushes, then stops the background writer
+    @Override
+    public void close() {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        try {
+            writeAndWait();
+        } finally {
+            if (writer != null) {
+                writer.shutdown();
+            }
+        }
+    }
+
+    private void writeAndWait() {
+        final CountDownLatch written = new CountDownLatch(1);
+        synchronized (lock) {
+            handOff(written);
+        }
+        awaitUninterruptibly(written);
+        if (writer != null) {
+            writer.rethrow();
+        }
+    }
+
+    // called with the lock held; counts the latch down once the batch is written
+    private void handOff(final CountDownLatch written) {
+        if (writer == null) {
+            try {
+                encoding.write(batch, channel);
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                batch.setLength(0);
+                if (written != null) {
+                    written.countDown();
+                }
+            }
+            return;
+        }
+        writer.rethrow();
+        batch = writer.exchange(new Batch(batch, written));
+    }
+
+    private static void awaitUninterruptibly(final CountDownLatch latch) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (final InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // a UTF-8 encoder and its output buffer, reused batch after batch by the thread holding the lock, or the writer
+    private static final class Encoding {
+
+        private final CharsetEncoder utf8 = StandardCharsets.UTF_8.newEncoder();
+        private final ByteBuffer bytes = ByteBuffer.allocateDirect(1 << 16);
+
+        private void write(final CharSequence text, final WritableByteChannel channel) throws IOException {
+            final CharBuffer chars = CharBuffer.wrap(text);
+            utf8.reset();
+            CoderResult result;
+            do {
+                result = utf8.encode(chars, bytes, true);
+                if (result.isError()) {
+                    result.throwException();
+                }
+                drain(channel);
+            } while (result.isOverflow());
+            while (utf8.flush(bytes).isOverflow()) {
+                drain(channel);
+            }
+            drain(channel);
+        }
+
+        private void drain(final WritableByteChannel channel) throws IOException {
+            bytes.flip();
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            bytes.clear();
+        }
+    }
+
+    private static final class Batch {
+
+        private final StringBuilder chars;
+        private final CountDownLatch written; // null when nobody waits for this batch
+
+        private Batch(final StringBuilder chars, final CountDownLatch written) {
+            this.chars = chars;
+            this.written = written;
+        }
+    }
+
+    // the single background writer: full batches go through a bounded queue, empty ones come back through another
+    private final class Writer extends Thread {
+
+        private final BlockingQueue<Batch> full;
+        private final BlockingQueue<StringBuilder> empty;
+        private volatile Throwable failure;
+
+        private Writer(final int queuedBatches) {
+            super("batching-sink-writer");
+            setDaemon(true);
+            this.full = new ArrayBlockingQueue<>(queuedBatches);
+            // one more being written, so that producers can fill a batch meanwhile; room for the one being filled
+            // too, since the writer may give a batch back before its producer took a new one
+            this.empty = new ArrayBlockingQueue<>(queuedBatches + 2);
+            for (int i = 0; i < queuedBatches + 1; i++) {
+                empty.add(new StringBuilder(batchSize + 256));
+            }
+        }
+
+        // blocks while the queue is full: backpressure on the producers
+        private StringBuilder exchange(final Batch batch) {
+            boolean interrupted = false;
+            try {
+                while (true) {
+                    try {
+                        full.put(batch);
+                        break;
+                    } catch (final InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+                while (true) {
+                    try {
+                        return empty.take();
+                    } catch (final InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            } finally {
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    final Batch batch = full.take();
+                    if (batch.chars == null) {
+                        return;
+                    }
+                    try {
+                        if (failure == null) {
+                            encoding.write(batch.chars, channel);
+                        }
+                    } catch (final Throwable e) {
+                        // kept for the producers; the writer goes on draining, so that nobody waits forever
+                        failure = e;
+                    } finally {
+                        batch.chars.setLength(0);
+                        empty.add(batch.chars);
+                        if (batch.written != null) {
+                            batch.written.countDown();
+                        }
+                    }
+                }
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void rethrow() {
+            final Throwable e = failure;
+            if (e instanceof IOException) {
+                throw new UncheckedIOException((IOException) e);
+            }
+            if (e != null) {
+                throw new IllegalStateException("Background write failed", e);
+            }
+        }
+
+        // waits for room if close() failed with batches still queued: they are drained, not written
+        private void shutdown() {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    full.put(new Batch(null, null));
+                    break;
+                } catch (final InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            while (isAlive()) {
+                try {
+                    join();
+                } catch (final InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+}
@@ -1,5 +1,7 @@
 package com.backstreetbrogrammer.ch01_introductionToLambdas;
 
+import java.nio.channels.Channels;
+import java.util.List;
 import java.util.Locale;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
@@ -27,6 +29,18 @@ public class ChainingLambdas {
         System.out.printf("For 'Hello Students' = %b%n", isNotNullOrEmpty.test("Hello Students"));
         System.out.println("------------------------");
 
+        // Adaptive: the null check stays first, the other clauses are reordered by measured cost and selectivity
+        final Predicate<String> isNotNullOrBlankAndShort =
+                isNull.negate().and(AdaptivePredicate.allOf(isEmpty.negate(),
+                                                            s -> !s.isBlank(),
+                                                            s -> s.length() < 10));
+        System.out.println("Using 'isNotNullOrBlankAndShort' adaptive Predicate~>");
+        System.out.printf("For null = %b%n", isNotNullOrBlankAndShort.test(null));
+        System.out.printf("For blank = %b%n", isNotNullOrBlankAndShort.test("  "));
+        System.out.printf("For 'Hello Students' = %b%n", isNotNullOrBlankAndShort.test("Hello Students"));
+        System.out.printf("For 'Hello' = %b%n", isNotNullOrBlankAndShort.test("Hello"));
+        System.out.println("------------------------");
+
         // Consumer
         final Consumer<String> c1 = s -> System.out.printf("c1 consumer prints as upper case: %s%n",
                                                            s.toUpperCase(Locale.ROOT));
@@ -37,6 +51,16 @@ public class ChainingLambdas {
         System.out.println("Using 'andThen' Consumer to combine~>");
         c3.accept("Hello Students");
         System.out.println("------------------------");
+
+        // Batching: the lines are encoded per element, but written to the channel in large batches
+        final BatchingSink.Encoder<String> upperThenLower =
+                (s, out) -> out.append("sink prints as upper case: ").append(s.toUpperCase(Locale.ROOT)).append('\n')
+                               .append("sink prints as lower case: ").append(s.toLowerCase(Locale.ROOT)).append('\n');
+        System.out.println("Using 'BatchingSink' Consumer~>");
+        try (final BatchingSink<String> sink = BatchingSink.of(Channels.newChannel(System.out), upperThenLower)) {
+            List.of("Hello Students", "Hello Lambdas").parallelStream().forEach(sink);
+        }
+        System.out.println("------------------------");
     }
 
 }
@@ -1,5 +1,7 @@
 package com.backstreetbrogrammer.ch01_introductionToLambdas;
 
+import com.backstreetbrogrammer.ch05_collectors.TopKCollectors;
+import com.backstreetbrogrammer.model.PrimitiveSort;
 import com.backstreetbrogrammer.model.Student;
 
 import java.util.ArrayList;
@@ -49,6 +51,28 @@ public class CombiningLambdas {
         System.out.println("Printing Students sorted by 'Name' and then 'Age' in descending order~>");
         students.forEach(student -> System.out.println(student));
         System.out.println("-------------------------");
+
+        // The same order as 'reversed', as one flat comparator with no boxing of the age
+        final Comparator<Student> flatReversed = ComparatorBuilder.byString(Student::getName)
+                                                                  .thenInt(Student::getAge)
+                                                                  .descending();
+        students.sort(flatReversed);
+        System.out.println("Printing Students sorted by 'Name' and then 'Age' in descending order using " +
+                                   "ComparatorBuilder~>");
+        students.forEach(student -> System.out.println(student));
+        System.out.println("-------------------------");
+
+        // Counting sort on the primitive age, equal ages kept in name order
+        PrimitiveSort.sortByInt(students, Student::getAge, Student::getName);
+        System.out.println("Printing Students sorted by 'Age' and then 'Name' using PrimitiveSort~>");
+        students.forEach(student -> System.out.println(student));
+        System.out.println("-------------------------");
+
+        // Top-K: a bounded heap keeps only the 3 oldest students, instead of sorting the whole list
+        final List<Student> oldestThree = students.stream()
+                                                  .collect(TopKCollectors.topKByInt(3, Student::getAge));
+        System.out.printf("3 oldest students: %s%n", oldestThree);
+        System.out.println("-------------------------");
     }
 
 }
@@ -0,0 +1,145 @@
+package com.backstreetbrogrammer.ch01_introductionToLambdas;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Builds a flat comparator out of a chain of sort keys, e.g.
+ * {@code ComparatorBuilder.byString(Student::getName).thenInt(Student::getAge).descending()}.
+ * <p>
+ * Unlike {@code Comparator.comparing(...).thenComparing(...).reversed()}, which nests one lambda layer per step and
+ * boxes primitive keys, the whole chain is a single comparator class looping over its keys, extracting {@code int}
+ * and {@code long} keys as primitives. Every step returns a new, immutable builder.
+ * <p>
+ * {@link #sort(List)} additionally precomputes the sort keys when the chain is a single {@code int} key: key and
+ * position are packed into one {@code long} per element and sorted as primitives, which also keeps the sort stable.
+ */
+public final class ComparatorBuilder<T> implements Comparator<T> {
+
+    private static final int INT = 0;
+    private static final int LONG = 1;
+    private static final int STRING = 2;
+
+    private final int[] kinds;
+    private final boolean[] descending;
+    private final ToIntFunction<? super T>[] intKeys;
+    private final ToLongFunction<? super T>[] longKeys;
+    private final Function<? super T, String>[] stringKeys;
+
+    private ComparatorBuilder(final int[] kinds, final boolean[] descending, final ToIntFunction<? super T>[] intKeys,
+                              final ToLongFunction<? super T>[] longKeys,
+                              final Function<? super T, String>[] stringKeys) {
+        this.kinds = kinds;
+        this.descending = descending;
+        this.intKeys = intKeys;
+        this.longKeys = longKeys;
+        this.stringKeys = stringKeys;
+    }
+
+    private static <T> ComparatorBuilder<T> empty() {
+        @SuppressWarnings("unchecked") final ToIntFunction<? super T>[] intKeys =
+                (ToIntFunction<? super T>[]) new ToIntFunction<?>[0];
+        @SuppressWarnings("unchecked") final ToLongFunction<? super T>[] longKeys =
+                (ToLongFunction<? super T>[]) new ToLongFunction<?>[0];
+        @SuppressWarnings("unchecked") final Function<? super T, String>[] stringKeys =
+                (Function<? super T, String>[]) new Function<?, ?>[0];
+        return new ComparatorBuilder<>(new int[0], new boolean[0], intKeys, longKeys, stringKeys);
+    }
+
+    public static <T> ComparatorBuilder<T> byInt(final ToIntFunction<? super T> key) {
+        return ComparatorBuilder.<T>empty().thenInt(key);
+    }
+
+    public static <T> ComparatorBuilder<T> byLong(final ToLongFunction<? super T> key) {
+        return ComparatorBuilder.<T>empty().thenLong(key);
+    }
+
+    public static <T> ComparatorBuilder<T> byString(final Function<? super T, String> key) {
+        return ComparatorBuilder.<T>empty().thenString(key);
+    }
+
+    public ComparatorBuilder<T> thenInt(final ToIntFunction<? super T> key) {
+        final ComparatorBuilder<T> next = append(INT);
+        next.intKeys[kinds.length] = key;
+        return next;
+    }
+
+    public ComparatorBuilder<T> thenLong(final ToLongFunction<? super T> key) {
+        final ComparatorBuilder<T> next = append(LONG);
+        next.longKeys[kinds.length] = key;
+        return next;
+    }
+
+    public ComparatorBuilder<T> thenString(final Function<? super T, String> key) {
+        final ComparatorBuilder<T> next = append(STRING);
+        next.stringKeys[kinds.length] = key;
+        return next;
+    }
+
+    // reverses the order of every key added so far, like Comparator.reversed(); keys added later stay ascending
+    public ComparatorBuilder<T> descending() {
+        final boolean[] flipped = descending.clone();
+        for (int i = 0; i < flipped.length; i++) {
+            flipped[i] = !flipped[i];
+        }
+        return new ComparatorBuilder<>(kinds, flipped, intKeys, longKeys, stringKeys);
+    }
+
+    private ComparatorBuilder<T> append(final int kind) {
+        final int size = kinds.length + 1;
+        final int[] nextKinds = Arrays.copyOf(kinds, size);
+        nextKinds[size - 1] = kind;
+        return new ComparatorBuilder<>(nextKinds, Arrays.copyOf(descending, size), Arrays.copyOf(intKeys, size),
+                                       Arrays.copyOf(longKeys, size), Arrays.copyOf(stringKeys, size));
+    }
+
+    @Override
+    public int compare(final T o1, final T o2) {
+        for (int i = 0; i < kinds.length; i++) {
+            final int result;
+            switch (kinds[i]) {
+                case INT:
+                    result = Integer.compare(intKeys[i].applyAsInt(o1), intKeys[i].applyAsInt(o2));
+                    break;
+                case LONG:
+                    result = Long.compare(longKeys[i].applyAsLong(o1), longKeys[i].applyAsLong(o2));
+                    break;
+                default:
+                    result = stringKeys[i].apply(o1).compareTo(stringKeys[i].apply(o2));
+                    break;
+            }
+            if (result != 0) {
+                return descending[i] ? -Integer.signum(result) : result;
+            }
+        }
+        return 0;
+    }
+
+    // stable sort of the list in this order
+    public void sort(final List<T> list) {
+        if (kinds.length != 1 || kinds[0] != INT) {
+            list.sort(this);
+            return;
+        }
+
+        @SuppressWarnings("unchecked") final T[] elements = (T[]) list.toArray();
+        final long[] packed = new long[elements.length];
+        for (int i = 0; i < elements.length; i++) {
+            final int key = intKeys[0].applyAsInt(elements[i]);
+            packed[i] = ((long) (descending[0] ? ~key : key) << 32) | i; // ~key reverses the order, without overflow
+        }
+        Arrays.sort(packed);
+
+        final ListIterator<T> iterator = list.listIterator();
+        for (final long entry : packed) {
+            iterator.next();
+            iterator.set(elements[(int) entry]);
+        }
+    }
+
+}
@@ -48,6 +48,15 @@ public class FunctionalInterfacesDemo {
         // Consumer
         names.forEach(name -> System.out.println(name));
         System.out.println("----------------------");
+
+        // Memoized Function: computed once per student, then served from a bounded cache
+        final Memoize.CachedFunction<Student, String> cachedToName = Memoize.function(toName, 100);
+        System.out.println("4. Print all students names twice using a memoized Function~>");
+        for (int i = 0; i < 2; i++) {
+            students.forEach(student -> System.out.println(cachedToName.apply(student)));
+        }
+        System.out.println(cachedToName.stats());
+        System.out.println("----------------------");
     }
 
 }
@@ -0,0 +1,424 @@
+package com.backstreetbrogrammer.ch01_introductionToLambdas;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Memoizing wrappers for expensive functions, backed by a bounded concurrent cache:
+ * <pre>
+ *     final Memoize.CachedFunction&lt;String, Student&gt; lookup = Memoize.function(this::lookup, 10_000);
+ *     names.parallelStream().map(lookup)...
+ * </pre>
+ * Hits never lock: they read a {@link ConcurrentHashMap} and mark the entry as referenced. Eviction is a segmented
+ * LRU, approximated CLOCK-style: entries are split by hash into segments, each with its own lock, and within a
+ * segment new entries go to a probation list. When a miss needs room, referenced probation entries move to a
+ * protected list (80% of the segment's share of {@code maxSize}) instead of being evicted, so a burst of one-off
+ * keys only evicts other one-off keys. A miss evicts from its own segment first.
+ * <p>
+ * On a miss the function is called outside of any lock, so two threads missing the same key at the same time may
+ * both call it, and the first result is kept: the function must be free of side effects. Null keys are rejected,
+ * null results are cached.
+ */
+public final class Memoize {
+
+    private static final int MAX_SEGMENTS = 64;
+
+    private Memoize() {
+    }
+
+    public static <K, V> CachedFunction<K, V> function(final Function<? super K, ? extends V> fn, final int maxSize) {
+        return function(fn, maxSize, Duration.ZERO);
+    }
+
+    // entries are recomputed once older than expireAfterWrite, never if it is zero
+    public static <K, V> CachedFunction<K, V> function(final Function<? super K, ? extends V> fn, final int maxSize,
+                                                       final Duration expireAfterWrite) {
+        Objects.requireNonNull(fn);
+        return new CachedFunction<>(new Cache<>(key -> new Node<>(key, fn.apply(key), 0L),
+                                                maxSize, expireAfterWrite));
+    }
+
+    public static <K> CachedToIntFunction<K> toIntFunction(final ToIntFunction<? super K> fn, final int maxSize) {
+        return toIntFunction(fn, maxSize, Duration.ZERO);
+    }
+
+    public static <K> CachedToIntFunction<K> toIntFunction(final ToIntFunction<? super K> fn, final int maxSize,
+                                                           final Duration expireAfterWrite) {
+        Objects.requireNonNull(fn);
+        return new CachedToIntFunction<>(new Cache<>(key -> new Node<>(key, null, fn.applyAsInt(key)),
+                                                     maxSize, expireAfterWrite));
+    }
+
+    public static <K> CachedToLongFunction<K> toLongFunction(final ToLongFunction<? super K> fn, final int maxSize) {
+        return toLongFunction(fn, maxSize, Duration.ZERO);
+    }
+
+    public static <K> CachedToLongFunction<K> toLongFunction(final ToLongFunction<? super K> fn, final int maxSize,
+                                                             final Duration expireAfterWrite) {
+        Objects.requireNonNull(fn);
+        return new CachedToLongFunction<>(new Cache<>(key -> new Node<>(key, null, fn.applyAsLong(key)),
+                                                      maxSize, expireAfterWrite));
+    }
+
+    /**
+     * Operations common to every memoized function.
+     */
+    public abstract static class Cached<K> {
+
+        final Cache<K> cache;
+
+        private Cached(final Cache<K> cache) {
+            this.cache = cache;
+        }
+
+        public Stats stats() {
+            return cache.stats();
+        }
+
+        public int size() {
+            return cache.map.size();
+        }
+
+        public void invalidateAll() {
+            cache.clear();
+        }
+
+        @Override
+        public String toString() {
+            return getClass().getSimpleName() + "{size=" + size() + ", stats=" + stats() + '}';
+        }
+    }
+
+    public static final class CachedFunction<K, V> extends Cached<K> implements Function<K, V> {
+
+        private CachedFunction(final Cache<K> cache) {
+            super(cache);
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public V apply(final K key) {
+            return (V) cache.get(key).value;
+        }
+    }
+
+    public static final class CachedToIntFunction<K> extends Cached<K> implements ToIntFunction<K> {
+
+        private CachedToIntFunction(final Cache<K> cache) {
+            super(cache);
+        }
+
+        @Override
+        public int applyAsInt(final K key) {
+            return (int) cache.get(key).primitive;
+        }
+    }
+
+    public static final class CachedToLongFunction<K> extends Cached<K> implements ToLongFunction<K> {
+
+        private CachedToLongFunction(final Cache<K> cache) {
+            super(cache);
+        }
+
+        @Override
+        public long applyAsLong(final K key) {
+            return cache.get(key).primitive;
+        }
+    }
+
+    /**
+     * Counters since the cache was created.
+     */
+    public static final class Stats {
+
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+
+        private Stats(final long hits, final long misses, final long evictions) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        // entries dropped to stay within maxSize, expired entries are not counted
+        public long getEvictions() {
+            return evictions;
+        }
+
+        public double getHitRate() {
+            final long requests = hits + misses;
+            return requests == 0L ? 0D : (double) hits / requests;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Stats{hits=%d, misses=%d, evictions=%d, hitRate=%.3f}",
+                                 hits, misses, evictions, getHitRate());
+        }
+    }
+
+    // a cached result, boxed in value or primitive in primitive, linked in one list of its segment
+    private static final class Node<K> {
+
+        private final K key;
+        private final Object value;
+        private final long primitive;
+        private long writtenAt;
+        private Node<K> previous;
+        private Node<K> next;
+        private boolean inProtected;
+        private boolean linked;
+        private boolean referenced; // set by hits without locking, cleared by the eviction under the lock
+
+        private Node(final K key, final Object value, final long primitive) {
+            this.key = key;
+            this.value = value;
+            this.primitive = primitive;
+        }
+    }
+
+    // a doubly linked list with a sentinel, most recently added first
+    private static final class LruList<K> {
+
+        private final Node<K> head = new Node<>(null, null, 0L);
+        private int size;
+
+        private LruList() {
+            head.previous = head;
+            head.next = head;
+        }
+
+        private void addFirst(final Node<K> node) {
+            node.previous = head;
+            node.next = head.next;
+            head.next.previous = node;
+            head.next = node;
+            size++;
+        }
+
+        private void remove(final Node<K> node) {
+            node.previous.next = node.next;
+            node.next.previous = node.previous;
+            node.previous = null;
+            node.next = null;
+            size--;
+        }
+
+        private Node<K> last() {
+            return head.previous == head ? null : head.previous;
+        }
+
+        private void clear() {
+            head.previous = head;
+            head.next = head;
+            size = 0;
+        }
+    }
+
+    private static final class Segment<K> {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final int protectedCapacity;
+        private final LruList<K> probation = new LruList<>();
+        private final LruList<K> protectedEntries = new LruList<>();
+        // guarded by the lock
+        private long misses;
+        private long evictions;
+
+        private Segment(final int protectedCapacity) {
+            this.protectedCapacity = protectedCapacity;
+        }
+
+        private int size() {
+            return probation.size + protectedEntries.size;
+        }
+    }
+
+    static final class Cache<K> {
+
+        private final Function<? super K, Node<K>> loader;
+        private final ConcurrentHashMap<K, Node<K>> map;
+        private final Segment<K>[] segments;
+        private final long expireNanos;
+        private final int maxSize;
+        private final AtomicInteger size = new AtomicInteger(); // changed under the lock of the segment changed
+        private final LongAdder hits = new LongAdder();
+
+        private Cache(final Function<? super K, Node<K>> loader, final int maxSize, final Duration expireAfterWrite) {
+            if (maxSize < 1) {
+                throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+            }
+            if (expireAfterWrite.isNegative()) {
+                throw new IllegalArgumentException("expireAfterWrite must not be negative: " + expireAfterWrite);
+            }
+            this.loader = loader;
+            this.map = new ConcurrentHashMap<>(Math.min(maxSize, 1 << 16));
+            this.expireNanos = expireAfterWrite.toNanos();
+            // a power of two, at most maxSize so that every segment holds at least one entry
+            final int wanted = Math.min(MAX_SEGMENTS, 4 * Runtime.getRuntime().availableProcessors());
+            final int count = Integer.highestOneBit(Math.min(maxSize, wanted));
+            this.maxSize = maxSize;
+            @SuppressWarnings("unchecked") final Segment<K>[] table = (Segment<K>[]) new Segment<?>[count];
+            for (int i = 0; i < count; i++) {
+                table[i] = new Segment<>(maxSize * 4 / 5 / count);
+            }
+            this.segments = table;
+        }
+
+        private Segment<K> segmentOf(final Object key) {
+            final int h = key.hashCode() * 0x9E3779B9;
+            return segments[(h ^ (h >>> 16)) & (segments.length - 1)];
+        }
+
+        private Node<K> get(final K key) {
+            final Node<K> node = map.get(Objects.requireNonNull(key));
+            if (node != null && (expireNanos == 0L || System.nanoTime() - node.writtenAt < expireNanos)) {
+                if (!node.referenced) {
+                    node.referenced = true;
+                }
+                hits.increment();
+                return node;
+            }
+            return load(key);
+        }
+
+        private Node<K> load(final K key) {
+            final Node<K> loaded = loader.apply(key);
+            final Segment<K> segment = segmentOf(key);
+            segment.lock.lock();
+            try {
+                segment.misses++;
+                final Node<K> current = map.get(key);
+                if (current != null && (expireNanos == 0L || System.nanoTime() - current.writtenAt < expireNanos)) {
+                    return current; // loaded by another thread in the meantime
+                }
+                if (current != null) {
+                    remove(segment, current);
+                }
+                loaded.writtenAt = System.nanoTime();
+                map.put(key, loaded);
+                loaded.linked = true;
+                segment.probation.addFirst(loaded);
+                size.incrementAndGet();
+                evict(segment);
+            } finally {
+                segment.lock.unlock();
+            }
+            // the segment of the key is empty but the cache is still full: the other segments make room
+            for (int i = 0; i < segments.length && size.get() > maxSize; i++) {
+                final Segment<K> other = segments[i];
+                other.lock.lock();
+                try {
+                    evict(other);
+                } finally {
+                    other.lock.unlock();
+                }
+            }
+            return loaded;
+        }
+
+        // segments share maxSize, so that an unlucky hash distribution does not evict from a crowded segment
+        private void evict(final Segment<K> segment) {
+            while (size.get() > maxSize && segment.size() > 0) {
+                remove(segment, victim(segment));
+                segment.evictions++;
+            }
+        }
+
+        // the least recent probation entry not hit since it was last looked at; the ones hit are promoted instead
+        private static <K> Node<K> victim(final Segment<K> segment) {
+            while (true) {
+                if (segment.probation.size == 0) {
+                    demote(segment);
+                    continue;
+                }
+                final Node<K> node = segment.probation.last();
+                if (!node.referenced) {
+                    return node;
+                }
+                node.referenced = false;
+                segment.probation.remove(node);
+                node.inProtected = true;
+                segment.protectedEntries.addFirst(node);
+                while (segment.protectedEntries.size > segment.protectedCapacity) {
+                    demote(segment);
+                }
+            }
+        }
+
+        // the least recent protected entry goes back to probation, unless it was hit: then it gets a second chance
+        private static <K> void demote(final Segment<K> segment) {
+            final Node<K> node = segment.protectedEntries.last();
+            segment.protectedEntries.remove(node);
+            if (node.referenced) {
+                node.referenced = false;
+                segment.protectedEntries.addFirst(node);
+            } else {
+                node.inProtected = false;
+                segment.probation.addFirst(node);
+            }
+        }
+
+        private void remove(final Segment<K> segment, final Node<K> node) {
+            unlink(segment, node);
+            map.remove(node.key, node);
+            size.decrementAndGet();
+        }
+
+        private static <K> void unlink(final Segment<K> segment, final Node<K> node) {
+            (node.inProtected ? segment.protectedEntries : segment.probation).remove(node);
+            node.linked = false;
+        }
+
+        private void clear() {
+            for (final Segment<K> segment : segments) {
+                segment.lock.lock();
+                try {
+                    for (final LruList<K> list : List.of(segment.probation, segment.protectedEntries)) {
+                        for (Node<K> node = list.head.next; node != list.head; node = node.next) {
+                            node.linked = false;
+                            map.remove(node.key, node);
+                            size.decrementAndGet();
+                        }
+                        list.clear();
+                    }
+                } finally {
+                    segment.lock.unlock();
+                }
+            }
+        }
+
+        private Stats stats() {
+            long misses = 0L;
+            long evictions = 0L;
+            for (final Segment<K> segment : segments) {
+                segment.lock.lock();
+                try {
+                    misses += segment.misses;
+                    evictions += segment.evictions;
+                } finally {
+                    segment.lock.unlock();
+                }
+            }
+            return new Stats(hits.sum(), misses, evictions);
+        }
+    }
+
+}
@@ -1,5 +1,13 @@
 package com.backstreetbrogrammer.ch01_introductionToLambdas;
 
+import com.backstreetbrogrammer.function.CharPredicate;
+import com.backstreetbrogrammer.function.IntArrayList;
+import com.backstreetbrogrammer.function.IntIntConsumer;
+import com.backstreetbrogrammer.function.IntIntHashMap;
+import com.backstreetbrogrammer.function.PrimitiveCollectors;
+import com.backstreetbrogrammer.model.Student;
+
+import java.util.List;
 import java.util.function.DoubleToIntFunction;
 import java.util.function.LongSupplier;
 
@@ -13,6 +21,23 @@ public class PrimitiveLambdas {
         final DoubleToIntFunction function = value -> (int) Math.ceil(value);
         final int pi = function.applyAsInt(Math.PI);
         System.out.printf("PI = %d%n", pi);
+
+        // missing from java.util.function: see the com.backstreetbrogrammer.function package
+        final CharPredicate vowel = CharPredicate.anyOf("aeiouAEIOU");
+        System.out.printf("Vowels in 'Hello Students' = %d%n",
+                          "Hello Students".chars().filter(vowel.asIntPredicate()).count());
+
+        // collecting without boxing the ages
+        final List<Student> students = List.of(new Student("John", 18), new Student("Mary", 16),
+                                               new Student("Thomas", 21), new Student("Rahul", 18));
+        final IntArrayList ages = students.stream().collect(PrimitiveCollectors.toIntList(Student::getAge));
+        ages.sort();
+        System.out.printf("Ages = %s%n", ages);
+
+        final IntIntHashMap studentsPerAge = students.stream()
+                                                     .collect(PrimitiveCollectors.countingByInt(Student::getAge));
+        final IntIntConsumer print = (age, count) -> System.out.printf("Age %d: %d student(s)%n", age, count);
+        studentsPerAge.forEach(print);
     }
 
 }
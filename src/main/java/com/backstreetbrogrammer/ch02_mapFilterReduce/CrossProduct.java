@@ -0,0 +1,175 @@
+package com.backstreetbrogrammer.ch02_mapFilterReduce;
+
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazy cartesian product of two lists, replacing the nested
+ * {@code left.stream().flatMap(a -> right.stream().map(b -> new Object[]{a, b}))} pattern.
+ * <p>
+ * The pairs are addressed by a flat index {@code i * right.size() + j}, so the product splits evenly for parallel
+ * processing, whatever the sizes of the two lists. {@link #forEachPair(BiConsumer)} hands out both elements without
+ * allocating any wrapper; {@link #stream(BiFunction)} is a {@code SIZED} and {@code SUBSIZED} stream of the mapped
+ * pairs.
+ */
+public final class CrossProduct<A, B> {
+
+    private static final long MIN_SPLIT_SIZE = 1L << 12;
+
+    private final Object[] left;
+    private final Object[] right;
+    private final long size;
+
+    private CrossProduct(final Object[] left, final Object[] right) {
+        this.left = left;
+        this.right = right;
+        this.size = (long) left.length * right.length;
+    }
+
+    // both lists are copied, so that any List (not only RandomAccess ones) is cheap to index
+    public static <A, B> CrossProduct<A, B> of(final List<? extends A> left, final List<? extends B> right) {
+        return new CrossProduct<>(left.toArray(), right.toArray());
+    }
+
+    public long size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public A left(final long index) {
+        return (A) left[(int) (index / right.length)];
+    }
+
+    @SuppressWarnings("unchecked")
+    public B right(final long index) {
+        return (B) right[(int) (index % right.length)];
+    }
+
+    public void forEachPair(final BiConsumer<? super A, ? super B> action) {
+        forEachInRange(0L, size, action);
+    }
+
+    // splits the flat index range on the fork-join pool of the caller (or the common pool)
+    public void parallelForEachPair(final BiConsumer<? super A, ? super B> action) {
+        final ForkJoinPool pool = ForkJoinTask.inForkJoinPool() ? ForkJoinTask.getPool() : ForkJoinPool.commonPool();
+        final int parallelism = pool.getParallelism();
+        final long threshold = Math.max(MIN_SPLIT_SIZE, size / (parallelism * 4L));
+        new ForEachPairTask<>(this, 0L, size, threshold, action).invoke();
+    }
+
+    public <R> Stream<R> stream(final BiFunction<? super A, ? super B, ? extends R> mapper) {
+        return StreamSupport.stream(new PairSpliterator<>(this, 0L, size, mapper), false);
+    }
+
+    // walks [from, to) with two cursors, instead of a division per pair
+    @SuppressWarnings("unchecked")
+    private void forEachInRange(final long from, final long to, final BiConsumer<? super A, ? super B> action) {
+        if (from >= to) {
+            return;
+        }
+        int i = (int) (from / right.length);
+        int j = (int) (from % right.length);
+        for (long index = from; index < to; index++) {
+            action.accept((A) left[i], (B) right[j]);
+            if (++j == right.length) {
+                j = 0;
+                i++;
+            }
+        }
+    }
+
+    private static final class ForEachPairTask<A, B> extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final CrossProduct<A, B> product;
+        private final long from;
+        private final long to;
+        private final long threshold;
+        private final BiConsumer<? super A, ? super B> action;
+
+        private ForEachPairTask(final CrossProduct<A, B> product, final long from, final long to, final long threshold,
+                                final BiConsumer<? super A, ? super B> action) {
+            this.product = product;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= threshold) {
+                product.forEachInRange(from, to, action);
+                return;
+            }
+            final long mid = from + (to - from) / 2;
+            invokeAll(new ForEachPairTask<>(product, from, mid, threshold, action),
+                      new ForEachPairTask<>(product, mid, to, threshold, action));
+        }
+    }
+
+    private static final class PairSpliterator<A, B, R> implements Spliterator<R> {
+
+        private final CrossProduct<A, B> product;
+        private long from;
+        private final long to;
+        private final BiFunction<? super A, ? super B, ? extends R> mapper;
+
+        private PairSpliterator(final CrossProduct<A, B> product, final long from, final long to,
+                                final BiFunction<? super A, ? super B, ? extends R> mapper) {
+            this.product = product;
+            this.from = from;
+            this.to = to;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public boolean tryAdvance(final Consumer<? super R> action) {
+            if (from >= to) {
+                return false;
+            }
+            action.accept(mapper.apply(product.left(from), product.right(from)));
+            from++;
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(final Consumer<? super R> action) {
+            final long start = from;
+            from = to;
+            product.forEachInRange(start, to, (a, b) -> action.accept(mapper.apply(a, b)));
+        }
+
+        @Override
+        public Spliterator<R> trySplit() {
+            final long remaining = to - from;
+            if (remaining < MIN_SPLIT_SIZE) {
+                return null;
+            }
+            final long mid = from + remaining / 2;
+            final Spliterator<R> prefix = new PairSpliterator<A, B, R>(product, from, mid, mapper);
+            from = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return to - from;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | IMMUTABLE;
+        }
+    }
+
+}
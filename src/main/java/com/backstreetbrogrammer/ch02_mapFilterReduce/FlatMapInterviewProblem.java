@@ -17,6 +17,14 @@ public class FlatMapInterviewProblem {
                           .collect(Collectors.toList());
 
         pairs.forEach(val -> System.out.printf("(%s,%s)%n", val[0], val[1]));
+
+        System.out.println("-------------------");
+
+        // no String[] per pair and no inner stream per student: pairs are addressed by a flat index
+        final CrossProduct<String, String> crossProduct = CrossProduct.of(students, favoriteLanguages);
+        crossProduct.forEachPair((student, favoriteLanguage) -> System.out.printf("(%s,%s)%n",
+                                                                                student,
+                                                                                favoriteLanguage));
     }
 
 }
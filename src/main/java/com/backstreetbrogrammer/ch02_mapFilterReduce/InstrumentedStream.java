@@ -0,0 +1,446 @@
+package com.backstreetbrogrammer.ch02_mapFilterReduce;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collector;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Wraps a {@link Stream} and records, for each named stage, the elements going in and out, the time spent in the
+ * stage's lambda and the bytes it allocates:
+ * <pre>
+ *     final InstrumentedStream.Metrics metrics = new InstrumentedStream.Metrics();
+ *     final long count = InstrumentedStream.of(students.stream(), metrics)
+ *                                          .mapToInt("age", Student::getAge)
+ *                                          .filter("olderThan20", age -&gt; age &gt;= 20)
+ *                                          .count();
+ *     metrics.snapshot().forEach(System.out::println);
+ * </pre>
+ * Counts are exact, striped by thread so that parallel streams neither contend nor pay for atomic instructions; a
+ * snapshot taken while a pipeline runs may miss its latest increments. Time and allocations are measured on one
+ * element out of {@value #SAMPLING_RATE} on average, at random, and scaled up: they are estimates, and include the
+ * cost of measuring. Allocations are only measured where the JVM supports per thread allocation
+ * counters.
+ * <p>
+ * When instrumentation is disabled, with {@link #setEnabled(boolean)} or {@code -Dinstrumented.streams=false}, the
+ * stages are added with the original lambdas, so the pipeline runs exactly as if it had not been wrapped. The switch
+ * is read when the pipeline is built.
+ */
+public final class InstrumentedStream<T> {
+
+    static final int SAMPLING_RATE = 64;
+
+    private static final com.sun.management.ThreadMXBean THREADS = allocationCounters();
+
+    private static volatile boolean enabled =
+            Boolean.parseBoolean(System.getProperty("instrumented.streams", "true"));
+
+    private final Stream<T> stream;
+    private final Metrics metrics;
+
+    private InstrumentedStream(final Stream<T> stream, final Metrics metrics) {
+        this.stream = stream;
+        this.metrics = metrics;
+    }
+
+    public static <T> InstrumentedStream<T> of(final Stream<T> stream, final Metrics metrics) {
+        return new InstrumentedStream<>(stream, metrics);
+    }
+
+    public static OfInt of(final IntStream stream, final Metrics metrics) {
+        return new OfInt(stream, metrics);
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(final boolean enabled) {
+        InstrumentedStream.enabled = enabled;
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounters() {
+        final var threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            final var sunThreads = (com.sun.management.ThreadMXBean) threads;
+            if (sunThreads.isThreadAllocatedMemorySupported() && sunThreads.isThreadAllocatedMemoryEnabled()) {
+                return sunThreads;
+            }
+        }
+        return null;
+    }
+
+    public InstrumentedStream<T> filter(final String name, final Predicate<? super T> predicate) {
+        if (!enabled) {
+            return new InstrumentedStream<>(stream.filter(predicate), metrics);
+        }
+        final Stage stage = metrics.stage(name);
+        return new InstrumentedStream<>(stream.filter(element -> {
+            final Counters counters = stage.counters();
+            final long start = counters.start();
+            final boolean kept = predicate.test(element);
+            counters.stop(start, kept ? 1L : 0L);
+            return kept;
+        }), metrics);
+    }
+
+    public <R> InstrumentedStream<R> map(final String name, final Function<? super T, ? extends R> mapper) {
+        if (!enabled) {
+            return new InstrumentedStream<>(stream.map(mapper), metrics);
+        }
+        final Stage stage = metrics.stage(name);
+        return new InstrumentedStream<>(stream.map(element -> {
+            final Counters counters = stage.counters();
+            final long start = counters.start();
+            final R mapped = mapper.apply(element);
+            counters.stop(start, 1L);
+            return mapped;
+        }), metrics);
+    }
+
+    public OfInt mapToInt(final String name, final ToIntFunction<? super T> mapper) {
+        if (!enabled) {
+            return new OfInt(stream.mapToInt(mapper), metrics);
+        }
+        final Stage stage = metrics.stage(name);
+        return new OfInt(stream.mapToInt(element -> {
+            final Counters counters = stage.counters();
+            final long start = counters.start();
+            final int mapped = mapper.applyAsInt(element);
+            counters.stop(start, 1L);
+            return mapped;
+        }), metrics);
+    }
+
+    // the time is the time taken to create each sub-stream, the sub-streams are consumed by the next stage
+    public <R> InstrumentedStream<R> flatMap(final String name,
+                                             final Function<? super T, ? extends Stream<? extends R>> mapper) {
+        if (!enabled) {
+            return new InstrumentedStream<>(stream.flatMap(mapper), metrics);
+        }
+        final Stage stage = metrics.stage(name);
+        return new InstrumentedStream<>(stream.flatMap(element -> {
+            final Counters counters = stage.counters();
+            final long start = counters.start();
+            final Stream<? extends R> mapped = mapper.apply(element);
+            counters.stop(start, 0L);
+            return mapped == null ? null : mapped.peek(out -> stage.counters().out++);
+        }), metrics);
+    }
+
+    public InstrumentedStream<T> parallel() {
+        return new InstrumentedStream<>(stream.parallel(), metrics);
+    }
+
+    public InstrumentedStream<T> sequential() {
+        return new InstrumentedStream<>(stream.sequential(), metrics);
+    }
+
+    // the underlying stream, for the operations not instrumented here
+    public Stream<T> stream() {
+        return stream;
+    }
+
+    public long count() {
+        return stream.count();
+    }
+
+    public <R, A> R collect(final Collector<? super T, A, R> collector) {
+        return stream.collect(collector);
+    }
+
+    public void forEach(final Consumer<? super T> action) {
+        stream.forEach(action);
+    }
+
+    /**
+     * The same for an {@link IntStream}.
+     */
+    public static final class OfInt {
+
+        private final IntStream stream;
+        private final Metrics metrics;
+
+        private OfInt(final IntStream stream, final Metrics metrics) {
+            this.stream = stream;
+            this.metrics = metrics;
+        }
+
+        public OfInt filter(final String name, final IntPredicate predicate) {
+            if (!enabled) {
+                return new OfInt(stream.filter(predicate), metrics);
+            }
+            final Stage stage = metrics.stage(name);
+            return new OfInt(stream.filter(value -> {
+                final Counters counters = stage.counters();
+                final long start = counters.start();
+                final boolean kept = predicate.test(value);
+                counters.stop(start, kept ? 1L : 0L);
+                return kept;
+            }), metrics);
+        }
+
+        public OfInt map(final String name, final IntUnaryOperator mapper) {
+            if (!enabled) {
+                return new OfInt(stream.map(mapper), metrics);
+            }
+            final Stage stage = metrics.stage(name);
+            return new OfInt(stream.map(value -> {
+                final Counters counters = stage.counters();
+                final long start = counters.start();
+                final int mapped = mapper.applyAsInt(value);
+                counters.stop(start, 1L);
+                return mapped;
+            }), metrics);
+        }
+
+        public <R> InstrumentedStream<R> mapToObj(final String name, final IntFunction<? extends R> mapper) {
+            if (!enabled) {
+                return new InstrumentedStream<>(stream.mapToObj(mapper), metrics);
+            }
+            final Stage stage = metrics.stage(name);
+            return new InstrumentedStream<>(stream.mapToObj(value -> {
+                final Counters counters = stage.counters();
+                final long start = counters.start();
+                final R mapped = mapper.apply(value);
+                counters.stop(start, 1L);
+                return mapped;
+            }), metrics);
+        }
+
+        public OfInt parallel() {
+            return new OfInt(stream.parallel(), metrics);
+        }
+
+        public OfInt sequential() {
+            return new OfInt(stream.sequential(), metrics);
+        }
+
+        public IntStream stream() {
+            return stream;
+        }
+
+        public long count() {
+            return stream.count();
+        }
+
+        public int sum() {
+            return stream.sum();
+        }
+
+        public OptionalDouble average() {
+            return stream.average();
+        }
+
+        public void forEach(final IntConsumer action) {
+            stream.forEach(action);
+        }
+    }
+
+    /**
+     * The stages of one or more pipelines, by name: pipelines sharing a stage name add up in the same stage.
+     */
+    public static final class Metrics {
+
+        private final Map<String, Stage> stages = new LinkedHashMap<>();
+
+        private synchronized Stage stage(final String name) {
+            return stages.computeIfAbsent(name, Stage::new);
+        }
+
+        // in the order the stages were first added
+        public synchronized List<StageStats> snapshot() {
+            final List<StageStats> snapshot = new ArrayList<>(stages.size());
+            stages.values().forEach(stage -> snapshot.add(stage.stats()));
+            return snapshot;
+        }
+
+        public synchronized void reset() {
+            stages.values().forEach(Stage::reset);
+        }
+
+        @Override
+        public String toString() {
+            return "Metrics" + snapshot();
+        }
+    }
+
+    // counters are striped by thread: each thread increments its own, without atomic instructions
+    private static final class Stage {
+
+        private final String name;
+        private final Queue<Counters> cells = new ConcurrentLinkedQueue<>();
+        private final ThreadLocal<Counters> local = ThreadLocal.withInitial(this::newCounters);
+        private volatile StageStats baseline;
+
+        private Stage(final String name) {
+            this.name = name;
+            this.baseline = new StageStats(name, 0L, 0L, 0L, 0L, 0L, 0L, 0L);
+        }
+
+        private Counters newCounters() {
+            final Counters counters = new Counters();
+            cells.add(counters);
+            return counters;
+        }
+
+        // a lookup in the calling thread's own map: nothing shared is written, even under parallel()
+        private Counters counters() {
+            return local.get();
+        }
+
+        // the counters of other threads are read without synchronization: the latest increments may be missing
+        private StageStats stats() {
+            long in = 0L;
+            long out = 0L;
+            long samples = 0L;
+            long sampledNanos = 0L;
+            long sampledBytes = 0L;
+            for (final Counters counters : cells) {
+                in += counters.in;
+                out += counters.out;
+                samples += counters.samples;
+                sampledNanos += counters.sampledNanos;
+                sampledBytes += counters.sampledBytes;
+            }
+            final StageStats since = baseline;
+            in -= since.in;
+            out -= since.out;
+            samples -= since.samples;
+            sampledNanos -= since.sampledNanos;
+            sampledBytes -= since.sampledBytes;
+            final double scale = samples == 0L ? 0D : (double) in / samples;
+            return new StageStats(name, in, out, Math.round(sampledNanos * scale),
+                                  THREADS == null ? -1L : Math.round(sampledBytes * scale), samples, sampledNanos,
+                                  sampledBytes);
+        }
+
+        // the counters belong to their threads, so a reset only moves the baseline
+        private void reset() {
+            final StageStats current = stats();
+            final StageStats since = baseline;
+            baseline = new StageStats(name, since.in + current.in, since.out + current.out, 0L, 0L,
+                                      since.samples + current.samples, since.sampledNanos + current.sampledNanos,
+                                      since.sampledBytes + current.sampledBytes);
+        }
+    }
+
+    private static final class Counters {
+
+        private long in;
+        private long out;
+        private long samples;
+        private long sampledNanos;
+        private long sampledBytes;
+        private int untilSample = 1 + ThreadLocalRandom.current().nextInt(2 * SAMPLING_RATE - 1);
+
+        // returns a negative value when this element is not sampled
+        private long start() {
+            in++;
+            if (--untilSample != 0) {
+                return -1L;
+            }
+            // a random gap, averaging SAMPLING_RATE, so that periodic data is not always sampled at the same phase
+            untilSample = 1 + ThreadLocalRandom.current().nextInt(2 * SAMPLING_RATE - 1);
+            if (THREADS != null) {
+                sampledBytes -= THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+            return System.nanoTime();
+        }
+
+        private void stop(final long start, final long produced) {
+            out += produced;
+            if (start < 0L) {
+                return;
+            }
+            sampledNanos += System.nanoTime() - start;
+            if (THREADS != null) {
+                sampledBytes += THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+            samples++;
+        }
+    }
+
+    /**
+     * Counters of one stage at the time of the snapshot.
+     */
+    public static final class StageStats {
+
+        private final String name;
+        private final long in;
+        private final long out;
+        private final long nanos;
+        private final long allocatedBytes;
+        private final long samples;
+        private final long sampledNanos;
+        private final long sampledBytes;
+
+        private StageStats(final String name, final long in, final long out, final long nanos,
+                           final long allocatedBytes, final long samples, final long sampledNanos,
+                           final long sampledBytes) {
+            this.name = name;
+            this.in = in;
+            this.out = out;
+            this.nanos = nanos;
+            this.allocatedBytes = allocatedBytes;
+            this.samples = samples;
+            this.sampledNanos = sampledNanos;
+            this.sampledBytes = sampledBytes;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getIn() {
+            return in;
+        }
+
+        public long getOut() {
+            return out;
+        }
+
+        // estimated
+        public long getNanos() {
+            return nanos;
+        }
+
+        // estimated, -1 when the JVM cannot measure allocations
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+
+        // share of the elements let through, 1 for a map
+        public double getSelectivity() {
+            return in == 0L ? 1D : (double) out / in;
+        }
+
+        public double getNanosPerElement() {
+            return in == 0L ? 0D : (double) nanos / in;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s{in=%d, out=%d, selectivity=%.3f, nanos=%d, nanosPerElement=%.1f, " +
+                                         "allocatedBytes=%d}",
+                                 name, in, out, getSelectivity(), nanos, getNanosPerElement(), allocatedBytes);
+        }
+    }
+
+}
@@ -2,6 +2,7 @@ package com.backstreetbrogrammer.ch02_mapFilterReduce;
 
 import com.backstreetbrogrammer.model.Course;
 import com.backstreetbrogrammer.model.Student;
+import com.backstreetbrogrammer.model.StudentTable;
 
 import java.util.Arrays;
 import java.util.List;
@@ -30,6 +31,24 @@ public class MapFilterReduceDemo {
                                                     .count();
         System.out.printf("Total no of students less than 20 years of age: %d%n", countStudentsLessThan20);
 
+        // Instrumented: in and out counts, time and allocations per stage, to find slow or unselective stages
+        final var metrics = new InstrumentedStream.Metrics();
+        final var countStudentsOlderThan20Instrumented = InstrumentedStream.of(students.stream(), metrics)
+                                                                           .mapToInt("age", Student::getAge)
+                                                                           .filter("olderThan20", age -> age >= 20)
+                                                                           .count();
+        System.out.printf("Total no of students older than 20 years of age (instrumented): %d%n",
+                          countStudentsOlderThan20Instrumented);
+        metrics.snapshot().forEach(System.out::println);
+
+        // Columnar table: ages are scanned from a primitive int[] instead of one Student object per element
+        final var studentTable = StudentTable.of(students);
+        final var countStudentsOlderThan20FromTable = studentTable.ages()
+                                                                  .filter(age -> age >= 20)
+                                                                  .count();
+        System.out.printf("Total no of students older than 20 years of age (StudentTable): %d%n",
+                          countStudentsOlderThan20FromTable);
+
         // Flat Map
         final var advancedJava = new Course("Advanced Java", john, mary);
         final var python = new Course("Python", thomas, rahul);
@@ -40,6 +59,14 @@ public class MapFilterReduceDemo {
                .flatMap(course -> course.getStudents().stream())
                .map(p -> p.getName())
                .forEach(name -> System.out.println(name));
+
+        // rosters change concurrently: students() streams the current snapshot without copying it
+        python.enroll(jenny);
+        python.unenroll(thomas);
+        courses.stream()
+               .flatMap(Course::students)
+               .map(Student::getName)
+               .forEach(name -> System.out.println(name));
     }
 
 }
@@ -0,0 +1,179 @@
+package com.backstreetbrogrammer.ch03_buildingStream;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Character distribution of a text: distinct code points (sorted), frequencies and top-N, without allocating anything
+ * per character.
+ * <p>
+ * Counts live in a paged histogram covering every Unicode code point: pages of 256 counters are allocated the first
+ * time one of their code points is seen. Surrogate pairs are counted as one supplementary code point, and unpaired
+ * surrogates as themselves, like {@link String#codePoints()}. Histograms of separate chunks can be merged, which is
+ * what {@link #parallelOf(CharSequence)} does.
+ */
+public final class CharStats {
+
+    private static final int PAGE_BITS = 8;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_COUNT = (Character.MAX_CODE_POINT + 1) >>> PAGE_BITS;
+    private static final int PARALLEL_CHUNK_SIZE = 1 << 16;
+
+    private final long[][] pages = new long[PAGE_COUNT][];
+    private long total;
+
+    public CharStats() {
+    }
+
+    public static CharStats of(final CharSequence text) {
+        return new CharStats().addAll(text, 0, text.length());
+    }
+
+    public static CharStats of(final char[] chars, final int from, final int to) {
+        final CharStats stats = new CharStats();
+        int i = from;
+        while (i < to) {
+            final char c = chars[i++];
+            if (Character.isHighSurrogate(c) && i < to && Character.isLowSurrogate(chars[i])) {
+                stats.add(Character.toCodePoint(c, chars[i++]));
+            } else {
+                stats.add(c);
+            }
+        }
+        return stats;
+    }
+
+    // works with parallel streams as well, each leaf filling its own histogram
+    public static CharStats of(final IntStream codePoints) {
+        return codePoints.collect(CharStats::new, CharStats::add, CharStats::merge);
+    }
+
+    // histograms of 64K-char chunks, never cutting a surrogate pair, merged at the end
+    public static CharStats parallelOf(final CharSequence text) {
+        final int length = text.length();
+        final int chunks = (length + PARALLEL_CHUNK_SIZE - 1) / PARALLEL_CHUNK_SIZE;
+        return IntStream.range(0, chunks)
+                        .parallel()
+                        .mapToObj(chunk -> new CharStats().addAll(text,
+                                                                  chunkStart(text, chunk * PARALLEL_CHUNK_SIZE),
+                                                                  chunkStart(text, (chunk + 1) * PARALLEL_CHUNK_SIZE)))
+                        .reduce(CharStats::merge)
+                        .orElseGet(CharStats::new);
+    }
+
+    private static int chunkStart(final CharSequence text, final int index) {
+        if (index >= text.length()) {
+            return text.length();
+        }
+        if (index > 0 && Character.isHighSurrogate(text.charAt(index - 1))
+                && Character.isLowSurrogate(text.charAt(index))) {
+            return index + 1;
+        }
+        return index;
+    }
+
+    private CharStats addAll(final CharSequence text, final int from, final int to) {
+        int i = from;
+        while (i < to) {
+            final char c = text.charAt(i++);
+            if (Character.isHighSurrogate(c) && i < to && Character.isLowSurrogate(text.charAt(i))) {
+                add(Character.toCodePoint(c, text.charAt(i++)));
+            } else {
+                add(c);
+            }
+        }
+        return this;
+    }
+
+    public void add(final int codePoint) {
+        if (codePoint < 0 || codePoint > Character.MAX_CODE_POINT) {
+            throw new IllegalArgumentException("Not a code point: " + codePoint);
+        }
+        long[] page = pages[codePoint >>> PAGE_BITS];
+        if (page == null) {
+            page = new long[PAGE_SIZE];
+            pages[codePoint >>> PAGE_BITS] = page;
+        }
+        page[codePoint & (PAGE_SIZE - 1)]++;
+        total++;
+    }
+
+    public CharStats merge(final CharStats other) {
+        for (int p = 0; p < PAGE_COUNT; p++) {
+            final long[] otherPage = other.pages[p];
+            if (otherPage == null) {
+                continue;
+            }
+            if (pages[p] == null) {
+                pages[p] = otherPage.clone();
+            } else {
+                for (int i = 0; i < PAGE_SIZE; i++) {
+                    pages[p][i] += otherPage[i];
+                }
+            }
+        }
+        total += other.total;
+        return this;
+    }
+
+    public long count(final int codePoint) {
+        if (codePoint < 0 || codePoint > Character.MAX_CODE_POINT) {
+            return 0L;
+        }
+        final long[] page = pages[codePoint >>> PAGE_BITS];
+        return page == null ? 0L : page[codePoint & (PAGE_SIZE - 1)];
+    }
+
+    public long total() {
+        return total;
+    }
+
+    // distinct code points in ascending order
+    public IntStream distinct() {
+        final IntStream.Builder builder = IntStream.builder();
+        for (int p = 0; p < PAGE_COUNT; p++) {
+            final long[] page = pages[p];
+            if (page != null) {
+                for (int i = 0; i < PAGE_SIZE; i++) {
+                    if (page[i] > 0L) {
+                        builder.add((p << PAGE_BITS) | i);
+                    }
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    public int distinctCount() {
+        return (int) distinct().count();
+    }
+
+    /**
+     * Returns the {@code n} most frequent code points, most frequent first, ties broken by ascending code point.
+     * Counts are assumed to stay below 2^42.
+     */
+    public int[] topN(final int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("n must not be negative: " + n);
+        }
+        // count in the high bits, reversed code point in the low 21 bits: one descending sort orders both
+        final long[] packed = distinct().mapToLong(cp -> (count(cp) << 21) | (Character.MAX_CODE_POINT - cp))
+                                        .toArray();
+        Arrays.sort(packed);
+        final int size = Math.min(n, packed.length);
+        final int[] top = new int[size];
+        for (int i = 0; i < size; i++) {
+            top[i] = Character.MAX_CODE_POINT - (int) (packed[packed.length - 1 - i] & 0x1FFFFF);
+        }
+        return top;
+    }
+
+    @Override
+    public String toString() {
+        return "CharStats{" +
+                "total=" + total +
+                ", distinct=" + distinctCount() +
+                '}';
+    }
+
+}
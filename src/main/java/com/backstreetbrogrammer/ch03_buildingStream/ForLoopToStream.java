@@ -23,7 +23,7 @@ public class ForLoopToStream {
         System.out.printf("Average age using Streams = %.2f%n", averageAgeUsingStreams);
     }
 
-    private static double getAverageAgeUsingForLoop(final List<Student> students) {
+    public static double getAverageAgeUsingForLoop(final List<Student> students) {
         double average = 0D;
         int sum = 0;
         int count = 0;
@@ -40,7 +40,7 @@ public class ForLoopToStream {
         return average;
     }
 
-    private static double getAverageAgeUsingStreams(final List<Student> students) {
+    public static double getAverageAgeUsingStreams(final List<Student> students) {
         return students.stream()
                        .mapToInt(Student::getAge)
                        .filter(age -> age > 20)
@@ -0,0 +1,280 @@
+package com.backstreetbrogrammer.ch03_buildingStream;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Persistent line-offset index, so that {@code skip(n).limit(m)} on a text file costs O(m) instead of O(n).
+ * <p>
+ * The index is a sidecar file ({@code <file>.lidx}) holding the byte offset of every {@value #STRIDE}th line, and it
+ * is rebuilt whenever the size or the last-modified time of the file changes. Paging seeks to the closest preceding
+ * offset, skips at most {@code STRIDE - 1} lines as raw bytes and only decodes the requested lines. Lines are
+ * terminated by {@code '\n'}, with a trailing {@code '\r'} removed like {@link MappedLines} does, and decoded as
+ * UTF-8; unlike {@link java.io.BufferedReader#readLine()}, a lone {@code '\r'} does not end a line.
+ */
+public final class LineIndex {
+
+    static final int STRIDE = 64;
+
+    private static final String SUFFIX = ".lidx";
+    private static final int MAGIC = 0x4C494458; // "LIDX"
+    private static final int HEADER_SIZE = Integer.BYTES * 2 + Long.BYTES * 3; // magic, stride, size, mtime, lines
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Path path;
+    private final Path indexPath;
+    private final long lineCount;
+
+    private LineIndex(final Path path, final Path indexPath, final long lineCount) {
+        this.path = path;
+        this.indexPath = indexPath;
+        this.lineCount = lineCount;
+    }
+
+    public static Stream<String> pagedLines(final Path path, final long skip, final long limit) throws IOException {
+        return of(path).lines(skip, limit);
+    }
+
+    // loads the sidecar index of the file, (re)building it if it is missing or stale
+    public static LineIndex of(final Path path) throws IOException {
+        final Path indexPath = sidecarOf(path);
+        final long size = Files.size(path);
+        final long lastModified = Files.getLastModifiedTime(path).toMillis();
+
+        long lineCount = readLineCount(indexPath, size, lastModified);
+        if (lineCount < 0L) {
+            lineCount = build(path, indexPath, size, lastModified);
+        }
+        return new LineIndex(path, indexPath, lineCount);
+    }
+
+    static Path sidecarOf(final Path path) {
+        return path.resolveSibling(path.getFileName() + SUFFIX);
+    }
+
+    public long lineCount() {
+        return lineCount;
+    }
+
+    // the returned stream holds the file open and must be closed, like Files.lines()
+    public Stream<String> lines(final long skip, final long limit) throws IOException {
+        if (skip < 0L || limit < 0L) {
+            throw new IllegalArgumentException(String.format("skip (%d) and limit (%d) must not be negative",
+                                                             skip, limit));
+        }
+        if (skip >= lineCount || limit == 0L) {
+            return Stream.empty();
+        }
+
+        final long offset = readCheckpoint(skip / STRIDE);
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            channel.position(offset);
+            final InputStream in = new BufferedInputStream(Channels.newInputStream(channel), BUFFER_SIZE);
+            skipLines(in, skip % STRIDE);
+            // split on '\n' only, like the index, so that the page always starts at the counted line
+            final Spliterator<String> lines = Spliterators.spliteratorUnknownSize(new NewlineIterator(in),
+                                                                                  Spliterator.ORDERED
+                                                                                          | Spliterator.NONNULL);
+            return StreamSupport.stream(lines, false)
+                                .limit(limit)
+                                .onClose(() -> {
+                                    try {
+                                        in.close();
+                                    } catch (final IOException e) {
+                                        throw new UncheckedIOException(e);
+                                    }
+                                });
+        } catch (final IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private long readCheckpoint(final long checkpoint) throws IOException {
+        try (final FileChannel channel = FileChannel.open(indexPath, StandardOpenOption.READ)) {
+            final ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+            final long position = HEADER_SIZE + checkpoint * Long.BYTES;
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    throw new IOException("Truncated line index: " + indexPath);
+                }
+            }
+            return buffer.getLong(0);
+        }
+    }
+
+    private static void skipLines(final InputStream in, long lines) throws IOException {
+        while (lines > 0L) {
+            final int b = in.read();
+            if (b < 0) {
+                return;
+            }
+            if (b == '\n') {
+                lines--;
+            }
+        }
+    }
+
+    // the lines of a stream of UTF-8 bytes, each one ended by '\n' (and an optional '\r' before it) or by the end
+    private static final class NewlineIterator implements Iterator<String> {
+
+        private final InputStream in;
+        private byte[] line = new byte[256];
+        private String next;
+        private boolean done;
+
+        private NewlineIterator(final InputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && !done) {
+                next = readLine();
+            }
+            return next != null;
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final String line = next;
+            next = null;
+            return line;
+        }
+
+        private String readLine() {
+            try {
+                int length = 0;
+                int b;
+                while ((b = in.read()) >= 0 && b != '\n') {
+                    if (length == line.length) {
+                        line = Arrays.copyOf(line, length * 2);
+                    }
+                    line[length++] = (byte) b;
+                }
+                if (b < 0) {
+                    done = true;
+                    if (length == 0) {
+                        return null; // no empty line after the last '\n'
+                    }
+                }
+                if (length > 0 && line[length - 1] == '\r') {
+                    length--;
+                }
+                return new String(line, 0, length, StandardCharsets.UTF_8);
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    // returns -1 if the sidecar is missing, corrupt or does not describe the current content of the file
+    private static long readLineCount(final Path indexPath, final long size, final long lastModified)
+            throws IOException {
+        if (!Files.isRegularFile(indexPath) || Files.size(indexPath) < HEADER_SIZE) {
+            return -1L;
+        }
+        try (final FileChannel channel = FileChannel.open(indexPath, StandardOpenOption.READ)) {
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // keep reading
+            }
+            header.flip();
+            if (header.remaining() < HEADER_SIZE
+                    || header.getInt() != MAGIC
+                    || header.getInt() != STRIDE
+                    || header.getLong() != size
+                    || header.getLong() != lastModified) {
+                return -1L;
+            }
+            final long lineCount = header.getLong();
+            final long checkpoints = (lineCount + STRIDE - 1) / STRIDE;
+            return channel.size() == HEADER_SIZE + checkpoints * Long.BYTES ? lineCount : -1L;
+        }
+    }
+
+    // scans the file once, writing a checkpoint every STRIDE lines to a temp file which then replaces the sidecar
+    private static long build(final Path path, final Path indexPath, final long size, final long lastModified)
+            throws IOException {
+        final Path tempPath = Files.createTempFile(indexPath.toAbsolutePath().getParent(),
+                                                   indexPath.getFileName().toString(), ".tmp");
+        try {
+            long lineCount = 0L;
+            try (final FileChannel source = FileChannel.open(path, StandardOpenOption.READ);
+                 final FileChannel target = FileChannel.open(tempPath, StandardOpenOption.WRITE)) {
+                final ByteBuffer in = ByteBuffer.allocateDirect(BUFFER_SIZE);
+                final ByteBuffer out = ByteBuffer.allocate(BUFFER_SIZE);
+                target.position(HEADER_SIZE);
+
+                long position = 0L;
+                long newlines = 0L;
+                if (size > 0L) {
+                    out.putLong(0L); // line 0
+                }
+                while (source.read(in) >= 0) {
+                    in.flip();
+                    while (in.hasRemaining()) {
+                        if (in.get() == '\n') {
+                            newlines++;
+                            final long next = position + in.position();
+                            if (newlines % STRIDE == 0 && next < size) {
+                                if (!out.hasRemaining()) {
+                                    flush(out, target);
+                                }
+                                out.putLong(next);
+                            }
+                        }
+                    }
+                    position += in.limit();
+                    in.clear();
+                }
+                flush(out, target);
+
+                lineCount = size > 0L && !endsWithNewline(source, size) ? newlines + 1 : newlines;
+                out.putInt(MAGIC).putInt(STRIDE).putLong(size).putLong(lastModified).putLong(lineCount);
+                out.flip();
+                target.write(out, 0L);
+            }
+            Files.move(tempPath, indexPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return lineCount;
+        } finally {
+            Files.deleteIfExists(tempPath);
+        }
+    }
+
+    private static boolean endsWithNewline(final FileChannel channel, final long size) throws IOException {
+        final ByteBuffer last = ByteBuffer.allocate(1);
+        channel.read(last, size - 1);
+        return last.get(0) == '\n';
+    }
+
+    private static void flush(final ByteBuffer out, final FileChannel target) throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            target.write(out);
+        }
+        out.clear();
+    }
+
+}
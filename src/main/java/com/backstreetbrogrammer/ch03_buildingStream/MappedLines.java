@@ -0,0 +1,264 @@
+package com.backstreetbrogrammer.ch03_buildingStream;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Memory-mapped alternative to {@code Files.lines()} for large text files.
+ * <p>
+ * The file is mapped as a chain of regions (so files larger than 2 GB are supported) and lines are split on the
+ * {@code '\n'} byte, with a trailing {@code '\r'} removed; unlike {@link java.io.BufferedReader#readLine()}, behind
+ * {@code Files.lines()}, a lone {@code '\r'} does not end a line. The {@link Spliterator} splits on line boundaries,
+ * hence {@code lines().parallel()} scales across cores, and {@link #count()} never decodes a single byte into a
+ * {@code String}.
+ * <p>
+ * Only charsets in which {@code '\n'} cannot be part of a multibyte sequence are accepted (UTF-8, US-ASCII and
+ * ISO-8859-1).
+ */
+public final class MappedLines {
+
+    private static final int DEFAULT_REGION_SHIFT = 30; // 1 GB per mapped region
+    private static final int MIN_SPLIT_SIZE = 1 << 14;
+    private static final int COUNT_CHUNK_SIZE = 1 << 22;
+
+    private final MappedByteBuffer[] regions;
+    private final int regionShift;
+    private final long size;
+    private final Charset charset;
+
+    private MappedLines(final MappedByteBuffer[] regions, final int regionShift, final long size,
+                        final Charset charset) {
+        this.regions = regions;
+        this.regionShift = regionShift;
+        this.size = size;
+        this.charset = charset;
+    }
+
+    public static MappedLines of(final Path path) throws IOException {
+        return of(path, StandardCharsets.UTF_8);
+    }
+
+    public static MappedLines of(final Path path, final Charset charset) throws IOException {
+        return of(path, charset, DEFAULT_REGION_SHIFT);
+    }
+
+    // regionShift is only lowered by tests, to exercise lines spanning several regions with small files
+    static MappedLines of(final Path path, final Charset charset, final int regionShift) throws IOException {
+        if (!StandardCharsets.UTF_8.equals(charset)
+                && !StandardCharsets.US_ASCII.equals(charset)
+                && !StandardCharsets.ISO_8859_1.equals(charset)) {
+            throw new IllegalArgumentException("Unsupported charset for byte-level line splitting: " + charset);
+        }
+        if (regionShift < 1 || regionShift > 30) {
+            throw new IllegalArgumentException("regionShift must be between 1 and 30: " + regionShift);
+        }
+
+        // the mappings stay valid after the channel is closed
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            final long regionSize = 1L << regionShift;
+            final int regionCount = (int) ((size + regionSize - 1) >>> regionShift);
+            final MappedByteBuffer[] regions = new MappedByteBuffer[regionCount];
+            for (int i = 0; i < regionCount; i++) {
+                final long position = i * regionSize;
+                regions[i] = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                                         Math.min(regionSize, size - position));
+                regions[i].order(ByteOrder.LITTLE_ENDIAN); // lowest address in the lowest byte of getLong()
+            }
+            return new MappedLines(regions, regionShift, size, charset);
+        }
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public Stream<String> lines() {
+        return StreamSupport.stream(new LineSpliterator(0L, size), false);
+    }
+
+    /**
+     * Counts the lines {@link #lines()} returns, by scanning the raw bytes for {@code '\n'} in parallel chunks: lines
+     * end at {@code '\n'} only, so {@code "\r\n"} counts once, a lone {@code '\r'} ends no line, and a last line
+     * without {@code '\n'} counts as one.
+     */
+    public long count() {
+        if (size == 0L) {
+            return 0L;
+        }
+        final long chunks = (size + COUNT_CHUNK_SIZE - 1) / COUNT_CHUNK_SIZE;
+        final long newlines = LongStream.range(0L, chunks)
+                                        .parallel()
+                                        .map(chunk -> countNewlines(chunk * COUNT_CHUNK_SIZE,
+                                                                    Math.min(size, (chunk + 1) * COUNT_CHUNK_SIZE)))
+                                        .sum();
+        return byteAt(size - 1) == '\n' ? newlines : newlines + 1;
+    }
+
+    private byte byteAt(final long position) {
+        return regions[(int) (position >>> regionShift)].get(offsetOf(position));
+    }
+
+    private int offsetOf(final long position) {
+        return (int) (position & ((1L << regionShift) - 1));
+    }
+
+    private long countNewlines(long from, final long to) {
+        long count = 0L;
+        while (from < to) {
+            final ByteBuffer region = regions[(int) (from >>> regionShift)];
+            final int offset = offsetOf(from);
+            final int limit = (int) Math.min(region.limit(), offset + (to - from));
+            int i = offset;
+            for (; i + Long.BYTES <= limit; i += Long.BYTES) {
+                count += Long.bitCount(newlineMask(region.getLong(i)));
+            }
+            for (; i < limit; i++) {
+                if (region.get(i) == '\n') {
+                    count++;
+                }
+            }
+            from += limit - offset;
+        }
+        return count;
+    }
+
+    // returns the position of the next '\n' in [from, to), or -1
+    private long indexOfNewline(long from, final long to) {
+        while (from < to) {
+            final ByteBuffer region = regions[(int) (from >>> regionShift)];
+            final int offset = offsetOf(from);
+            final int limit = (int) Math.min(region.limit(), offset + (to - from));
+            int i = offset;
+            for (; i + Long.BYTES <= limit; i += Long.BYTES) {
+                final long mask = newlineMask(region.getLong(i));
+                if (mask != 0L) {
+                    return from + (i - offset) + (Long.numberOfTrailingZeros(mask) >>> 3);
+                }
+            }
+            for (; i < limit; i++) {
+                if (region.get(i) == '\n') {
+                    return from + (i - offset);
+                }
+            }
+            from += limit - offset;
+        }
+        return -1L;
+    }
+
+    // sets the high bit of every byte of the (little-endian) word that is a '\n', without false positives
+    private static long newlineMask(final long word) {
+        final long x = word ^ 0x0A0A0A0A0A0A0A0AL;
+        return ~(((x & 0x7F7F7F7F7F7F7F7FL) + 0x7F7F7F7F7F7F7F7FL) | x) & 0x8080808080808080L;
+    }
+
+    private final class LineSpliterator implements Spliterator<String> {
+
+        private long start; // always at the beginning of a line
+        private final long end; // either the beginning of a line or the end of the file
+
+        // per-spliterator views, as the relative bulk get() moves the buffer position
+        private ByteBuffer[] views;
+        private byte[] scratch = new byte[128];
+
+        private LineSpliterator(final long start, final long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(final Consumer<? super String> action) {
+            if (start >= end) {
+                return false;
+            }
+            action.accept(nextLine());
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(final Consumer<? super String> action) {
+            while (start < end) {
+                action.accept(nextLine());
+            }
+        }
+
+        private String nextLine() {
+            final long newline = indexOfNewline(start, end);
+            final long lineEnd = newline < 0L ? end : newline;
+            long contentEnd = lineEnd;
+            if (contentEnd > start && byteAt(contentEnd - 1) == '\r') {
+                contentEnd--;
+            }
+            final String line = decode(start, contentEnd);
+            start = newline < 0L ? end : newline + 1;
+            return line;
+        }
+
+        private String decode(final long from, final long to) {
+            final long length = to - from;
+            if (length > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("Line at byte " + from + " is too long to fit in a String");
+            }
+            if (scratch.length < length) {
+                scratch = new byte[Math.max((int) length, scratch.length * 2)];
+            }
+            if (views == null) {
+                views = new ByteBuffer[regions.length];
+            }
+            long position = from;
+            int copied = 0;
+            while (position < to) {
+                final int index = (int) (position >>> regionShift);
+                if (views[index] == null) {
+                    views[index] = regions[index].duplicate();
+                }
+                final ByteBuffer view = views[index];
+                final int offset = offsetOf(position);
+                final int chunk = (int) Math.min(view.limit() - offset, to - position);
+                view.position(offset);
+                view.get(scratch, copied, chunk);
+                copied += chunk;
+                position += chunk;
+            }
+            return new String(scratch, 0, copied, charset);
+        }
+
+        @Override
+        public Spliterator<String> trySplit() {
+            final long remaining = end - start;
+            if (remaining < MIN_SPLIT_SIZE) {
+                return null;
+            }
+            final long newline = indexOfNewline(start + remaining / 2, end);
+            if (newline < 0L || newline + 1 >= end) {
+                return null;
+            }
+            final var prefix = new LineSpliterator(start, newline + 1);
+            start = newline + 1;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - start; // in bytes, the number of lines is not known up front
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL | IMMUTABLE;
+        }
+    }
+
+}
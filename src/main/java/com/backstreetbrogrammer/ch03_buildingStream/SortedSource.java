@@ -0,0 +1,170 @@
+package com.backstreetbrogrammer.ch03_buildingStream;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Stream factory over an array or a {@link List} already sorted by a known {@link Comparator}, so that
+ * {@code takeWhile()}, {@code dropWhile()} and range slices find their boundary by binary search in O(log n) instead
+ * of testing the elements one by one:
+ * <pre>
+ *     final SortedSource&lt;Student&gt; byAge = SortedSource.of(studentsSortedByAge,
+ *                                                           Comparator.comparingInt(Student::getAge));
+ *     byAge.takeWhile(student -&gt; student.getAge() &lt; 18).parallel().forEach(...);
+ * </pre>
+ * The predicates must be monotone for the order: true on a prefix of the elements and false on the rest, like
+ * {@code age < 18} on students sorted by age. The source is not copied (unless the list is not {@link RandomAccess})
+ * and must not be modified while streamed; if it is not sorted, the results are undefined, as with
+ * {@link java.util.Collections#binarySearch}. The streams are backed by a SIZED, SUBSIZED and SORTED spliterator
+ * splitting exactly in halves, so they parallelize well.
+ */
+public final class SortedSource<T> {
+
+    private final List<T> elements;
+    private final Comparator<? super T> order;
+
+    private SortedSource(final List<T> elements, final Comparator<? super T> order) {
+        this.elements = elements;
+        this.order = order;
+    }
+
+    @SafeVarargs
+    public static <T extends Comparable<? super T>> SortedSource<T> of(final T... sorted) {
+        @SuppressWarnings("varargs") final List<T> elements = Arrays.asList(sorted); // only read
+        return of(elements, Comparator.naturalOrder());
+    }
+
+    public static <T> SortedSource<T> of(final T[] sorted, final Comparator<? super T> order) {
+        return of(Arrays.asList(sorted), order);
+    }
+
+    public static <T extends Comparable<? super T>> SortedSource<T> of(final List<T> sorted) {
+        return of(sorted, Comparator.naturalOrder());
+    }
+
+    public static <T> SortedSource<T> of(final List<T> sorted, final Comparator<? super T> order) {
+        Objects.requireNonNull(order);
+        if (sorted instanceof RandomAccess) {
+            return new SortedSource<>(sorted, order);
+        }
+        @SuppressWarnings("unchecked") final List<T> copy = (List<T>) Arrays.asList(sorted.toArray());
+        return new SortedSource<>(copy, order);
+    }
+
+    public int size() {
+        return elements.size();
+    }
+
+    public Stream<T> stream() {
+        return slice(0, elements.size());
+    }
+
+    // the longest prefix matching the predicate
+    public Stream<T> takeWhile(final Predicate<? super T> predicate) {
+        return slice(0, firstFailing(predicate));
+    }
+
+    // what follows the longest prefix matching the predicate
+    public Stream<T> dropWhile(final Predicate<? super T> predicate) {
+        return slice(firstFailing(predicate), elements.size());
+    }
+
+    // the elements from lo inclusive to hi exclusive, like SortedSet.subSet()
+    public Stream<T> rangeBetween(final T lo, final T hi) {
+        if (order.compare(lo, hi) > 0) {
+            throw new IllegalArgumentException(String.format("lo (%s) is after hi (%s)", lo, hi));
+        }
+        final int from = firstFailing(element -> order.compare(element, lo) < 0);
+        final int to = firstFailing(element -> order.compare(element, hi) < 0);
+        return slice(from, to);
+    }
+
+    // the index of the first element failing the monotone predicate, or the size if all match
+    private int firstFailing(final Predicate<? super T> predicate) {
+        int low = 0;
+        int high = elements.size();
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (predicate.test(elements.get(middle))) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private Stream<T> slice(final int from, final int to) {
+        return StreamSupport.stream(new RangeSpliterator<>(elements, from, to, order), false);
+    }
+
+    static final class RangeSpliterator<T> implements Spliterator<T> {
+
+        private final List<T> elements;
+        private final Comparator<? super T> order;
+        private int origin;
+        private final int fence;
+
+        RangeSpliterator(final List<T> elements, final int origin, final int fence,
+                         final Comparator<? super T> order) {
+            this.elements = elements;
+            this.origin = origin;
+            this.fence = fence;
+            this.order = order;
+        }
+
+        @Override
+        public boolean tryAdvance(final Consumer<? super T> action) {
+            if (origin >= fence) {
+                return false;
+            }
+            action.accept(elements.get(origin++));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(final Consumer<? super T> action) {
+            final int end = fence;
+            for (int i = origin; i < end; i++) {
+                action.accept(elements.get(i));
+            }
+            origin = end;
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            final int middle = (origin + fence) >>> 1;
+            if (middle <= origin) {
+                return null;
+            }
+            final var prefix = new RangeSpliterator<>(elements, origin, middle, order);
+            origin = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - origin;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SORTED | SIZED | SUBSIZED | IMMUTABLE;
+        }
+
+        // null for the natural order, as the Spliterator contract asks
+        @Override
+        public Comparator<? super T> getComparator() {
+            return order == Comparator.naturalOrder() ? null : order;
+        }
+    }
+
+}
@@ -1,6 +1,7 @@
 package com.backstreetbrogrammer.ch03_buildingStream;
 
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 public class StreamFromRegEx {
 
@@ -9,6 +10,18 @@ public class StreamFromRegEx {
         final Pattern pattern = Pattern.compile("\\s");
         final long count = pattern.splitAsStream(sentence).count();
         System.out.printf("Count = %d%n", count);
+
+        // no regex: single whitespace characters or single char delimiters
+        final Tokenizer tokenizer = Tokenizer.whitespace();
+        System.out.printf("Count (Tokenizer) = %d%n", tokenizer.count(sentence));
+        final String longWords = tokenizer.tokens(sentence)
+                                          .filter(token -> token.length() > 4)
+                                          .map(CharSequence::toString)
+                                          .collect(Collectors.joining(", "));
+        System.out.printf("Words longer than 4 chars = %s%n", longWords);
+        System.out.printf("Sentences = %d%n", Tokenizer.on('.').tokens(sentence)
+                                                         .filter(token -> !token.toString().isBlank())
+                                                         .count());
     }
 
 }
@@ -11,6 +11,20 @@ public class StreamFromString {
                 .distinct()
                 .sorted()
                 .forEach(System.out::print);
+
+        System.out.println();
+
+        // same letters from a code point histogram: no String per character and no HashSet for distinct()
+        final CharStats charStats = CharStats.of(sentence);
+        charStats.distinct()
+                 .filter(codePoint -> codePoint != ' ')
+                 .forEach(codePoint -> System.out.print(Character.toString(codePoint)));
+
+        System.out.println();
+
+        for (final int codePoint : charStats.topN(3)) {
+            System.out.printf("'%s' = %d%n", Character.toString(codePoint), charStats.count(codePoint));
+        }
     }
 
 }
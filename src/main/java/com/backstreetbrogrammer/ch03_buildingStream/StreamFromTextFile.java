@@ -3,6 +3,7 @@ package com.backstreetbrogrammer.ch03_buildingStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.stream.Stream;
 
 public class StreamFromTextFile {
@@ -15,6 +16,35 @@ public class StreamFromTextFile {
         } catch (final IOException e) {
             e.printStackTrace();
         }
+
+        // memory-mapped: counts raw '\n' bytes without decoding, and lines() splits on line boundaries
+        try {
+            final MappedLines mappedLines = MappedLines.of(path);
+            System.out.printf("Count using MappedLines = %d%n", mappedLines.count());
+            System.out.printf("Words longer than 5 letters = %d%n",
+                              mappedLines.lines().parallel().filter(word -> word.length() > 5).count());
+        } catch (final IOException e) {
+            e.printStackTrace();
+        }
+
+        // frequencies and line numbers of every word, loaded from the mapped sidecar index once it exists; the
+        // sidecar is written next to a temp copy rather than in the sources
+        try {
+            final Path copy = Files.createTempDirectory("word-index").resolve(path.getFileName());
+            Files.copy(path, copy);
+            try {
+                final WordIndex index = WordIndex.of(copy);
+                System.out.printf("Distinct words = %d, total = %d%n", index.distinctWords(), index.totalWords());
+                System.out.printf("Frequency of 'the' = %d%n", index.frequency("the"));
+                System.out.printf("Line of 'said' = %s%n", Arrays.toString(index.lines("said").toArray()));
+            } finally {
+                Files.deleteIfExists(WordIndex.sidecarOf(copy));
+                Files.delete(copy);
+                Files.delete(copy.getParent());
+            }
+        } catch (final IOException e) {
+            e.printStackTrace();
+        }
     }
 
 }
@@ -22,6 +22,24 @@ public class StreamSkippingAndLimiting {
         } catch (final IOException e) {
             e.printStackTrace();
         }
+
+        System.out.println("-------------------");
+
+        // seeks to the indexed offset of line 20 and decodes only the next 10 lines; the index is a sidecar file
+        // next to the text, so it is built on a temp copy rather than in the sources
+        try {
+            final Path copy = Files.createTempDirectory("line-index").resolve(path.getFileName());
+            Files.copy(path, copy);
+            try (final Stream<String> page = LineIndex.pagedLines(copy, 20, 10)) {
+                page.forEach(System.out::println);
+            } finally {
+                Files.deleteIfExists(LineIndex.sidecarOf(copy));
+                Files.delete(copy);
+                Files.delete(copy.getParent());
+            }
+        } catch (final IOException e) {
+            e.printStackTrace();
+        }
     }
 
 }
@@ -1,5 +1,9 @@
 package com.backstreetbrogrammer.ch03_buildingStream;
 
+import com.backstreetbrogrammer.model.Student;
+
+import java.util.Comparator;
+import java.util.List;
 import java.util.stream.Stream;
 
 public class StreamTakeWhileDropWhile {
@@ -14,6 +18,30 @@ public class StreamTakeWhileDropWhile {
         Stream.of(4, 4, 4, 5, 6, 7, 8, 9, 10)
               .dropWhile(number -> (number / 4 == 1))
               .forEach(index -> System.out.printf("%d ", index));
+
+        System.out.println("\n-------------------");
+
+        // the source is known to be sorted: the boundary is found by binary search, not by a linear scan
+        final SortedSource<Integer> numbers = SortedSource.of(4, 4, 4, 5, 6, 7, 8, 9, 10);
+        numbers.takeWhile(number -> (number / 4 == 1))
+               .forEach(index -> System.out.printf("%d ", index));
+
+        System.out.println("\n-------------------");
+
+        numbers.dropWhile(number -> (number / 4 == 1))
+               .forEach(index -> System.out.printf("%d ", index));
+
+        System.out.println("\n-------------------");
+
+        final List<Student> studentsSortedByAge = List.of(new Student("Ana", 15), new Student("John", 17),
+                                                          new Student("Mary", 18), new Student("Thomas", 20),
+                                                          new Student("Rahul", 21), new Student("Zoe", 23));
+        final SortedSource<Student> byAge = SortedSource.of(studentsSortedByAge,
+                                                            Comparator.comparingInt(Student::getAge));
+        byAge.rangeBetween(new Student("", 18), new Student("", 21)) // 18 <= age < 21
+             .parallel()
+             .forEachOrdered(student -> System.out.printf("%s ", student.getName()));
+        System.out.println();
     }
 
 }
@@ -0,0 +1,238 @@
+package com.backstreetbrogrammer.ch03_buildingStream;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Regex-free tokenizer for whitespace or a single delimiter character.
+ * <p>
+ * A token is a maximal run of non-delimiter characters, hence, unlike {@code Pattern.splitAsStream()}, consecutive
+ * delimiters never produce empty tokens. {@link #count(CharSequence)} and {@link #forEachToken} allocate nothing;
+ * {@link #tokens(CharSequence)} streams {@link CharSequence} views (offset and length into the source text) and its
+ * {@link Spliterator} splits at delimiters, so that it works in parallel. Two such views are equal when they hold the
+ * same characters, wherever they come from, so that {@code distinct()} or {@code groupingBy()} work on them directly;
+ * like a {@link StringBuilder}, a view is never equal to a {@code String}.
+ */
+public final class Tokenizer {
+
+    // the characters matched by the regex "\\s": ' ', '\t', '\n', '\u000B', '\f' and '\r'
+    private static final long WHITESPACE_MASK = (1L << ' ') | (1L << '\t') | (1L << '\n') | (1L << 0x0B)
+            | (1L << '\f') | (1L << '\r');
+    private static final int MIN_SPLIT_SIZE = 1 << 12;
+    private static final int PARALLEL_CHUNK_SIZE = 1 << 16;
+
+    private final boolean whitespace;
+    private final char delimiter;
+
+    private Tokenizer(final boolean whitespace, final char delimiter) {
+        this.whitespace = whitespace;
+        this.delimiter = delimiter;
+    }
+
+    public static Tokenizer whitespace() {
+        return new Tokenizer(true, ' ');
+    }
+
+    public static Tokenizer on(final char delimiter) {
+        return new Tokenizer(false, delimiter);
+    }
+
+    @FunctionalInterface
+    public interface TokenVisitor {
+        // the token is source[start, end)
+        void visit(CharSequence source, int start, int end);
+    }
+
+    private boolean isDelimiter(final char c) {
+        if (whitespace) {
+            return c <= ' ' && (WHITESPACE_MASK & (1L << c)) != 0;
+        }
+        return c == delimiter;
+    }
+
+    public long count(final CharSequence text) {
+        return count(text, 0, text.length());
+    }
+
+    // a token is counted where it starts, so that chunks can be counted independently
+    private long count(final CharSequence text, final int from, final int to) {
+        long count = 0L;
+        boolean previousIsDelimiter = from == 0 || isDelimiter(text.charAt(from - 1));
+        for (int i = from; i < to; i++) {
+            final boolean currentIsDelimiter = isDelimiter(text.charAt(i));
+            if (previousIsDelimiter && !currentIsDelimiter) {
+                count++;
+            }
+            previousIsDelimiter = currentIsDelimiter;
+        }
+        return count;
+    }
+
+    public long parallelCount(final CharSequence text) {
+        final int length = text.length();
+        final int chunks = (length + PARALLEL_CHUNK_SIZE - 1) / PARALLEL_CHUNK_SIZE;
+        return IntStream.range(0, chunks)
+                        .parallel()
+                        .mapToLong(chunk -> count(text, chunk * PARALLEL_CHUNK_SIZE,
+                                                  Math.min(length, (chunk + 1) * PARALLEL_CHUNK_SIZE)))
+                        .sum();
+    }
+
+    public void forEachToken(final CharSequence text, final TokenVisitor visitor) {
+        forEachToken(text, 0, text.length(), visitor);
+    }
+
+    private void forEachToken(final CharSequence text, final int from, final int to, final TokenVisitor visitor) {
+        int start = -1;
+        for (int i = from; i < to; i++) {
+            if (isDelimiter(text.charAt(i))) {
+                if (start >= 0) {
+                    visitor.visit(text, start, i);
+                    start = -1;
+                }
+            } else if (start < 0) {
+                start = i;
+            }
+        }
+        if (start >= 0) {
+            visitor.visit(text, start, to);
+        }
+    }
+
+    public Stream<CharSequence> tokens(final CharSequence text) {
+        return StreamSupport.stream(new TokenSpliterator(text, 0, text.length()), false);
+    }
+
+    // view over source[start, end), materialized as a String only by toString(); equal to the views of the same
+    // characters, with the hash code of the String they hold
+    private static final class Token implements CharSequence {
+
+        private final CharSequence source;
+        private final int start;
+        private final int end;
+
+        private Token(final CharSequence source, final int start, final int end) {
+            this.source = source;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public int length() {
+            return end - start;
+        }
+
+        @Override
+        public char charAt(final int index) {
+            if (index < 0 || index >= end - start) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + length());
+            }
+            return source.charAt(start + index);
+        }
+
+        @Override
+        public CharSequence subSequence(final int from, final int to) {
+            if (from < 0 || from > to || to > end - start) {
+                throw new IndexOutOfBoundsException("[" + from + ", " + to + ") out of bounds for length " + length());
+            }
+            return new Token(source, start + from, start + to);
+        }
+
+        @Override
+        public String toString() {
+            return source.subSequence(start, end).toString();
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            final Token that = (Token) o;
+            final int length = end - start;
+            if (length != that.end - that.start) return false;
+            for (int i = 0; i < length; i++) {
+                if (source.charAt(start + i) != that.source.charAt(that.start + i)) return false;
+            }
+            return true;
+        }
+
+        // same value as toString().hashCode(), without materializing the String
+        @Override
+        public int hashCode() {
+            int hash = 0;
+            for (int i = start; i < end; i++) {
+                hash = 31 * hash + source.charAt(i);
+            }
+            return hash;
+        }
+    }
+
+    // 'from' is always at the start of the text or right after a delimiter
+    private final class TokenSpliterator implements Spliterator<CharSequence> {
+
+        private final CharSequence text;
+        private int from;
+        private final int to;
+
+        private TokenSpliterator(final CharSequence text, final int from, final int to) {
+            this.text = text;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean tryAdvance(final Consumer<? super CharSequence> action) {
+            while (from < to && isDelimiter(text.charAt(from))) {
+                from++;
+            }
+            if (from >= to) {
+                return false;
+            }
+            final int start = from;
+            while (from < to && !isDelimiter(text.charAt(from))) {
+                from++;
+            }
+            action.accept(new Token(text, start, from));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(final Consumer<? super CharSequence> action) {
+            final int start = from;
+            from = to;
+            forEachToken(text, start, to, (source, tokenStart, tokenEnd) ->
+                    action.accept(new Token(source, tokenStart, tokenEnd)));
+        }
+
+        @Override
+        public Spliterator<CharSequence> trySplit() {
+            if (to - from < MIN_SPLIT_SIZE) {
+                return null;
+            }
+            int mid = from + (to - from) / 2;
+            while (mid < to && !isDelimiter(text.charAt(mid))) {
+                mid++;
+            }
+            if (mid >= to) {
+                return null;
+            }
+            final var prefix = new TokenSpliterator(text, from, mid);
+            from = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return to - from; // in chars, the number of tokens is not known up front
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL | IMMUTABLE;
+        }
+    }
+
+}
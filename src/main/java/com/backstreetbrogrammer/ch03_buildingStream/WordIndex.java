@@ -0,0 +1,525 @@
+package com.backstreetbrogrammer.ch03_buildingStream;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Word frequencies and inverted index (word to line numbers) of a text file, built in parallel and persisted in a
+ * format which is memory-mapped back as is.
+ * <p>
+ * Words are runs of bytes between ASCII whitespace, compared as raw UTF-8 bytes (no case folding), and lines are
+ * numbered from 0, like {@code skip()} and {@link LineIndex#lines(long, long)}. The file is scanned in chunks of whole
+ * lines, each chunk filling its own open-addressing table of byte slices with primitive counts and postings; the
+ * tables are then merged in file order. The postings of a word are its distinct line numbers, delta-encoded in an
+ * {@code int[]}.
+ * <p>
+ * A built index is laid out exactly as its file ({@code <file>.widx}): a header, one entry per word sorted by bytes
+ * (for binary search), then the words and the postings. {@link #of(Path)} maps the sidecar file when it matches the
+ * size and last-modified time of the text file, and rebuilds it otherwise. An index must stay below 2 GB.
+ */
+public final class WordIndex {
+
+    private static final String SUFFIX = ".widx";
+    private static final int MAGIC = 0x57494458; // "WIDX"
+    // magic, words, size, mtime, lines, total words
+    private static final int HEADER_SIZE = Integer.BYTES * 2 + Long.BYTES * 4;
+    // key offset, key length, frequency, postings offset, postings count
+    private static final int ENTRY_SIZE = Integer.BYTES * 2 + Long.BYTES + Integer.BYTES * 2;
+    private static final int FREQUENCY = 8;
+    private static final int POSTINGS_OFFSET = 16;
+    private static final int POSTINGS_COUNT = 20;
+    private static final int CHUNK_SIZE = 1 << 22;
+    private static final int BOUNDARY_BUFFER_SIZE = 1 << 12;
+    // ' ', '\t', '\n', '\u000B', '\f' and '\r'
+    private static final long WHITESPACE_MASK = (1L << ' ') | (1L << '\t') | (1L << '\n') | (1L << 0x0B)
+            | (1L << '\f') | (1L << '\r');
+
+    private final ByteBuffer buffer;
+    private final int wordCount;
+
+    private WordIndex(final ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.wordCount = buffer.getInt(Integer.BYTES);
+    }
+
+    // maps the sidecar index of the file, (re)building and saving it if it is missing or stale
+    public static WordIndex of(final Path path) throws IOException {
+        final Path indexPath = sidecarOf(path);
+        final long size = Files.size(path);
+        final long lastModified = Files.getLastModifiedTime(path).toMillis();
+
+        final WordIndex loaded = Files.isRegularFile(indexPath) ? tryLoad(indexPath) : null;
+        if (loaded != null && loaded.sourceSize() == size && loaded.sourceLastModified() == lastModified) {
+            return loaded;
+        }
+        final WordIndex built = build(path);
+        built.save(indexPath);
+        return built;
+    }
+
+    static Path sidecarOf(final Path path) {
+        return path.resolveSibling(path.getFileName() + SUFFIX);
+    }
+
+    public static WordIndex build(final Path path) throws IOException {
+        final long size = Files.size(path);
+        final long lastModified = Files.getLastModifiedTime(path).toMillis();
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long[] boundaries = chunkBoundaries(channel, size);
+            final int chunks = boundaries.length - 1;
+            final WordTable[] tables = new WordTable[chunks];
+            try {
+                IntStream.range(0, chunks).parallel().forEach(chunk -> {
+                    try {
+                        tables[chunk] = scan(channel.map(FileChannel.MapMode.READ_ONLY, boundaries[chunk],
+                                                         boundaries[chunk + 1] - boundaries[chunk]));
+                    } catch (final IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (final UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            final WordTable merged = new WordTable();
+            long lines = 0L;
+            for (final WordTable table : tables) {
+                merged.mergeFrom(table, lines);
+                lines += table.newlines;
+            }
+            if (size > 0L && !endsWithNewline(channel, size)) {
+                lines++;
+            }
+            return new WordIndex(merged.toBuffer(size, lastModified, lines));
+        }
+    }
+
+    public static WordIndex load(final Path indexPath) throws IOException {
+        final WordIndex index = tryLoad(indexPath);
+        if (index == null) {
+            throw new IOException("Corrupt word index: " + indexPath);
+        }
+        return index;
+    }
+
+    // returns null if the file is not a complete word index
+    private static WordIndex tryLoad(final Path indexPath) throws IOException {
+        try (final FileChannel channel = FileChannel.open(indexPath, StandardOpenOption.READ)) {
+            final long fileSize = channel.size();
+            if (fileSize < HEADER_SIZE || fileSize > Integer.MAX_VALUE) {
+                return null;
+            }
+            final MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0L, fileSize);
+            if (mapped.getInt(0) != MAGIC) {
+                return null;
+            }
+            final long words = mapped.getInt(Integer.BYTES);
+            if (words < 0 || HEADER_SIZE + words * ENTRY_SIZE > fileSize) {
+                return null;
+            }
+            // the postings of the last entry end the file
+            final int last = HEADER_SIZE + (int) (words - 1) * ENTRY_SIZE;
+            final long end = words == 0 ? HEADER_SIZE : mapped.getInt(last + POSTINGS_OFFSET)
+                    + (long) mapped.getInt(last + POSTINGS_COUNT) * Integer.BYTES;
+            if (end != fileSize) {
+                return null;
+            }
+            return new WordIndex(mapped);
+        }
+    }
+
+    // writes through a temp file, which then replaces the target
+    public void save(final Path indexPath) throws IOException {
+        final Path tempPath = Files.createTempFile(indexPath.toAbsolutePath().getParent(),
+                                                   indexPath.getFileName().toString(), ".tmp");
+        try {
+            try (final FileChannel target = FileChannel.open(tempPath, StandardOpenOption.WRITE)) {
+                final ByteBuffer out = buffer.duplicate();
+                out.clear();
+                while (out.hasRemaining()) {
+                    target.write(out);
+                }
+            }
+            Files.move(tempPath, indexPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempPath);
+        }
+    }
+
+    public int distinctWords() {
+        return wordCount;
+    }
+
+    public long totalWords() {
+        return buffer.getLong(HEADER_SIZE - Long.BYTES);
+    }
+
+    public long lineCount() {
+        return buffer.getLong(HEADER_SIZE - Long.BYTES * 2);
+    }
+
+    private long sourceSize() {
+        return buffer.getLong(Integer.BYTES * 2);
+    }
+
+    private long sourceLastModified() {
+        return buffer.getLong(Integer.BYTES * 2 + Long.BYTES);
+    }
+
+    public long frequency(final String word) {
+        final int entry = find(word);
+        return entry < 0 ? 0L : buffer.getLong(entry + FREQUENCY);
+    }
+
+    // the number of distinct lines containing the word
+    public int lineFrequency(final String word) {
+        final int entry = find(word);
+        return entry < 0 ? 0 : buffer.getInt(entry + POSTINGS_COUNT);
+    }
+
+    // ascending line numbers of the lines containing the word
+    public IntStream lines(final String word) {
+        final int entry = find(word);
+        if (entry < 0) {
+            return IntStream.empty();
+        }
+        final int offset = buffer.getInt(entry + POSTINGS_OFFSET);
+        final int count = buffer.getInt(entry + POSTINGS_COUNT);
+        final PrimitiveIterator.OfInt postings = new PrimitiveIterator.OfInt() {
+            private int index;
+            private int line;
+
+            @Override
+            public boolean hasNext() {
+                return index < count;
+            }
+
+            @Override
+            public int nextInt() {
+                if (index >= count) {
+                    throw new NoSuchElementException();
+                }
+                line += buffer.getInt(offset + index++ * Integer.BYTES);
+                return line;
+            }
+        };
+        return StreamSupport.intStream(Spliterators.spliterator(postings, count, Spliterator.ORDERED
+                | Spliterator.SORTED | Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.IMMUTABLE), false);
+    }
+
+    // the distinct words, in UTF-8 byte order (which is code point order)
+    public Stream<String> words() {
+        return IntStream.range(0, wordCount).mapToObj(i -> keyOf(HEADER_SIZE + i * ENTRY_SIZE));
+    }
+
+    private String keyOf(final int entry) {
+        final byte[] key = new byte[buffer.getInt(entry + 4)];
+        final int keyOffset = buffer.getInt(entry);
+        for (int i = 0; i < key.length; i++) {
+            key[i] = buffer.get(keyOffset + i);
+        }
+        return new String(key, StandardCharsets.UTF_8);
+    }
+
+    // binary search on the sorted entries, returns the position of the entry or -1
+    private int find(final String word) {
+        final byte[] key = word.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = wordCount - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final int entry = HEADER_SIZE + mid * ENTRY_SIZE;
+            final int cmp = compareKey(entry, key);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return entry;
+            }
+        }
+        return -1;
+    }
+
+    private int compareKey(final int entry, final byte[] key) {
+        final int keyOffset = buffer.getInt(entry);
+        final int keyLength = buffer.getInt(entry + 4);
+        final int length = Math.min(keyLength, key.length);
+        for (int i = 0; i < length; i++) {
+            final int cmp = Byte.compareUnsigned(buffer.get(keyOffset + i), key[i]);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(keyLength, key.length);
+    }
+
+    // cuts the file every CHUNK_SIZE bytes, moved forward to the next line start
+    private static long[] chunkBoundaries(final FileChannel channel, final long size) throws IOException {
+        final int chunks = (int) Math.max(1L, (size + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        final long[] boundaries = new long[chunks + 1];
+        final ByteBuffer window = ByteBuffer.allocate(BOUNDARY_BUFFER_SIZE);
+        int count = 1;
+        for (int chunk = 1; chunk < chunks; chunk++) {
+            long position = Math.max((long) chunk * CHUNK_SIZE, boundaries[count - 1]);
+            boolean found = false;
+            while (!found && position < size) {
+                window.clear();
+                final int read = channel.read(window, position);
+                if (read <= 0) {
+                    break;
+                }
+                for (int i = 0; i < read; i++) {
+                    if (window.get(i) == '\n') {
+                        position += i + 1;
+                        found = true;
+                        break;
+                    }
+                }
+                if (!found) {
+                    position += read;
+                }
+            }
+            if (position < size && position > boundaries[count - 1]) {
+                boundaries[count++] = position;
+            }
+        }
+        boundaries[count++] = size;
+        return Arrays.copyOf(boundaries, count);
+    }
+
+    private static boolean endsWithNewline(final FileChannel channel, final long size) throws IOException {
+        final ByteBuffer last = ByteBuffer.allocate(1);
+        channel.read(last, size - 1);
+        return last.get(0) == '\n';
+    }
+
+    private static boolean isWhitespace(final byte b) {
+        return b >= 0 && b <= ' ' && (WHITESPACE_MASK & (1L << b)) != 0;
+    }
+
+    // line numbers in the table are local to the chunk
+    private static WordTable scan(final ByteBuffer chunk) {
+        final WordTable table = new WordTable();
+        final int limit = chunk.limit();
+        int line = 0;
+        int start = -1;
+        int hash = 0;
+        for (int i = 0; i < limit; i++) {
+            final byte b = chunk.get(i);
+            if (isWhitespace(b)) {
+                if (start >= 0) {
+                    table.addOccurrence(chunk, start, i, hash, line);
+                    start = -1;
+                }
+                if (b == '\n') {
+                    line++;
+                }
+            } else if (start < 0) {
+                start = i;
+                hash = b;
+            } else {
+                hash = 31 * hash + b;
+            }
+        }
+        if (start >= 0) {
+            table.addOccurrence(chunk, start, limit, hash, line);
+        }
+        table.newlines = line;
+        return table;
+    }
+
+    /**
+     * Open-addressing table from byte slices to a primitive frequency and a growable {@code int[]} of line numbers,
+     * holding either one chunk (absolute line numbers) or the merged file.
+     */
+    private static final class WordTable {
+
+        private byte[][] keys = new byte[64][];
+        private int[] hashes = new int[64];
+        private long[] frequencies = new long[64];
+        private int[][] postings = new int[64][];
+        private int[] postingCounts = new int[64];
+        private int size;
+        private int newlines;
+
+        private static int mix(final int hash) {
+            final int h = hash * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+
+        private void addOccurrence(final ByteBuffer source, final int from, final int to, final int hash,
+                                   final int line) {
+            final int slot = slotOf(source, from, to, mix(hash));
+            frequencies[slot]++;
+            final int count = postingCounts[slot];
+            if (count == 0 || postings[slot][count - 1] != line) {
+                appendPosting(slot, line);
+            }
+        }
+
+        private void appendPosting(final int slot, final int line) {
+            int[] lines = postings[slot];
+            final int count = postingCounts[slot];
+            if (lines == null) {
+                lines = new int[4];
+                postings[slot] = lines;
+            } else if (count == lines.length) {
+                lines = Arrays.copyOf(lines, count * 2);
+                postings[slot] = lines;
+            }
+            lines[count] = line;
+            postingCounts[slot] = count + 1;
+        }
+
+        // chunks must be merged in file order, so that postings stay sorted
+        private void mergeFrom(final WordTable chunk, final long firstLine) {
+            if (firstLine + chunk.newlines + 1 > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Too many lines for a word index: " + (firstLine + chunk.newlines));
+            }
+            final int base = (int) firstLine;
+            for (int s = 0; s < chunk.keys.length; s++) {
+                final byte[] key = chunk.keys[s];
+                if (key == null) {
+                    continue;
+                }
+                final int slot = slotOf(ByteBuffer.wrap(key), 0, key.length, chunk.hashes[s]);
+                frequencies[slot] += chunk.frequencies[s];
+                final int[] lines = chunk.postings[s];
+                for (int i = 0; i < chunk.postingCounts[s]; i++) {
+                    appendPosting(slot, base + lines[i]);
+                }
+            }
+        }
+
+        private int slotOf(final ByteBuffer source, final int from, final int to, final int hash) {
+            int mask = keys.length - 1;
+            int slot = hash & mask;
+            while (keys[slot] != null) {
+                if (hashes[slot] == hash && matches(keys[slot], source, from, to)) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            if ((size + 1) * 2 > keys.length) {
+                grow();
+                mask = keys.length - 1;
+                slot = hash & mask;
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+            }
+            final byte[] key = new byte[to - from];
+            for (int i = 0; i < key.length; i++) {
+                key[i] = source.get(from + i);
+            }
+            keys[slot] = key;
+            hashes[slot] = hash;
+            size++;
+            return slot;
+        }
+
+        private static boolean matches(final byte[] key, final ByteBuffer source, final int from, final int to) {
+            if (key.length != to - from) {
+                return false;
+            }
+            for (int i = 0; i < key.length; i++) {
+                if (key[i] != source.get(from + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void grow() {
+            final byte[][] oldKeys = keys;
+            final int[] oldHashes = hashes;
+            final long[] oldFrequencies = frequencies;
+            final int[][] oldPostings = postings;
+            final int[] oldPostingCounts = postingCounts;
+            final int capacity = oldKeys.length * 2;
+            keys = new byte[capacity][];
+            hashes = new int[capacity];
+            frequencies = new long[capacity];
+            postings = new int[capacity][];
+            postingCounts = new int[capacity];
+            final int mask = capacity - 1;
+            for (int s = 0; s < oldKeys.length; s++) {
+                if (oldKeys[s] != null) {
+                    int slot = oldHashes[s] & mask;
+                    while (keys[slot] != null) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = oldKeys[s];
+                    hashes[slot] = oldHashes[s];
+                    frequencies[slot] = oldFrequencies[s];
+                    postings[slot] = oldPostings[s];
+                    postingCounts[slot] = oldPostingCounts[s];
+                }
+            }
+        }
+
+        // lays the words out in byte order, with delta-encoded postings, in the file format
+        private ByteBuffer toBuffer(final long sourceSize, final long lastModified, final long lines) {
+            final Integer[] slots = new Integer[size];
+            long keyBytes = 0L;
+            long postingBytes = 0L;
+            long totalWords = 0L;
+            int next = 0;
+            for (int s = 0; s < keys.length; s++) {
+                if (keys[s] != null) {
+                    slots[next++] = s;
+                    keyBytes += keys[s].length;
+                    postingBytes += (long) postingCounts[s] * Integer.BYTES;
+                    totalWords += frequencies[s];
+                }
+            }
+            Arrays.sort(slots, (s1, s2) -> Arrays.compareUnsigned(keys[s1], keys[s2]));
+
+            final long keysStart = HEADER_SIZE + (long) size * ENTRY_SIZE;
+            final long postingsStart = (keysStart + keyBytes + Integer.BYTES - 1) & -Integer.BYTES;
+            final long total = postingsStart + postingBytes;
+            if (total > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Word index too large: " + total + " bytes");
+            }
+
+            final ByteBuffer out = ByteBuffer.allocate((int) total);
+            out.putInt(MAGIC).putInt(size).putLong(sourceSize).putLong(lastModified).putLong(lines).putLong(totalWords);
+            int keyOffset = (int) keysStart;
+            int postingOffset = (int) postingsStart;
+            for (final int s : slots) {
+                out.putInt(keyOffset).putInt(keys[s].length).putLong(frequencies[s])
+                   .putInt(postingOffset).putInt(postingCounts[s]);
+                for (int i = 0; i < keys[s].length; i++) {
+                    out.put(keyOffset + i, keys[s][i]);
+                }
+                int previous = 0;
+                for (int i = 0; i < postingCounts[s]; i++) {
+                    final int line = postings[s][i];
+                    out.putInt(postingOffset + i * Integer.BYTES, line - previous);
+                    previous = line;
+                }
+                keyOffset += keys[s].length;
+                postingOffset += postingCounts[s] * Integer.BYTES;
+            }
+            return out.clear();
+        }
+    }
+
+}
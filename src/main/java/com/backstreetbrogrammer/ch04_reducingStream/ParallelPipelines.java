@@ -0,0 +1,290 @@
+package com.backstreetbrogrammer.ch04_reducingStream;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Runs parallel stream pipelines on a given {@link ForkJoinPool} instead of the common pool, so that a heavy pipeline
+ * only competes with the pipelines sharing its pool.
+ * <p>
+ * A parallel stream forks its tasks into the pool of the thread running the terminal operation, so the terminal
+ * operation must be called inside {@link #invoke(Supplier)} or {@link #run(Runnable)}:
+ * <pre>
+ *     try (final ParallelPipelines reports = ParallelPipelines.dedicated("reports", 2, 10_000)) {
+ *         final int sum = reports.invoke(() -> reports.stream(numbers).reduce(0, Integer::sum, Integer::sum));
+ *     }
+ * </pre>
+ * The streams created by {@link #stream(Collection)} and {@link #intStream(int[])} do not split their source below
+ * the split threshold, whatever the parallelism of the pool.
+ */
+public final class ParallelPipelines implements AutoCloseable {
+
+    public static final int DEFAULT_SPLIT_THRESHOLD = 1024;
+
+    private final ForkJoinPool pool;
+    private final int splitThreshold;
+    private final boolean owned;
+
+    private ParallelPipelines(final ForkJoinPool pool, final int splitThreshold, final boolean owned) {
+        if (splitThreshold < 1) {
+            throw new IllegalArgumentException("splitThreshold must be positive: " + splitThreshold);
+        }
+        this.pool = Objects.requireNonNull(pool);
+        this.splitThreshold = splitThreshold;
+        this.owned = owned;
+    }
+
+    // the pool is not shut down by close()
+    public static ParallelPipelines on(final ForkJoinPool executor) {
+        return new ParallelPipelines(executor, DEFAULT_SPLIT_THRESHOLD, false);
+    }
+
+    public static ParallelPipelines on(final ForkJoinPool executor, final int splitThreshold) {
+        return new ParallelPipelines(executor, splitThreshold, false);
+    }
+
+    // a new pool of daemon threads named after the pool, shut down by close()
+    public static ParallelPipelines dedicated(final String name, final int parallelism, final int splitThreshold) {
+        final AtomicInteger threads = new AtomicInteger();
+        final ForkJoinPool pool = new ForkJoinPool(parallelism, forkJoinPool -> {
+            final ForkJoinWorkerThread thread =
+                    ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName(name + "-worker-" + threads.incrementAndGet());
+            return thread;
+        }, null, false);
+        return new ParallelPipelines(pool, splitThreshold, true);
+    }
+
+    public ForkJoinPool pool() {
+        return pool;
+    }
+
+    public int parallelism() {
+        return pool.getParallelism();
+    }
+
+    public int splitThreshold() {
+        return splitThreshold;
+    }
+
+    // runs the pipeline built and terminated by the supplier in the pool, and waits for its result
+    public <R> R invoke(final Supplier<R> pipeline) {
+        if (ForkJoinTask.getPool() == pool) {
+            return pipeline.get();
+        }
+        return pool.invoke(ForkJoinTask.adapt(pipeline::get));
+    }
+
+    public void run(final Runnable pipeline) {
+        invoke(() -> {
+            pipeline.run();
+            return null;
+        });
+    }
+
+    public <T> Stream<T> stream(final Collection<T> source) {
+        return stream(source.spliterator());
+    }
+
+    public <T> Stream<T> stream(final Spliterator<T> source) {
+        return StreamSupport.stream(new ThresholdSpliterator<>(source, splitThreshold), true);
+    }
+
+    public IntStream intStream(final int[] source) {
+        return StreamSupport.intStream(new ThresholdIntSpliterator(Spliterators.spliterator(
+                source, Spliterator.ORDERED | Spliterator.IMMUTABLE), splitThreshold), true);
+    }
+
+    public Metrics metrics() {
+        return new Metrics(pool.getParallelism(), pool.getPoolSize(), pool.getActiveThreadCount(),
+                           pool.getQueuedTaskCount(), pool.getQueuedSubmissionCount(), pool.getStealCount());
+    }
+
+    @Override
+    public void close() {
+        if (!owned) {
+            return;
+        }
+        pool.shutdown();
+        try {
+            pool.awaitTermination(1L, TimeUnit.MINUTES);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ParallelPipelines{" +
+                "splitThreshold=" + splitThreshold +
+                ", metrics=" + metrics() +
+                '}';
+    }
+
+    /**
+     * Point-in-time view of the pool: queue depths are estimates, the steal count only grows.
+     */
+    public static final class Metrics {
+
+        private final int parallelism;
+        private final int poolSize;
+        private final int activeThreads;
+        private final long queuedTasks;
+        private final int queuedSubmissions;
+        private final long steals;
+
+        private Metrics(final int parallelism, final int poolSize, final int activeThreads, final long queuedTasks,
+                        final int queuedSubmissions, final long steals) {
+            this.parallelism = parallelism;
+            this.poolSize = poolSize;
+            this.activeThreads = activeThreads;
+            this.queuedTasks = queuedTasks;
+            this.queuedSubmissions = queuedSubmissions;
+            this.steals = steals;
+        }
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public int getPoolSize() {
+            return poolSize;
+        }
+
+        public int getActiveThreads() {
+            return activeThreads;
+        }
+
+        // tasks forked into the worker queues
+        public long getQueuedTasks() {
+            return queuedTasks;
+        }
+
+        // pipelines waiting for a worker
+        public int getQueuedSubmissions() {
+            return queuedSubmissions;
+        }
+
+        public long getSteals() {
+            return steals;
+        }
+
+        @Override
+        public String toString() {
+            return "Metrics{" +
+                    "parallelism=" + parallelism +
+                    ", poolSize=" + poolSize +
+                    ", activeThreads=" + activeThreads +
+                    ", queuedTasks=" + queuedTasks +
+                    ", queuedSubmissions=" + queuedSubmissions +
+                    ", steals=" + steals +
+                    '}';
+        }
+    }
+
+    // refuses to split below the threshold, the two halves of a split being at least about threshold / 2
+    private static final class ThresholdSpliterator<T> implements Spliterator<T> {
+
+        private final Spliterator<T> source;
+        private final int threshold;
+
+        private ThresholdSpliterator(final Spliterator<T> source, final int threshold) {
+            this.source = source;
+            this.threshold = threshold;
+        }
+
+        @Override
+        public boolean tryAdvance(final Consumer<? super T> action) {
+            return source.tryAdvance(action);
+        }
+
+        @Override
+        public void forEachRemaining(final Consumer<? super T> action) {
+            source.forEachRemaining(action);
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            if (source.estimateSize() <= threshold) {
+                return null;
+            }
+            final Spliterator<T> prefix = source.trySplit();
+            return prefix == null ? null : new ThresholdSpliterator<>(prefix, threshold);
+        }
+
+        @Override
+        public long estimateSize() {
+            return source.estimateSize();
+        }
+
+        @Override
+        public long getExactSizeIfKnown() {
+            return source.getExactSizeIfKnown();
+        }
+
+        @Override
+        public int characteristics() {
+            return source.characteristics();
+        }
+
+        @Override
+        public Comparator<? super T> getComparator() {
+            return source.getComparator();
+        }
+    }
+
+    private static final class ThresholdIntSpliterator implements Spliterator.OfInt {
+
+        private final Spliterator.OfInt source;
+        private final int threshold;
+
+        private ThresholdIntSpliterator(final Spliterator.OfInt source, final int threshold) {
+            this.source = source;
+            this.threshold = threshold;
+        }
+
+        @Override
+        public boolean tryAdvance(final IntConsumer action) {
+            return source.tryAdvance(action);
+        }
+
+        @Override
+        public void forEachRemaining(final IntConsumer action) {
+            source.forEachRemaining(action);
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            if (source.estimateSize() <= threshold) {
+                return null;
+            }
+            final Spliterator.OfInt prefix = source.trySplit();
+            return prefix == null ? null : new ThresholdIntSpliterator(prefix, threshold);
+        }
+
+        @Override
+        public long estimateSize() {
+            return source.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return source.characteristics();
+        }
+    }
+
+}
@@ -0,0 +1,280 @@
+package com.backstreetbrogrammer.ch05_collectors;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.DoubleSummaryStatistics;
+import java.util.IntSummaryStatistics;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collector;
+
+/**
+ * Fuses several aggregates (counting, summarizing, averaging, summing, min/max and partition counts) into a single
+ * pass over primitive accumulators.
+ * <p>
+ * Each aggregate is registered up front and returns a typed handle, which is then used to read its value from the
+ * {@link Result}:
+ * <pre>
+ *     final Aggregations&lt;Student&gt; aggregations = new Aggregations&lt;&gt;();
+ *     final Aggregations.IntMetric age = aggregations.summarizingInt(Student::getAge);
+ *     final Aggregations.Partition olderThan20 = aggregations.partitioningBy(student -&gt; student.getAge() &gt; 20);
+ *
+ *     final Aggregations.Result result = students.stream().collect(aggregations.collector());
+ *     result.get(age).getAverage();
+ *     result.get(olderThan20);
+ * </pre>
+ * The collector is mergeable and can be used with parallel streams. Double sums are compensated (Kahan summation), in
+ * the accumulator and the combiner alike, so they match {@code Collectors.summarizingDouble()}.
+ * <p>
+ * A partition only counts its elements, like {@code Collectors.partitioningBy(predicate, counting())}: keeping the
+ * elements in lists, as the single-argument {@code Collectors.partitioningBy(predicate)} does, would defeat the
+ * single primitive pass. {@link Result#partitionCounts} returns the counts in the same {@code Map} shape.
+ */
+public final class Aggregations<T> {
+
+    private final List<ToIntFunction<? super T>> intMappers = new ArrayList<>();
+    private final List<ToDoubleFunction<? super T>> doubleMappers = new ArrayList<>();
+    private final List<Predicate<? super T>> predicates = new ArrayList<>();
+
+    public IntMetric summarizingInt(final ToIntFunction<? super T> mapper) {
+        intMappers.add(mapper);
+        return new IntMetric(this, intMappers.size() - 1);
+    }
+
+    public DoubleMetric summarizingDouble(final ToDoubleFunction<? super T> mapper) {
+        doubleMappers.add(mapper);
+        return new DoubleMetric(this, doubleMappers.size() - 1);
+    }
+
+    public Partition partitioningBy(final Predicate<? super T> predicate) {
+        predicates.add(predicate);
+        return new Partition(this, predicates.size() - 1);
+    }
+
+    // the aggregates registered so far are captured; registering more afterwards does not change this collector
+    public Collector<T, ?, Result> collector() {
+        final List<ToIntFunction<? super T>> ints = List.copyOf(intMappers);
+        final List<ToDoubleFunction<? super T>> doubles = List.copyOf(doubleMappers);
+        final List<Predicate<? super T>> tests = List.copyOf(predicates);
+        return Collector.of(() -> new Accumulator<>(ints, doubles, tests),
+                            Accumulator::accept,
+                            Accumulator::combine,
+                            accumulator -> accumulator.toResult(this));
+    }
+
+    private static final class Accumulator<T> {
+
+        private final List<ToIntFunction<? super T>> intMappers;
+        private final List<ToDoubleFunction<? super T>> doubleMappers;
+        private final List<Predicate<? super T>> predicates;
+
+        private long count;
+        private final long[] intSums;
+        private final int[] intMins;
+        private final int[] intMaxs;
+        private final double[] doubleSums;
+        private final double[] doubleCompensations; // low-order bits lost by doubleSums, negated
+        private final double[] doubleSimpleSums; // naive sums, to tell an infinite sum from a NaN compensation
+        private final double[] doubleMins;
+        private final double[] doubleMaxs;
+        private final long[] matches;
+
+        private Accumulator(final List<ToIntFunction<? super T>> intMappers,
+                            final List<ToDoubleFunction<? super T>> doubleMappers,
+                            final List<Predicate<? super T>> predicates) {
+            this.intMappers = intMappers;
+            this.doubleMappers = doubleMappers;
+            this.predicates = predicates;
+            intSums = new long[intMappers.size()];
+            intMins = new int[intMappers.size()];
+            intMaxs = new int[intMappers.size()];
+            Arrays.fill(intMins, Integer.MAX_VALUE);
+            Arrays.fill(intMaxs, Integer.MIN_VALUE);
+            doubleSums = new double[doubleMappers.size()];
+            doubleCompensations = new double[doubleMappers.size()];
+            doubleSimpleSums = new double[doubleMappers.size()];
+            doubleMins = new double[doubleMappers.size()];
+            doubleMaxs = new double[doubleMappers.size()];
+            Arrays.fill(doubleMins, Double.POSITIVE_INFINITY);
+            Arrays.fill(doubleMaxs, Double.NEGATIVE_INFINITY);
+            matches = new long[predicates.size()];
+        }
+
+        private void accept(final T element) {
+            count++;
+            for (int i = 0; i < intSums.length; i++) {
+                final int value = intMappers.get(i).applyAsInt(element);
+                intSums[i] += value;
+                intMins[i] = Math.min(intMins[i], value);
+                intMaxs[i] = Math.max(intMaxs[i], value);
+            }
+            for (int i = 0; i < doubleSums.length; i++) {
+                final double value = doubleMappers.get(i).applyAsDouble(element);
+                addCompensated(i, value);
+                doubleSimpleSums[i] += value;
+                doubleMins[i] = Math.min(doubleMins[i], value);
+                doubleMaxs[i] = Math.max(doubleMaxs[i], value);
+            }
+            for (int i = 0; i < matches.length; i++) {
+                if (predicates.get(i).test(element)) {
+                    matches[i]++;
+                }
+            }
+        }
+
+        // Kahan summation, as in DoubleSummaryStatistics
+        private void addCompensated(final int i, final double value) {
+            final double corrected = value - doubleCompensations[i];
+            final double sum = doubleSums[i] + corrected;
+            doubleCompensations[i] = (sum - doubleSums[i]) - corrected;
+            doubleSums[i] = sum;
+        }
+
+        private Accumulator<T> combine(final Accumulator<T> other) {
+            count += other.count;
+            for (int i = 0; i < intSums.length; i++) {
+                intSums[i] += other.intSums[i];
+                intMins[i] = Math.min(intMins[i], other.intMins[i]);
+                intMaxs[i] = Math.max(intMaxs[i], other.intMaxs[i]);
+            }
+            for (int i = 0; i < doubleSums.length; i++) {
+                // the other sum, then the bits it lost
+                addCompensated(i, other.doubleSums[i]);
+                addCompensated(i, -other.doubleCompensations[i]);
+                doubleSimpleSums[i] += other.doubleSimpleSums[i];
+                doubleMins[i] = Math.min(doubleMins[i], other.doubleMins[i]);
+                doubleMaxs[i] = Math.max(doubleMaxs[i], other.doubleMaxs[i]);
+            }
+            for (int i = 0; i < matches.length; i++) {
+                matches[i] += other.matches[i];
+            }
+            return this;
+        }
+
+        private Result toResult(final Aggregations<?> owner) {
+            final double[] sums = new double[doubleSums.length];
+            for (int i = 0; i < sums.length; i++) {
+                final double sum = doubleSums[i] - doubleCompensations[i];
+                // an infinite input makes the compensated sum NaN, while the naive sum is right
+                sums[i] = Double.isNaN(sum) && Double.isInfinite(doubleSimpleSums[i]) ? doubleSimpleSums[i] : sum;
+            }
+            return new Result(owner, count, intSums, intMins, intMaxs, sums, doubleMins, doubleMaxs, matches);
+        }
+    }
+
+    public static final class Result {
+
+        private final Aggregations<?> owner;
+        private final long count;
+        private final long[] intSums;
+        private final int[] intMins;
+        private final int[] intMaxs;
+        private final double[] doubleSums;
+        private final double[] doubleMins;
+        private final double[] doubleMaxs;
+        private final long[] matches;
+
+        private Result(final Aggregations<?> owner, final long count, final long[] intSums, final int[] intMins,
+                       final int[] intMaxs, final double[] doubleSums, final double[] doubleMins,
+                       final double[] doubleMaxs, final long[] matches) {
+            this.owner = owner;
+            this.count = count;
+            this.intSums = intSums;
+            this.intMins = intMins;
+            this.intMaxs = intMaxs;
+            this.doubleSums = doubleSums;
+            this.doubleMins = doubleMins;
+            this.doubleMaxs = doubleMaxs;
+            this.matches = matches;
+        }
+
+        public long count() {
+            return count;
+        }
+
+        public IntSummaryStatistics get(final IntMetric metric) {
+            final int i = check(metric.owner, metric.index, intSums.length);
+            return count == 0L
+                    ? new IntSummaryStatistics()
+                    : new IntSummaryStatistics(count, intMins[i], intMaxs[i], intSums[i]);
+        }
+
+        public DoubleSummaryStatistics get(final DoubleMetric metric) {
+            final int i = check(metric.owner, metric.index, doubleSums.length);
+            if (count == 0L) {
+                return new DoubleSummaryStatistics();
+            }
+            if (Double.isNaN(doubleSums[i]) && !Double.isNaN(doubleMins[i])) {
+                // both infinities were summed: the constructor rejects a NaN sum with a non-NaN min and max, so the
+                // infinities are accepted again, as summarizingDouble() did
+                final var statistics = new DoubleSummaryStatistics(count - 2, doubleMins[i], doubleMaxs[i], 0.0);
+                statistics.accept(Double.POSITIVE_INFINITY);
+                statistics.accept(Double.NEGATIVE_INFINITY);
+                return statistics;
+            }
+            return new DoubleSummaryStatistics(count, doubleMins[i], doubleMaxs[i], doubleSums[i]);
+        }
+
+        // number of elements matching the predicate; count() - get(partition) did not match
+        public long get(final Partition partition) {
+            return matches[check(partition.owner, partition.index, matches.length)];
+        }
+
+        // same as Collectors.partitioningBy(predicate, counting())
+        public Map<Boolean, Long> partitionCounts(final Partition partition) {
+            final long matching = get(partition);
+            return Map.of(false, count - matching, true, matching);
+        }
+
+        private int check(final Aggregations<?> handleOwner, final int index, final int registered) {
+            if (handleOwner != owner || index >= registered) {
+                throw new IllegalArgumentException("Aggregate was not registered before this result was collected");
+            }
+            return index;
+        }
+
+        @Override
+        public String toString() {
+            return "Result{" +
+                    "count=" + count +
+                    ", intSums=" + Arrays.toString(intSums) +
+                    ", doubleSums=" + Arrays.toString(doubleSums) +
+                    ", matches=" + Arrays.toString(matches) +
+                    '}';
+        }
+    }
+
+    public static final class IntMetric {
+        private final Aggregations<?> owner;
+        private final int index;
+
+        private IntMetric(final Aggregations<?> owner, final int index) {
+            this.owner = owner;
+            this.index = index;
+        }
+    }
+
+    public static final class DoubleMetric {
+        private final Aggregations<?> owner;
+        private final int index;
+
+        private DoubleMetric(final Aggregations<?> owner, final int index) {
+            this.owner = owner;
+            this.index = index;
+        }
+    }
+
+    public static final class Partition {
+        private final Aggregations<?> owner;
+        private final int index;
+
+        private Partition(final Aggregations<?> owner, final int index) {
+            this.owner = owner;
+            this.index = index;
+        }
+    }
+
+}
@@ -110,5 +110,20 @@ public class CollectorsDemo {
         final Map<Boolean, List<Student>> collectorsPartitioningBy
                 = students.stream()
                           .collect(Collectors.partitioningBy(student -> student.getAge() > 20));
+
+        // Aggregations: counting, summarizing, averaging, summing, max and partition count in a single pass
+        final Aggregations<Student> aggregations = new Aggregations<>();
+        final Aggregations.IntMetric age = aggregations.summarizingInt(Student::getAge);
+        final Aggregations.Partition olderThan20 = aggregations.partitioningBy(student -> student.getAge() > 20);
+
+        final Aggregations.Result aggregationsResult
+                = students.stream()
+                          .collect(aggregations.collector());
+        System.out.printf("Count = %d, Average age = %.2f, Sum of ages = %d, Max age = %d, Older than 20 = %d%n",
+                          aggregationsResult.count(),
+                          aggregationsResult.get(age).getAverage(),
+                          aggregationsResult.get(age).getSum(),
+                          aggregationsResult.get(age).getMax(),
+                          aggregationsResult.get(olderThan20));
     }
 }
@@ -0,0 +1,623 @@
+package com.backstreetbrogrammer.ch05_collectors;
+
+import com.backstreetbrogrammer.model.Student;
+import com.backstreetbrogrammer.model.StudentWithCourse;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.Cleaner;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Sorting and grouping collectors for streams larger than the heap: at most {@code budget} elements are held in memory
+ * (per accumulator, so per parallel leaf), the rest is spilled to temp files as sorted runs, and the result is a lazy
+ * {@link Stream} k-way merging the runs back.
+ * <p>
+ * Elements are written with a {@link Codec}, in a compact binary encoding. Runs are merged as they pile up, by groups
+ * of {@value #MERGE_WIDTH}, and the runs gathered by combining parallel accumulators are merged down to at most
+ * {@value #MERGE_WIDTH}, so that the final merge never opens more files than that. The sort is stable. The returned
+ * stream deletes its temp files when closed, so it must be closed, like {@link Files#lines(Path)}. If the stream
+ * pipeline or the collector fails, the runs spilled so far are deleted right away, or, for an accumulator abandoned
+ * by a failing upstream stage, once it is garbage collected:
+ * <pre>
+ *     try (final Stream&lt;Map.Entry&lt;String, Long&gt;&gt; countPerCourse = students.collect(
+ *             ExternalCollectors.groupingBy(StudentWithCourse::getCourse, Collectors.counting(),
+ *                                           Codec.studentsWithCourse()))) {
+ *         countPerCourse.forEach(System.out::println);
+ *     }
+ * </pre>
+ */
+public final class ExternalCollectors {
+
+    public static final int DEFAULT_BUDGET = 1 << 20;
+
+    static final int MERGE_WIDTH = 64;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    // deletes the runs of accumulators and streams dropped without being finished or closed
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    private ExternalCollectors() {
+    }
+
+    /**
+     * Binary encoding of the elements written to the runs. Strings are written as their length in UTF-8 bytes
+     * followed by the bytes, with no size limit unlike {@link DataOutput#writeUTF}, and may be {@code null}.
+     */
+    public interface Codec<T> {
+
+        void write(DataOutput out, T value) throws IOException;
+
+        T read(DataInput in) throws IOException;
+
+        static void writeString(final DataOutput out, final String value) throws IOException {
+            if (value == null) {
+                out.writeInt(-1);
+                return;
+            }
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        static String readString(final DataInput in) throws IOException {
+            final int length = in.readInt();
+            if (length < 0) {
+                return null;
+            }
+            final byte[] bytes = new byte[length];
+            in.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        static Codec<String> strings() {
+            return new Codec<>() {
+                @Override
+                public void write(final DataOutput out, final String value) throws IOException {
+                    writeString(out, value);
+                }
+
+                @Override
+                public String read(final DataInput in) throws IOException {
+                    return readString(in);
+                }
+            };
+        }
+
+        static Codec<Student> students() {
+            return new Codec<>() {
+                @Override
+                public void write(final DataOutput out, final Student value) throws IOException {
+                    writeString(out, value.getName());
+                    out.writeInt(value.getAge());
+                }
+
+                @Override
+                public Student read(final DataInput in) throws IOException {
+                    final String name = readString(in);
+                    return new Student(name, in.readInt());
+                }
+            };
+        }
+
+        // course names are read back as canonical instances, pooled for as long as the codec is used
+        static Codec<StudentWithCourse> studentsWithCourse() {
+            final StudentWithCourse.CoursePool courses = new StudentWithCourse.CoursePool();
+            return new Codec<>() {
+                @Override
+                public void write(final DataOutput out, final StudentWithCourse value) throws IOException {
+                    writeString(out, value.getName());
+                    out.writeInt(value.getAge());
+                    writeString(out, value.getCourse());
+                }
+
+                @Override
+                public StudentWithCourse read(final DataInput in) throws IOException {
+                    final String name = readString(in);
+                    final int age = in.readInt();
+                    return courses.student(name, age, readString(in));
+                }
+            };
+        }
+    }
+
+    public static <T> Collector<T, ?, Stream<T>> externalSorted(final Comparator<? super T> comparator,
+                                                                final Codec<T> codec) {
+        return externalSorted(comparator, codec, DEFAULT_BUDGET);
+    }
+
+    public static <T> Collector<T, ?, Stream<T>> externalSorted(final Comparator<? super T> comparator,
+                                                                final Codec<T> codec, final int budget) {
+        if (budget < 1) {
+            throw new IllegalArgumentException("budget must be positive: " + budget);
+        }
+        return Collector.of(() -> new Spiller<>(comparator, codec, budget),
+                            Spiller::accept,
+                            Spiller::combine,
+                            Spiller::sorted);
+    }
+
+    public static <T, K extends Comparable<? super K>, A, D> Collector<T, ?, Stream<Map.Entry<K, D>>> groupingBy(
+            final Function<? super T, ? extends K> classifier, final Collector<? super T, A, D> downstream,
+            final Codec<T> codec) {
+        return groupingBy(classifier, Comparator.naturalOrder(), downstream, codec, DEFAULT_BUDGET);
+    }
+
+    /**
+     * Groups the elements by key, in key order. Each group is reduced by the downstream collector while the sorted
+     * runs are merged, so only one group at a time is in memory, and not even that for a reducing downstream
+     * collector such as {@code counting()}.
+     */
+    public static <T, K, A, D> Collector<T, ?, Stream<Map.Entry<K, D>>> groupingBy(
+            final Function<? super T, ? extends K> classifier, final Comparator<? super K> keyOrder,
+            final Collector<? super T, A, D> downstream, final Codec<T> codec, final int budget) {
+        final Comparator<T> byKey = (t1, t2) -> keyOrder.compare(classifier.apply(t1), classifier.apply(t2));
+        final Collector<T, ?, Stream<T>> sorted = externalSorted(byKey, codec, budget);
+        return collectingAndThen(sorted, elements -> groups(elements, classifier, keyOrder, downstream));
+    }
+
+    // like Collectors.collectingAndThen(), without losing the intermediate accumulator type
+    private static <T, A, R, S> Collector<T, A, S> collectingAndThen(final Collector<T, A, R> collector,
+                                                                     final Function<R, S> finisher) {
+        return Collector.of(collector.supplier(), collector.accumulator(), collector.combiner(),
+                            collector.finisher().andThen(finisher));
+    }
+
+    private static <T, K, A, D> Stream<Map.Entry<K, D>> groups(final Stream<T> sorted,
+                                                               final Function<? super T, ? extends K> classifier,
+                                                               final Comparator<? super K> keyOrder,
+                                                               final Collector<? super T, A, D> downstream) {
+        final Iterator<T> elements = sorted.iterator();
+        final Supplier<A> supplier = downstream.supplier();
+        final BiConsumer<A, ? super T> accumulator = downstream.accumulator();
+        final Function<A, D> finisher = downstream.finisher();
+        final Iterator<Map.Entry<K, D>> groups = new Iterator<>() {
+            private T pending = elements.hasNext() ? elements.next() : null;
+            private boolean hasPending = pending != null;
+
+            @Override
+            public boolean hasNext() {
+                return hasPending;
+            }
+
+            @Override
+            public Map.Entry<K, D> next() {
+                if (!hasPending) {
+                    throw new NoSuchElementException();
+                }
+                final K key = classifier.apply(pending);
+                final A container = supplier.get();
+                accumulator.accept(container, pending);
+                hasPending = false;
+                while (elements.hasNext()) {
+                    final T element = elements.next();
+                    if (keyOrder.compare(key, classifier.apply(element)) != 0) {
+                        pending = element;
+                        hasPending = true;
+                        break;
+                    }
+                    accumulator.accept(container, element);
+                }
+                return new AbstractMap.SimpleImmutableEntry<>(key, finisher.apply(container));
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(groups, Spliterator.ORDERED
+                | Spliterator.NONNULL), false).onClose(sorted::close);
+    }
+
+    // a sorted run on disk
+    private static final class Run {
+
+        private final Path path;
+        private final long size;
+        private final int level; // 0 for a spilled buffer, n + 1 for a merge of runs of level n
+
+        private Run(final Path path, final long size, final int level) {
+            this.path = path;
+            this.size = size;
+            this.level = level;
+        }
+    }
+
+    // the runs owned by an accumulator or a stream, deleted when cleaned; must not reference its owner
+    private static final class Runs implements Runnable {
+
+        private final List<Run> list = new ArrayList<>();
+
+        @Override
+        public synchronized void run() {
+            deleteAll(list);
+            list.clear();
+        }
+    }
+
+    // deletes every file, then throws the first failure, if any
+    private static void deleteAll(final List<Run> toDelete) {
+        IOException failure = null;
+        for (final Run run : toDelete) {
+            try {
+                Files.deleteIfExists(run.path);
+            } catch (final IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw new UncheckedIOException(failure);
+        }
+    }
+
+    /**
+     * Accumulator buffering up to {@code budget} elements, then sorting and writing them as a run.
+     */
+    static final class Spiller<T> {
+
+        private final Comparator<? super T> comparator;
+        private final Codec<T> codec;
+        private final int budget;
+        private List<T> buffer = new ArrayList<>();
+        private final Runs owned = new Runs();
+        private final List<Run> runs = owned.list;
+        private final Cleaner.Cleanable cleanable;
+
+        Spiller(final Comparator<? super T> comparator, final Codec<T> codec, final int budget) {
+            this.comparator = comparator;
+            this.codec = codec;
+            this.budget = budget;
+            this.cleanable = CLEANER.register(this, owned);
+        }
+
+        int buffered() {
+            return buffer.size();
+        }
+
+        int runCount() {
+            return runs.size();
+        }
+
+        void accept(final T element) {
+            buffer.add(element);
+            if (buffer.size() >= budget) {
+                spill();
+            }
+        }
+
+        // keeps the elements of this accumulator before those of the other one, for a stable sort
+        Spiller<T> combine(final Spiller<T> other) {
+            try {
+                if (!other.runs.isEmpty()) {
+                    if (!buffer.isEmpty()) {
+                        spill();
+                    }
+                    synchronized (other.owned) {
+                        runs.addAll(other.runs);
+                        other.runs.clear();
+                    }
+                    compact();
+                    mergeDown();
+                }
+                for (final T element : other.buffer) {
+                    accept(element);
+                }
+                return this;
+            } catch (final RuntimeException | Error e) {
+                discard();
+                other.discard();
+                throw e;
+            }
+        }
+
+        private void spill() {
+            try {
+                buffer.sort(comparator);
+                runs.add(write(buffer.iterator(), buffer.size(), 0));
+                buffer = new ArrayList<>();
+                compact();
+            } catch (final RuntimeException | Error e) {
+                discard();
+                throw e;
+            }
+        }
+
+        // after a failure: drops the buffer and deletes the runs, without hiding the failure
+        private void discard() {
+            buffer = new ArrayList<>();
+            try {
+                cleanable.clean();
+            } catch (final UncheckedIOException ignored) {
+                // the original failure matters more
+            }
+        }
+
+        // merges the last MERGE_WIDTH runs while they have the same level: contiguous runs keep the sort stable
+        private void compact() {
+            while (runs.size() >= MERGE_WIDTH) {
+                final int from = runs.size() - MERGE_WIDTH;
+                final int level = runs.get(from).level;
+                for (int i = from + 1; i < runs.size(); i++) {
+                    if (runs.get(i).level != level) {
+                        return;
+                    }
+                }
+                merge(from, runs.size());
+            }
+        }
+
+        // after combines, the levels are mixed and compact() may stop early: merges the smallest window of contiguous
+        // runs, whatever their levels, until at most MERGE_WIDTH runs are left
+        private void mergeDown() {
+            while (runs.size() > MERGE_WIDTH) {
+                final int width = Math.min(MERGE_WIDTH, runs.size() - MERGE_WIDTH + 1);
+                long windowSize = 0L;
+                for (int i = 0; i < width; i++) {
+                    windowSize += runs.get(i).size;
+                }
+                int from = 0;
+                long smallest = windowSize;
+                for (int i = width; i < runs.size(); i++) {
+                    windowSize += runs.get(i).size - runs.get(i - width).size;
+                    if (windowSize < smallest) {
+                        smallest = windowSize;
+                        from = i - width + 1;
+                    }
+                }
+                merge(from, from + width);
+            }
+        }
+
+        // replaces the runs in [from, to) with a single run
+        private void merge(final int from, final int to) {
+            final List<Run> range = runs.subList(from, to);
+            final List<Run> merging = new ArrayList<>(range);
+            long size = 0L;
+            int level = 0;
+            for (final Run run : merging) {
+                size += run.size;
+                level = Math.max(level, run.level);
+            }
+            try (final MergeIterator<T> merged = new MergeIterator<>(comparator, openAll(merging))) {
+                final Run run = write(merged, size, level + 1);
+                range.clear();
+                runs.add(from, run);
+            }
+            deleteAll(merging);
+        }
+
+        // the temp file is deleted if the codec or the disk fails
+        private Run write(final Iterator<? extends T> elements, final long size, final int level) {
+            Path path = null;
+            try {
+                path = Files.createTempFile("external-run-", ".bin");
+                try (final DataOutputStream out = new DataOutputStream(
+                        new BufferedOutputStream(Files.newOutputStream(path), BUFFER_SIZE))) {
+                    while (elements.hasNext()) {
+                        codec.write(out, elements.next());
+                    }
+                }
+                return new Run(path, size, level);
+            } catch (final IOException e) {
+                deleteQuietly(path, e);
+                throw new UncheckedIOException(e);
+            } catch (final RuntimeException | Error e) {
+                deleteQuietly(path, e);
+                throw e;
+            }
+        }
+
+        private static void deleteQuietly(final Path path, final Throwable failure) {
+            if (path != null) {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (final IOException e) {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+
+        // closes the readers already opened if one fails to open
+        private List<RunReader<T>> openAll(final List<Run> toOpen) {
+            final List<RunReader<T>> readers = new ArrayList<>(toOpen.size());
+            try {
+                for (final Run run : toOpen) {
+                    readers.add(new RunReader<>(run, codec));
+                }
+                return readers;
+            } catch (final RuntimeException | Error e) {
+                MergeIterator.closeAll(readers, e);
+                throw e;
+            }
+        }
+
+        // fully in memory when nothing was spilled; the runs then belong to the returned stream
+        Stream<T> sorted() {
+            buffer.sort(comparator);
+            if (runs.isEmpty()) {
+                return buffer.stream();
+            }
+            try {
+                mergeDown();
+            } catch (final RuntimeException | Error e) {
+                discard();
+                throw e;
+            }
+            final Runs merging = new Runs();
+            synchronized (owned) {
+                merging.list.addAll(runs);
+                runs.clear();
+            }
+            final List<Iterator<T>> sources;
+            try {
+                sources = new ArrayList<>(openAll(merging.list));
+            } catch (final RuntimeException | Error e) {
+                merging.run();
+                throw e;
+            }
+            sources.add(buffer.iterator()); // the most recent elements, last among equal ones
+            final MergeIterator<T> merged = new MergeIterator<>(comparator, sources);
+            final Cleaner.Cleanable delete = CLEANER.register(merged, merging);
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merged, Spliterator.ORDERED), false)
+                                .onClose(() -> {
+                                    try {
+                                        merged.close();
+                                    } finally {
+                                        delete.clean();
+                                    }
+                                });
+        }
+    }
+
+    private static final class RunReader<T> implements Iterator<T>, Closeable {
+
+        private final DataInputStream in;
+        private final Codec<T> codec;
+        private long remaining;
+
+        private RunReader(final Run run, final Codec<T> codec) {
+            try {
+                this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run.path), BUFFER_SIZE));
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            this.codec = codec;
+            this.remaining = run.size;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0L;
+        }
+
+        @Override
+        public T next() {
+            if (remaining <= 0L) {
+                throw new NoSuchElementException();
+            }
+            remaining--;
+            try {
+                return codec.read(in);
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                in.close();
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    // k-way merge on a heap of sources, ties going to the earliest source
+    private static final class MergeIterator<T> implements Iterator<T>, Closeable {
+
+        private final List<? extends Iterator<T>> sources;
+        private final PriorityQueue<Head<T>> heads;
+
+        private MergeIterator(final Comparator<? super T> comparator, final List<? extends Iterator<T>> sources) {
+            this.sources = sources;
+            this.heads = new PriorityQueue<>(Math.max(1, sources.size()), (h1, h2) -> {
+                final int cmp = comparator.compare(h1.element, h2.element);
+                return cmp != 0 ? cmp : Integer.compare(h1.source, h2.source);
+            });
+            for (int i = 0; i < sources.size(); i++) {
+                if (sources.get(i).hasNext()) {
+                    heads.add(new Head<>(sources.get(i).next(), i));
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heads.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            final Head<T> head = heads.poll();
+            if (head == null) {
+                throw new NoSuchElementException();
+            }
+            final T element = head.element;
+            final Iterator<T> source = sources.get(head.source);
+            if (source.hasNext()) {
+                head.element = source.next();
+                heads.add(head);
+            }
+            return element;
+        }
+
+        @Override
+        public void close() {
+            final UncheckedIOException failure = new UncheckedIOException(new IOException("Cannot close the runs"));
+            closeAll(sources, failure);
+            if (failure.getSuppressed().length > 0) {
+                throw failure;
+            }
+        }
+
+        // closes every source, adding the failures to the given exception
+        private static void closeAll(final List<? extends Iterator<?>> toClose, final Throwable failure) {
+            for (final Iterator<?> source : toClose) {
+                if (source instanceof Closeable) {
+                    try {
+                        ((Closeable) source).close();
+                    } catch (final IOException | RuntimeException e) {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void forEachRemaining(final Consumer<? super T> action) {
+            while (hasNext()) {
+                action.accept(next());
+            }
+        }
+    }
+
+    private static final class Head<T> {
+
+        private T element;
+        private final int source;
+
+        private Head(final T element, final int source) {
+            this.element = element;
+            this.source = source;
+        }
+    }
+
+}
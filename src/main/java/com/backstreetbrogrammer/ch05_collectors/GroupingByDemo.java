@@ -1,20 +1,29 @@
 package com.backstreetbrogrammer.ch05_collectors;
 
+import com.backstreetbrogrammer.model.MappedStudentReader;
+import com.backstreetbrogrammer.model.StudentRecords;
 import com.backstreetbrogrammer.model.StudentWithCourse;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class GroupingByDemo {
 
     public static void main(String[] args) {
-        final var john = new StudentWithCourse("John", 18, "Python");
-        final var mary = new StudentWithCourse("Mary", 16, "Java");
-        final var thomas = new StudentWithCourse("Thomas", 21, "Java");
-        final var rahul = new StudentWithCourse("Rahul", 23, "JavaScript");
-        final var jenny = new StudentWithCourse("Jenny", 17, "Python");
-        final var tatiana = new StudentWithCourse("Tatiana", 25, "Java");
+        // one String per course name for this batch of students
+        final var courses = new StudentWithCourse.CoursePool();
+        final var john = courses.student("John", 18, "Python");
+        final var mary = courses.student("Mary", 16, "Java");
+        final var thomas = courses.student("Thomas", 21, "Java");
+        final var rahul = courses.student("Rahul", 23, "JavaScript");
+        final var jenny = courses.student("Jenny", 17, "Python");
+        final var tatiana = courses.student("Tatiana", 25, "Java");
 
         final List<StudentWithCourse> students = List.of(john, mary, thomas, rahul, jenny, tatiana);
 
@@ -42,6 +51,63 @@ public class GroupingByDemo {
                                                                                     " %d%n",
                                                                             course,
                                                                             cnt));
+
+        // Striped: every worker thread counts into its own primitive table, merged once at the end
+        final Map<String, Long> stripedCountOfStudentsPerCourse =
+                students.parallelStream()
+                        .collect(StripedCollectors.counting(StudentWithCourse::getCourse));
+
+        stripedCountOfStudentsPerCourse.forEach((course, cnt) -> System.out.printf("Course: %s, Number of Students " +
+                                                                                           "Enrolled (striped): %d%n",
+                                                                                   course,
+                                                                                   cnt));
+
+        // courses are canonical instances when created by the same pool: String.equals() returns at its == check
+        final Map<String, Long> pooledCountOfStudentsPerCourse =
+                students.stream()
+                        .collect(Collectors.groupingBy(StudentWithCourse::getCourse, Collectors.counting()));
+        System.out.printf("Students per course (pooled, %d courses) = %s%n", courses.size(),
+                          pooledCountOfStudentsPerCourse);
+
+        // kept up to date on every insert and delete, instead of being recomputed
+        final IncrementalView<StudentWithCourse> view = new IncrementalView<>();
+        final IncrementalView.Grouping<String> agePerCourse =
+                view.groupingBy(StudentWithCourse::getCourse, StudentWithCourse::getAge);
+        view.insertAll(students);
+        view.delete(tatiana);
+        view.insert(courses.student("Peter", 19, "Java"));
+        System.out.printf("Java students after changes: %s%n", agePerCourse.get("Java"));
+
+        // sorted runs spilled to disk beyond the budget (2 students here), merged back lazily in course order
+        try (final Stream<Map.Entry<String, Long>> externalCountOfStudentsPerCourse =
+                     students.stream()
+                             .collect(ExternalCollectors.groupingBy(StudentWithCourse::getCourse,
+                                                                    Comparator.naturalOrder(),
+                                                                    Collectors.counting(),
+                                                                    ExternalCollectors.Codec.studentsWithCourse(),
+                                                                    2))) {
+            System.out.printf("Students per course (external) = %s%n",
+                              externalCountOfStudentsPerCourse.collect(Collectors.toList()));
+        }
+
+        // the same grouping over a binary student file, memory-mapped instead of parsed
+        try {
+            final Path file = Files.createTempFile("students", ".bin");
+            try {
+                StudentRecords.writeWithCourse(file, students);
+                final MappedStudentReader reader = MappedStudentReader.open(file);
+                final Map<String, Long> mappedCountOfStudentsPerCourse =
+                        reader.studentsWithCourse()
+                              .collect(Collectors.groupingBy(StudentWithCourse::getCourse, Collectors.counting()));
+                System.out.printf("Students per course (mapped file) = %s, average age = %.2f%n",
+                                  mappedCountOfStudentsPerCourse,
+                                  reader.ages().average().orElse(0D));
+            } finally {
+                Files.delete(file);
+            }
+        } catch (final IOException e) {
+            e.printStackTrace();
+        }
     }
 
 }
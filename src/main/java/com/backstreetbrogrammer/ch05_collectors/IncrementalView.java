@@ -0,0 +1,414 @@
+package com.backstreetbrogrammer.ch05_collectors;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IntSummaryStatistics;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * Materialized {@code groupingBy(classifier, summarizingInt(mapper))} and {@code partitioningBy(predicate,
+ * summarizingInt(mapper))} results, kept up to date as elements are inserted and deleted instead of being recomputed.
+ * <p>
+ * Groupings are registered up front and return a typed handle, which reads the count, sum, min, max and average of a
+ * group as an {@link IntSummaryStatistics}:
+ * <pre>
+ *     final IncrementalView&lt;StudentWithCourse&gt; view = new IncrementalView&lt;&gt;();
+ *     final IncrementalView.Grouping&lt;String&gt; agePerCourse =
+ *             view.groupingBy(StudentWithCourse::getCourse, StudentWithCourse::getAge);
+ *
+ *     view.insert(student);
+ *     agePerCourse.get("Java").getAverage();
+ *     view.delete(student);
+ * </pre>
+ * An event updates count and sum in O(1). Min and max survive deletes thanks to a multiset of the distinct values of
+ * each group, indexed by a min-heap and a max-heap: an event costs O(1) when the value is already in its group and
+ * O(log d) when a distinct value appears or disappears, d being the number of distinct values in the group.
+ * <p>
+ * Writers are serialized. Readers never lock: every event publishes an immutable summary of the groups it touched, so
+ * a group is always read consistently, and {@link Grouping#snapshot()} reads each group once. A deleted element must
+ * have been inserted, with the same key and value.
+ */
+public final class IncrementalView<T> {
+
+    private final List<Grouping<?>> groupings = new ArrayList<>();
+    private final Object lock = new Object();
+    private boolean started;
+
+    public <K> Grouping<K> groupingBy(final Function<? super T, ? extends K> classifier,
+                                      final ToIntFunction<? super T> mapper) {
+        return register(new Grouping<>(classifier, mapper, false));
+    }
+
+    // like Collectors.partitioningBy(), both partitions are always present
+    public Grouping<Boolean> partitioningBy(final Predicate<? super T> predicate,
+                                            final ToIntFunction<? super T> mapper) {
+        return register(new Grouping<>(predicate::test, mapper, true));
+    }
+
+    private <K> Grouping<K> register(final Grouping<K> grouping) {
+        synchronized (lock) {
+            if (started) {
+                throw new IllegalStateException("Groupings must be registered before the first event");
+            }
+            groupings.add(grouping);
+            return grouping;
+        }
+    }
+
+    public void insert(final T element) {
+        synchronized (lock) {
+            started = true;
+            for (final Grouping<?> grouping : groupings) {
+                grouping.insert(element);
+            }
+        }
+    }
+
+    public void insertAll(final Iterable<? extends T> elements) {
+        synchronized (lock) {
+            for (final T element : elements) {
+                insert(element);
+            }
+        }
+    }
+
+    // nothing is updated when the element is not in the view
+    public void delete(final T element) {
+        synchronized (lock) {
+            started = true;
+            for (final Grouping<?> grouping : groupings) {
+                if (!grouping.contains(element)) {
+                    throw new IllegalArgumentException("Not in the view: " + element);
+                }
+            }
+            for (final Grouping<?> grouping : groupings) {
+                grouping.delete(element);
+            }
+        }
+    }
+
+    public static final class Grouping<K> {
+
+        private static final Summary EMPTY = new Summary(0L, 0L, 0, 0);
+
+        private final Function<Object, ? extends K> classifier;
+        private final ToIntFunction<Object> mapper;
+        private final boolean partition;
+        private final ConcurrentHashMap<K, Group> groups = new ConcurrentHashMap<>();
+
+        @SuppressWarnings("unchecked")
+        private <T> Grouping(final Function<? super T, ? extends K> classifier, final ToIntFunction<? super T> mapper,
+                             final boolean partition) {
+            this.classifier = (Function<Object, ? extends K>) classifier;
+            this.mapper = (ToIntFunction<Object>) mapper;
+            this.partition = partition;
+        }
+
+        // an empty summary if there is no such group
+        public IntSummaryStatistics get(final K key) {
+            final Group group = groups.get(key);
+            return (group == null ? EMPTY : group.summary).toStatistics();
+        }
+
+        // the groups currently in the view, each of them consistent with itself
+        @SuppressWarnings("unchecked")
+        public Map<K, IntSummaryStatistics> snapshot() {
+            final Map<K, IntSummaryStatistics> snapshot = new HashMap<>();
+            if (partition) { // K is Boolean
+                snapshot.put((K) Boolean.FALSE, EMPTY.toStatistics());
+                snapshot.put((K) Boolean.TRUE, EMPTY.toStatistics());
+            }
+            groups.forEach((key, group) -> snapshot.put(key, group.summary.toStatistics()));
+            return snapshot;
+        }
+
+        private K keyOf(final Object element) {
+            final K key = classifier.apply(element);
+            if (key == null) {
+                throw new NullPointerException("element cannot be mapped to a null key");
+            }
+            return key;
+        }
+
+        private boolean contains(final Object element) {
+            final Group group = groups.get(keyOf(element));
+            return group != null && group.values.contains(mapper.applyAsInt(element));
+        }
+
+        private void insert(final Object element) {
+            final K key = keyOf(element);
+            final int value = mapper.applyAsInt(element);
+            groups.computeIfAbsent(key, k -> new Group()).add(value);
+        }
+
+        private void delete(final Object element) {
+            final K key = keyOf(element);
+            final Group group = groups.get(key);
+            group.remove(mapper.applyAsInt(element));
+            if (group.count == 0L) {
+                groups.remove(key);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "Grouping{" +
+                    "groups=" + groups.size() +
+                    ", partition=" + partition +
+                    '}';
+        }
+    }
+
+    private static final class Summary {
+
+        private final long count;
+        private final long sum;
+        private final int min;
+        private final int max;
+
+        private Summary(final long count, final long sum, final int min, final int max) {
+            this.count = count;
+            this.sum = sum;
+            this.min = min;
+            this.max = max;
+        }
+
+        private IntSummaryStatistics toStatistics() {
+            return count == 0L ? new IntSummaryStatistics() : new IntSummaryStatistics(count, min, max, sum);
+        }
+    }
+
+    // written under the lock of the view, read through the volatile summary only
+    private static final class Group {
+
+        private long count;
+        private long sum;
+        private final IntMultiset values = new IntMultiset();
+        private volatile Summary summary = Grouping.EMPTY;
+
+        private void add(final int value) {
+            count++;
+            sum += value;
+            values.add(value);
+            publish();
+        }
+
+        private void remove(final int value) {
+            count--;
+            sum -= value;
+            values.remove(value);
+            publish();
+        }
+
+        private void publish() {
+            summary = count == 0L ? Grouping.EMPTY : new Summary(count, sum, values.min(), values.max());
+        }
+    }
+
+    /**
+     * Multiset of ints: an open-addressing table from each distinct value to a dense slot, which holds its count and
+     * its positions in a min-heap and a max-heap of the slots.
+     */
+    static final class IntMultiset {
+
+        private int[] tableKeys = new int[16];
+        private int[] tableSlots = new int[16]; // slot + 1, 0 for an empty bucket
+        private int[] values = new int[8];
+        private long[] counts = new long[8];
+        private int[] minHeap = new int[8];
+        private int[] maxHeap = new int[8];
+        private int[] minPositions = new int[8];
+        private int[] maxPositions = new int[8];
+        private int distinct;
+
+        private static int mix(final int value) {
+            final int h = value * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+
+        boolean contains(final int value) {
+            return bucketOf(value) >= 0;
+        }
+
+        int min() {
+            return values[minHeap[0]];
+        }
+
+        int max() {
+            return values[maxHeap[0]];
+        }
+
+        void add(final int value) {
+            final int bucket = bucketOf(value);
+            if (bucket >= 0) {
+                counts[tableSlots[bucket] - 1]++;
+                return;
+            }
+            if (distinct == values.length) {
+                final int capacity = distinct * 2;
+                values = Arrays.copyOf(values, capacity);
+                counts = Arrays.copyOf(counts, capacity);
+                minHeap = Arrays.copyOf(minHeap, capacity);
+                maxHeap = Arrays.copyOf(maxHeap, capacity);
+                minPositions = Arrays.copyOf(minPositions, capacity);
+                maxPositions = Arrays.copyOf(maxPositions, capacity);
+            }
+            final int slot = distinct++;
+            values[slot] = value;
+            counts[slot] = 1L;
+            putInTable(value, slot);
+            minHeap[slot] = slot;
+            minPositions[slot] = slot;
+            siftUp(minHeap, minPositions, slot, false);
+            maxHeap[slot] = slot;
+            maxPositions[slot] = slot;
+            siftUp(maxHeap, maxPositions, slot, true);
+        }
+
+        // the value must be in the multiset
+        void remove(final int value) {
+            final int bucket = bucketOf(value);
+            if (bucket < 0) {
+                throw new IllegalArgumentException("Not in the multiset: " + value);
+            }
+            final int slot = tableSlots[bucket] - 1;
+            if (--counts[slot] > 0L) {
+                return;
+            }
+            removeFromTable(bucket);
+            removeAt(minHeap, minPositions, minPositions[slot], false);
+            removeAt(maxHeap, maxPositions, maxPositions[slot], true);
+
+            // keeps the slots dense: the last slot moves into the freed one
+            final int last = --distinct;
+            if (slot != last) {
+                values[slot] = values[last];
+                counts[slot] = counts[last];
+                minPositions[slot] = minPositions[last];
+                maxPositions[slot] = maxPositions[last];
+                minHeap[minPositions[slot]] = slot;
+                maxHeap[maxPositions[slot]] = slot;
+                tableSlots[bucketOf(values[slot])] = slot + 1;
+            }
+        }
+
+        private int bucketOf(final int value) {
+            final int mask = tableKeys.length - 1;
+            int bucket = mix(value) & mask;
+            while (tableSlots[bucket] != 0) {
+                if (tableKeys[bucket] == value) {
+                    return bucket;
+                }
+                bucket = (bucket + 1) & mask;
+            }
+            return -1;
+        }
+
+        private void putInTable(final int value, final int slot) {
+            if ((distinct + 1) * 2 > tableKeys.length) {
+                final int[] oldKeys = tableKeys;
+                final int[] oldSlots = tableSlots;
+                tableKeys = new int[oldKeys.length * 2];
+                tableSlots = new int[oldKeys.length * 2];
+                for (int bucket = 0; bucket < oldKeys.length; bucket++) {
+                    if (oldSlots[bucket] != 0) {
+                        insertInTable(oldKeys[bucket], oldSlots[bucket]);
+                    }
+                }
+            }
+            insertInTable(value, slot + 1);
+        }
+
+        private void insertInTable(final int value, final int slotPlusOne) {
+            final int mask = tableKeys.length - 1;
+            int bucket = mix(value) & mask;
+            while (tableSlots[bucket] != 0) {
+                bucket = (bucket + 1) & mask;
+            }
+            tableKeys[bucket] = value;
+            tableSlots[bucket] = slotPlusOne;
+        }
+
+        // backward-shift deletion: no tombstones, probe sequences stay short
+        private void removeFromTable(int bucket) {
+            final int mask = tableKeys.length - 1;
+            int next = (bucket + 1) & mask;
+            while (tableSlots[next] != 0) {
+                final int home = mix(tableKeys[next]) & mask;
+                // the entry at 'next' may fill the hole unless its home lies cyclically in (bucket, next]
+                final boolean stays = bucket <= next
+                        ? bucket < home && home <= next
+                        : bucket < home || home <= next;
+                if (!stays) {
+                    tableKeys[bucket] = tableKeys[next];
+                    tableSlots[bucket] = tableSlots[next];
+                    bucket = next;
+                }
+                next = (next + 1) & mask;
+            }
+            tableSlots[bucket] = 0;
+        }
+
+        private boolean before(final int slot1, final int slot2, final boolean max) {
+            return max ? values[slot1] > values[slot2] : values[slot1] < values[slot2];
+        }
+
+        // the heaps hold 'distinct' slots before the removal
+        private void removeAt(final int[] heap, final int[] positions, final int position, final boolean max) {
+            final int last = distinct - 1;
+            if (position != last) {
+                final int moved = heap[last];
+                heap[position] = moved;
+                positions[moved] = position;
+                siftDown(heap, positions, position, last, max);
+                if (positions[moved] == position) {
+                    siftUp(heap, positions, position, max);
+                }
+            }
+        }
+
+        private void siftUp(final int[] heap, final int[] positions, int position, final boolean max) {
+            final int slot = heap[position];
+            while (position > 0) {
+                final int parent = (position - 1) >>> 1;
+                if (!before(slot, heap[parent], max)) {
+                    break;
+                }
+                heap[position] = heap[parent];
+                positions[heap[position]] = position;
+                position = parent;
+            }
+            heap[position] = slot;
+            positions[slot] = position;
+        }
+
+        private void siftDown(final int[] heap, final int[] positions, int position, final int size,
+                              final boolean max) {
+            final int slot = heap[position];
+            while (true) {
+                int child = 2 * position + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && before(heap[child + 1], heap[child], max)) {
+                    child++;
+                }
+                if (!before(heap[child], slot, max)) {
+                    break;
+                }
+                heap[position] = heap[child];
+                positions[heap[position]] = position;
+                position = child;
+            }
+            heap[position] = slot;
+            positions[slot] = position;
+        }
+    }
+
+}
@@ -0,0 +1,260 @@
+package com.backstreetbrogrammer.ch05_collectors;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongBinaryOperator;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+
+/**
+ * Contention-free alternatives to {@code Collectors.groupingBy(classifier, counting())} and friends for parallel
+ * streams.
+ * <p>
+ * Each collector is {@code CONCURRENT} and {@code UNORDERED}: the stream feeds a single container, in which every
+ * worker thread owns its own open-addressing table of primitive {@code long} values. Nothing is shared while
+ * accumulating, and the per-thread tables are merged once, in the finisher. Like the JDK collectors, a {@code null}
+ * key is rejected.
+ */
+public final class StripedCollectors {
+
+    private static final LongBinaryOperator SUM = Long::sum;
+    private static final LongBinaryOperator MIN = Math::min;
+    private static final LongBinaryOperator MAX = Math::max;
+
+    private StripedCollectors() {
+    }
+
+    public static <T, K> Collector<T, ?, Map<K, Long>> counting(final Function<? super T, ? extends K> classifier) {
+        return groupingBy(classifier, element -> 1L, SUM);
+    }
+
+    public static <T, K> Collector<T, ?, Map<K, Long>> summingInt(final Function<? super T, ? extends K> classifier,
+                                                                  final ToIntFunction<? super T> mapper) {
+        return groupingBy(classifier, mapper::applyAsInt, SUM);
+    }
+
+    public static <T, K> Collector<T, ?, Map<K, Long>> minInt(final Function<? super T, ? extends K> classifier,
+                                                              final ToIntFunction<? super T> mapper) {
+        return groupingBy(classifier, mapper::applyAsInt, MIN);
+    }
+
+    public static <T, K> Collector<T, ?, Map<K, Long>> maxInt(final Function<? super T, ? extends K> classifier,
+                                                              final ToIntFunction<? super T> mapper) {
+        return groupingBy(classifier, mapper::applyAsInt, MAX);
+    }
+
+    // groups by a primitive int key (e.g. age) without boxing it until the final map is built
+    public static <T> Collector<T, ?, Map<Integer, Long>> countingByInt(final ToIntFunction<? super T> classifier) {
+        return Collector.of(() -> new Stripes<>(IntLongTable::new),
+                            (stripes, element) -> stripes.local().merge(classifier.applyAsInt(element), 1L, SUM),
+                            Stripes::combine,
+                            stripes -> {
+                                final IntLongTable merged = new IntLongTable();
+                                stripes.drain(table -> table.mergeInto(merged, SUM));
+                                return merged.toMap();
+                            },
+                            Collector.Characteristics.CONCURRENT,
+                            Collector.Characteristics.UNORDERED);
+    }
+
+    private static <T, K> Collector<T, ?, Map<K, Long>> groupingBy(final Function<? super T, ? extends K> classifier,
+                                                                  final ToLongFunction<? super T> mapper,
+                                                                  final LongBinaryOperator op) {
+        return Collector.of(() -> new Stripes<ObjLongTable<K>>(ObjLongTable::new),
+                            (stripes, element) -> stripes.local().merge(
+                                    Objects.requireNonNull(classifier.apply(element),
+                                                           "element cannot be mapped to a null key"),
+                                    mapper.applyAsLong(element), op),
+                            Stripes::combine,
+                            stripes -> {
+                                final ObjLongTable<K> merged = new ObjLongTable<>();
+                                stripes.drain(table -> table.mergeInto(merged, op));
+                                return merged.toMap();
+                            },
+                            Collector.Characteristics.CONCURRENT,
+                            Collector.Characteristics.UNORDERED);
+    }
+
+    // one table per worker thread, registered on first use so that the finisher can merge them all
+    private static final class Stripes<S> {
+
+        private final Queue<S> tables = new ConcurrentLinkedQueue<>();
+        private final ThreadLocal<S> local;
+
+        private Stripes(final Supplier<S> factory) {
+            local = ThreadLocal.withInitial(() -> {
+                final S table = factory.get();
+                tables.add(table);
+                return table;
+            });
+        }
+
+        private S local() {
+            return local.get();
+        }
+
+        private Stripes<S> combine(final Stripes<S> other) {
+            tables.addAll(other.tables);
+            return this;
+        }
+
+        // worker threads keep a reference to their table until the ThreadLocal entry is expunged, hence the tables
+        // are drained as they are merged
+        private void drain(final Consumer<S> action) {
+            S table;
+            while ((table = tables.poll()) != null) {
+                action.accept(table);
+            }
+        }
+    }
+
+    private static int mix(final int hash) {
+        final int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    // open addressing with linear probing, kept at most half full
+    private static final class ObjLongTable<K> {
+
+        private Object[] keys = new Object[16];
+        private long[] values = new long[16];
+        private int size;
+
+        private void merge(final K key, final long value, final LongBinaryOperator op) {
+            final int mask = keys.length - 1;
+            int slot = mix(key.hashCode()) & mask;
+            Object current;
+            while ((current = keys[slot]) != null) {
+                if (current.equals(key)) {
+                    values[slot] = op.applyAsLong(values[slot], value);
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+            if (++size * 2 > keys.length) {
+                resize();
+            }
+        }
+
+        // moves every entry into the target and empties this table
+        @SuppressWarnings("unchecked")
+        private void mergeInto(final ObjLongTable<K> target, final LongBinaryOperator op) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != null) {
+                    target.merge((K) keys[i], values[i], op);
+                }
+            }
+            keys = new Object[16];
+            values = new long[16];
+            size = 0;
+        }
+
+        @SuppressWarnings("unchecked")
+        private Map<K, Long> toMap() {
+            final Map<K, Long> map = new HashMap<>(size * 2);
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != null) {
+                    map.put((K) keys[i], values[i]);
+                }
+            }
+            return map;
+        }
+
+        private void resize() {
+            final Object[] oldKeys = keys;
+            final long[] oldValues = values;
+            keys = new Object[oldKeys.length * 2];
+            values = new long[oldKeys.length * 2];
+            final int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != null) {
+                    int slot = mix(oldKeys[i].hashCode()) & mask;
+                    while (keys[slot] != null) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+    }
+
+    private static final class IntLongTable {
+
+        private int[] keys = new int[16];
+        private long[] values = new long[16];
+        private boolean[] used = new boolean[16];
+        private int size;
+
+        private void merge(final int key, final long value, final LongBinaryOperator op) {
+            final int mask = keys.length - 1;
+            int slot = mix(key) & mask;
+            while (used[slot]) {
+                if (keys[slot] == key) {
+                    values[slot] = op.applyAsLong(values[slot], value);
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            used[slot] = true;
+            keys[slot] = key;
+            values[slot] = value;
+            if (++size * 2 > keys.length) {
+                resize();
+            }
+        }
+
+        private void mergeInto(final IntLongTable target, final LongBinaryOperator op) {
+            for (int i = 0; i < keys.length; i++) {
+                if (used[i]) {
+                    target.merge(keys[i], values[i], op);
+                }
+            }
+            keys = new int[16];
+            values = new long[16];
+            used = new boolean[16];
+            size = 0;
+        }
+
+        private Map<Integer, Long> toMap() {
+            final Map<Integer, Long> map = new HashMap<>(size * 2);
+            for (int i = 0; i < keys.length; i++) {
+                if (used[i]) {
+                    map.put(keys[i], values[i]);
+                }
+            }
+            return map;
+        }
+
+        private void resize() {
+            final int[] oldKeys = keys;
+            final long[] oldValues = values;
+            final boolean[] oldUsed = used;
+            keys = new int[oldKeys.length * 2];
+            values = new long[oldKeys.length * 2];
+            used = new boolean[oldKeys.length * 2];
+            final int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldUsed[i]) {
+                    int slot = mix(oldKeys[i]) & mask;
+                    while (used[slot]) {
+                        slot = (slot + 1) & mask;
+                    }
+                    used[slot] = true;
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+    }
+
+}
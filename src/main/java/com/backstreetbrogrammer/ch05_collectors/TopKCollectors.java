@@ -0,0 +1,249 @@
+package com.backstreetbrogrammer.ch05_collectors;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collector;
+
+/**
+ * Collectors selecting the {@code k} greatest (or smallest) elements with a bounded heap: O(n log k) time and O(k)
+ * memory, instead of sorting the whole stream. Each parallel leaf keeps its own heap and the heaps are merged. Like
+ * an {@code ArrayList}, a heap starts small and grows up to {@code k}, so that a large {@code k} costs nothing to the
+ * many leaves of a parallel stream that only see a few elements.
+ * <p>
+ * The result lists are sorted, greatest first for {@code topK} and smallest first for {@code bottomK}. Among equal
+ * elements competing for the last places, which ones are kept is unspecified.
+ */
+public final class TopKCollectors {
+
+    private TopKCollectors() {
+    }
+
+    public static <T> Collector<T, ?, List<T>> topK(final int k, final Comparator<? super T> comparator) {
+        checkK(k);
+        return Collector.of(() -> new BoundedHeap<T>(k, comparator),
+                            BoundedHeap::offer,
+                            BoundedHeap::merge,
+                            BoundedHeap::toSortedList);
+    }
+
+    public static <T> Collector<T, ?, List<T>> bottomK(final int k, final Comparator<? super T> comparator) {
+        return topK(k, comparator.reversed());
+    }
+
+    // compares primitive int keys, with no Comparator call and no boxing per element
+    public static <T> Collector<T, ?, List<T>> topKByInt(final int k, final ToIntFunction<? super T> keyExtractor) {
+        checkK(k);
+        return Collector.of(() -> new BoundedIntKeyHeap<T>(k, keyExtractor, false),
+                            BoundedIntKeyHeap::offer,
+                            BoundedIntKeyHeap::merge,
+                            BoundedIntKeyHeap::toSortedList);
+    }
+
+    public static <T> Collector<T, ?, List<T>> bottomKByInt(final int k, final ToIntFunction<? super T> keyExtractor) {
+        checkK(k);
+        return Collector.of(() -> new BoundedIntKeyHeap<T>(k, keyExtractor, true),
+                            BoundedIntKeyHeap::offer,
+                            BoundedIntKeyHeap::merge,
+                            BoundedIntKeyHeap::toSortedList);
+    }
+
+    private static final int INITIAL_CAPACITY = 10;
+
+    private static void checkK(final int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative: " + k);
+        }
+    }
+
+    // grows by half, like ArrayList, never beyond k
+    private static int grow(final int capacity, final int k) {
+        return (int) Math.min(k, capacity + (capacity >> 1) + 1L);
+    }
+
+    // min-heap of the k greatest elements seen so far: the root is the one to evict next
+    private static final class BoundedHeap<T> {
+
+        private final int k;
+        private final Comparator<? super T> comparator;
+        private Object[] heap;
+        private int size;
+
+        private BoundedHeap(final int k, final Comparator<? super T> comparator) {
+            this.k = k;
+            this.comparator = comparator;
+            heap = new Object[Math.min(k, INITIAL_CAPACITY)];
+        }
+
+        private void offer(final T element) {
+            if (size < k) {
+                if (size == heap.length) {
+                    heap = Arrays.copyOf(heap, grow(heap.length, k));
+                }
+                heap[size] = element;
+                siftUp(size++);
+            } else if (k > 0 && comparator.compare(element, element(0)) > 0) {
+                heap[0] = element;
+                siftDown(0);
+            }
+        }
+
+        private BoundedHeap<T> merge(final BoundedHeap<T> other) {
+            for (int i = 0; i < other.size; i++) {
+                offer(other.element(i));
+            }
+            return this;
+        }
+
+        @SuppressWarnings("unchecked")
+        private List<T> toSortedList() {
+            final T[] sorted = (T[]) Arrays.copyOf(heap, size);
+            Arrays.sort(sorted, comparator.reversed());
+            return new ArrayList<>(Arrays.asList(sorted));
+        }
+
+        @SuppressWarnings("unchecked")
+        private T element(final int i) {
+            return (T) heap[i];
+        }
+
+        private void siftUp(int i) {
+            final T element = element(i);
+            while (i > 0) {
+                final int parent = (i - 1) >>> 1;
+                if (comparator.compare(element, element(parent)) >= 0) {
+                    break;
+                }
+                heap[i] = heap[parent];
+                i = parent;
+            }
+            heap[i] = element;
+        }
+
+        private void siftDown(int i) {
+            final T element = element(i);
+            final int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && comparator.compare(element(child + 1), element(child)) < 0) {
+                    child++;
+                }
+                if (comparator.compare(element, element(child)) <= 0) {
+                    break;
+                }
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = element;
+        }
+    }
+
+    // same as BoundedHeap, with the int keys kept in a parallel array; a max-heap when selecting the bottom k
+    private static final class BoundedIntKeyHeap<T> {
+
+        private final int k;
+        private final ToIntFunction<? super T> keyExtractor;
+        private final boolean bottom;
+        private int[] keys;
+        private Object[] elements;
+        private int size;
+
+        private BoundedIntKeyHeap(final int k, final ToIntFunction<? super T> keyExtractor, final boolean bottom) {
+            this.k = k;
+            this.keyExtractor = keyExtractor;
+            this.bottom = bottom;
+            keys = new int[Math.min(k, INITIAL_CAPACITY)];
+            elements = new Object[keys.length];
+        }
+
+        private void offer(final T element) {
+            offer(keyExtractor.applyAsInt(element), element);
+        }
+
+        private void offer(final int key, final Object element) {
+            if (size < k) {
+                if (size == keys.length) {
+                    keys = Arrays.copyOf(keys, grow(keys.length, k));
+                    elements = Arrays.copyOf(elements, keys.length);
+                }
+                keys[size] = key;
+                elements[size] = element;
+                siftUp(size++);
+            } else if (k > 0 && before(keys[0], key)) {
+                keys[0] = key;
+                elements[0] = element;
+                siftDown(0);
+            }
+        }
+
+        // true if a should be evicted before b
+        private boolean before(final int a, final int b) {
+            return bottom ? a > b : a < b;
+        }
+
+        private BoundedIntKeyHeap<T> merge(final BoundedIntKeyHeap<T> other) {
+            for (int i = 0; i < other.size; i++) {
+                offer(other.keys[i], other.elements[i]);
+            }
+            return this;
+        }
+
+        @SuppressWarnings("unchecked")
+        private List<T> toSortedList() {
+            // pops the root (the worst of the k) into the last free slot, leaving the best first
+            final Object[] sorted = new Object[size];
+            for (int last = size - 1; last >= 0; last--) {
+                sorted[last] = elements[0];
+                size--;
+                keys[0] = keys[size];
+                elements[0] = elements[size];
+                elements[size] = null;
+                siftDown(0);
+            }
+            final List<T> list = new ArrayList<>(sorted.length);
+            for (final Object element : sorted) {
+                list.add((T) element);
+            }
+            return list;
+        }
+
+        private void siftUp(int i) {
+            final int key = keys[i];
+            final Object element = elements[i];
+            while (i > 0) {
+                final int parent = (i - 1) >>> 1;
+                if (!before(key, keys[parent])) {
+                    break;
+                }
+                keys[i] = keys[parent];
+                elements[i] = elements[parent];
+                i = parent;
+            }
+            keys[i] = key;
+            elements[i] = element;
+        }
+
+        private void siftDown(int i) {
+            final int key = keys[i];
+            final Object element = elements[i];
+            final int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && before(keys[child + 1], keys[child])) {
+                    child++;
+                }
+                if (!before(keys[child], key)) {
+                    break;
+                }
+                keys[i] = keys[child];
+                elements[i] = elements[child];
+                i = child;
+            }
+            keys[i] = key;
+            elements[i] = element;
+        }
+    }
+
+}
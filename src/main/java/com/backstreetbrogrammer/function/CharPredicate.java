@@ -0,0 +1,39 @@
+package com.backstreetbrogrammer.function;
+
+import java.util.Objects;
+import java.util.function.IntPredicate;
+
+/**
+ * A predicate on a {@code char}, e.g. to test the characters of a {@code String} by index with no boxing.
+ */
+@FunctionalInterface
+public interface CharPredicate {
+
+    boolean test(char value);
+
+    default CharPredicate and(final CharPredicate other) {
+        Objects.requireNonNull(other);
+        return value -> test(value) && other.test(value);
+    }
+
+    default CharPredicate or(final CharPredicate other) {
+        Objects.requireNonNull(other);
+        return value -> test(value) || other.test(value);
+    }
+
+    default CharPredicate negate() {
+        return value -> !test(value);
+    }
+
+    // for String.chars(), whose elements are chars widened to ints
+    default IntPredicate asIntPredicate() {
+        return value -> test((char) value);
+    }
+
+    // matches any of the given characters
+    static CharPredicate anyOf(final String chars) {
+        Objects.requireNonNull(chars);
+        return value -> chars.indexOf(value) >= 0;
+    }
+
+}
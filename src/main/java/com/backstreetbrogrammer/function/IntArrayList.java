@@ -0,0 +1,193 @@
+package com.backstreetbrogrammer.function;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * A growable array of {@code int} values, the primitive counterpart of {@code ArrayList<Integer>}: 4 bytes per
+ * element instead of a reference and an {@code Integer} object. Not thread-safe; parallel streams collect into one
+ * list per thread and concatenate them with {@link #addAll(IntArrayList)}.
+ */
+public final class IntArrayList {
+
+    private static final int[] EMPTY = {};
+
+    private int[] elements;
+    private int size;
+
+    public IntArrayList() {
+        this.elements = EMPTY;
+    }
+
+    public IntArrayList(final int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("initialCapacity must not be negative: " + initialCapacity);
+        }
+        this.elements = initialCapacity == 0 ? EMPTY : new int[initialCapacity];
+    }
+
+    public static IntArrayList of(final int... values) {
+        final var list = new IntArrayList(values.length);
+        list.addAll(values);
+        return list;
+    }
+
+    public static IntArrayList from(final IntStream stream) {
+        return stream.collect(IntArrayList::new, IntArrayList::add, IntArrayList::addAll);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void add(final int value) {
+        if (size == elements.length) {
+            grow(size + 1);
+        }
+        elements[size++] = value;
+    }
+
+    public void addAll(final int... values) {
+        ensureCapacity(size + values.length);
+        System.arraycopy(values, 0, elements, size, values.length);
+        size += values.length;
+    }
+
+    public void addAll(final IntArrayList other) {
+        ensureCapacity(size + other.size);
+        System.arraycopy(other.elements, 0, elements, size, other.size);
+        size += other.size;
+    }
+
+    public int get(final int index) {
+        checkIndex(index);
+        return elements[index];
+    }
+
+    // returns the previous value
+    public int set(final int index, final int value) {
+        checkIndex(index);
+        final int previous = elements[index];
+        elements[index] = value;
+        return previous;
+    }
+
+    // returns the removed value
+    public int removeAt(final int index) {
+        checkIndex(index);
+        final int removed = elements[index];
+        System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+        size--;
+        return removed;
+    }
+
+    // removes the matching elements in one pass, keeping the order of the others
+    public boolean removeIf(final IntPredicate filter) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            final int value = elements[i];
+            if (!filter.test(value)) {
+                elements[kept++] = value;
+            }
+        }
+        final boolean removed = kept != size;
+        size = kept;
+        return removed;
+    }
+
+    public void replaceAll(final IntUnaryOperator operator) {
+        for (int i = 0; i < size; i++) {
+            elements[i] = operator.applyAsInt(elements[i]);
+        }
+    }
+
+    public int indexOf(final int value) {
+        for (int i = 0; i < size; i++) {
+            if (elements[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public boolean contains(final int value) {
+        return indexOf(value) >= 0;
+    }
+
+    public void sort() {
+        Arrays.sort(elements, 0, size);
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public void forEach(final IntConsumer action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(elements[i]);
+        }
+    }
+
+    // backed by the list, which must not be modified while streamed
+    public IntStream stream() {
+        return Arrays.stream(elements, 0, size);
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    public void ensureCapacity(final int capacity) {
+        if (capacity > elements.length) {
+            grow(capacity);
+        }
+    }
+
+    private void grow(final int minCapacity) {
+        final int capacity = Math.max(minCapacity, Math.max(10, elements.length + (elements.length >> 1)));
+        elements = Arrays.copyOf(elements, capacity);
+    }
+
+    private void checkIndex(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(String.format("Index %d out of bounds for size %d", index, size));
+        }
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        final IntArrayList other = (IntArrayList) o;
+        return Arrays.equals(elements, 0, size, other.elements, 0, other.size);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (int i = 0; i < size; i++) {
+            hash = 31 * hash + elements[i];
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        final var builder = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(elements[i]);
+        }
+        return builder.append(']').toString();
+    }
+
+}
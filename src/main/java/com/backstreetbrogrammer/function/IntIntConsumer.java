@@ -0,0 +1,22 @@
+package com.backstreetbrogrammer.function;
+
+import java.util.Objects;
+
+/**
+ * A {@link java.util.function.BiConsumer} of two {@code int} values, e.g. a key and a value of an
+ * {@link IntIntHashMap}, with no boxing.
+ */
+@FunctionalInterface
+public interface IntIntConsumer {
+
+    void accept(int left, int right);
+
+    default IntIntConsumer andThen(final IntIntConsumer after) {
+        Objects.requireNonNull(after);
+        return (left, right) -> {
+            accept(left, right);
+            after.accept(left, right);
+        };
+    }
+
+}
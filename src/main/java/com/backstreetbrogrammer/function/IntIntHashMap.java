@@ -0,0 +1,238 @@
+package com.backstreetbrogrammer.function;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * A map from {@code int} keys to {@code int} values, the primitive counterpart of {@code HashMap<Integer, Integer>}:
+ * open addressing with linear probing in parallel arrays, kept at most half full, so neither the keys nor the
+ * values are boxed. Not thread-safe.
+ */
+public final class IntIntHashMap {
+
+    private int[] keys;
+    private int[] values;
+    private boolean[] used;
+    private int size;
+
+    public IntIntHashMap() {
+        this(8);
+    }
+
+    public IntIntHashMap(final int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expectedSize must not be negative: " + expectedSize);
+        }
+        int capacity = 16;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        this.keys = new int[capacity];
+        this.values = new int[capacity];
+        this.used = new boolean[capacity];
+    }
+
+    // the number of occurrences of every distinct value
+    public static IntIntHashMap counts(final IntStream stream) {
+        return stream.collect(IntIntHashMap::new,
+                              (map, value) -> map.merge(value, 1, Integer::sum),
+                              (left, right) -> left.mergeAll(right, Integer::sum));
+    }
+
+    private static int mix(final int key) {
+        final int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(final int key) {
+        return slotOf(key) >= 0;
+    }
+
+    public int getOrDefault(final int key, final int defaultValue) {
+        final int slot = slotOf(key);
+        return slot >= 0 ? values[slot] : defaultValue;
+    }
+
+    public void put(final int key, final int value) {
+        final int slot = insertionSlotOf(key);
+        values[slot] = value;
+        if (!used[slot]) {
+            add(slot, key);
+        }
+    }
+
+    // stores the value if the key is absent, or the function of the old and the given value; returns the new value
+    public int merge(final int key, final int value, final IntToIntBiFunction function) {
+        final int slot = insertionSlotOf(key);
+        if (used[slot]) {
+            return values[slot] = function.applyAsInt(values[slot], value);
+        }
+        values[slot] = value;
+        add(slot, key);
+        return value;
+    }
+
+    // merges every entry of the other map into this one
+    public void mergeAll(final IntIntHashMap other, final IntToIntBiFunction function) {
+        other.forEach((key, value) -> merge(key, value, function));
+    }
+
+    public boolean remove(final int key) {
+        int hole = slotOf(key);
+        if (hole < 0) {
+            return false;
+        }
+        final int mask = keys.length - 1;
+        int next = (hole + 1) & mask;
+        while (used[next]) {
+            final int home = mix(keys[next]) & mask;
+            // the entry at 'next' may fill the hole unless its home lies cyclically in (hole, next]
+            final boolean stays = hole <= next
+                    ? hole < home && home <= next
+                    : hole < home || home <= next;
+            if (!stays) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        used[hole] = false;
+        size--;
+        return true;
+    }
+
+    public void clear() {
+        Arrays.fill(used, false);
+        size = 0;
+    }
+
+    public void forEach(final IntIntConsumer action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (used[i]) {
+                action.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    // in no particular order, the same order as values(); the map must not be modified while streamed
+    public IntStream keys() {
+        final boolean[] usedSlots = used;
+        final int[] slotKeys = keys;
+        return IntStream.range(0, slotKeys.length).filter(i -> usedSlots[i]).map(i -> slotKeys[i]);
+    }
+
+    public IntStream values() {
+        final boolean[] usedSlots = used;
+        final int[] slotValues = values;
+        return IntStream.range(0, slotValues.length).filter(i -> usedSlots[i]).map(i -> slotValues[i]);
+    }
+
+    // boxes every entry, for APIs expecting a Map
+    public Map<Integer, Integer> toMap() {
+        final Map<Integer, Integer> map = new HashMap<>(size * 2);
+        forEach(map::put);
+        return map;
+    }
+
+    private int slotOf(final int key) {
+        final int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    // the slot holding the key, or the free slot where it belongs
+    private int insertionSlotOf(final int key) {
+        final int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (used[slot] && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void add(final int slot, final int key) {
+        used[slot] = true;
+        keys[slot] = key;
+        if (++size * 2 > keys.length) {
+            resize();
+        }
+    }
+
+    private void resize() {
+        final int[] oldKeys = keys;
+        final int[] oldValues = values;
+        final boolean[] oldUsed = used;
+        keys = new int[oldKeys.length * 2];
+        values = new int[oldKeys.length * 2];
+        used = new boolean[oldKeys.length * 2];
+        final int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                int slot = mix(oldKeys[i]) & mask;
+                while (used[slot]) {
+                    slot = (slot + 1) & mask;
+                }
+                used[slot] = true;
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        final IntIntHashMap that = (IntIntHashMap) o;
+        if (size != that.size) return false;
+        for (int i = 0; i < keys.length; i++) {
+            if (used[i]) {
+                final int slot = that.slotOf(keys[i]);
+                if (slot < 0 || that.values[slot] != values[i]) return false;
+            }
+        }
+        return true;
+    }
+
+    // the sum of key ^ value over the entries, like Map.hashCode() for Integer keys and values
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (used[i]) {
+                hash += keys[i] ^ values[i];
+            }
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        final var builder = new StringBuilder("{");
+        forEach((key, value) -> {
+            if (builder.length() > 1) {
+                builder.append(", ");
+            }
+            builder.append(key).append('=').append(value);
+        });
+        return builder.append('}').toString();
+    }
+
+}
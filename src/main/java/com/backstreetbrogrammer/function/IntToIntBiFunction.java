@@ -0,0 +1,23 @@
+package com.backstreetbrogrammer.function;
+
+import java.util.Objects;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * A {@link java.util.function.BiFunction} from two {@code int} values to an {@code int}. It is an
+ * {@link IntBinaryOperator}, so it can be given to {@code IntStream.reduce()} as is, with an {@code andThen}
+ * combinator the JDK interface lacks.
+ */
+@FunctionalInterface
+public interface IntToIntBiFunction extends IntBinaryOperator {
+
+    @Override
+    int applyAsInt(int left, int right);
+
+    default IntToIntBiFunction andThen(final IntUnaryOperator after) {
+        Objects.requireNonNull(after);
+        return (left, right) -> after.applyAsInt(applyAsInt(left, right));
+    }
+
+}
@@ -0,0 +1,262 @@
+package com.backstreetbrogrammer.function;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.ObjIntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * A map from object keys to {@code int} values, the primitive counterpart of {@code HashMap<K, Integer>}, e.g. a
+ * count or a sum of ages per course: open addressing with linear probing in parallel arrays, kept at most half full,
+ * so the values are never boxed. Like {@code Collectors.toMap()}, a {@code null} key is rejected. Not thread-safe.
+ */
+public final class ObjIntHashMap<K> {
+
+    private Object[] keys; // null for an empty slot
+    private int[] values;
+    private int size;
+
+    public ObjIntHashMap() {
+        this(8);
+    }
+
+    public ObjIntHashMap(final int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expectedSize must not be negative: " + expectedSize);
+        }
+        int capacity = 16;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        this.keys = new Object[capacity];
+        this.values = new int[capacity];
+    }
+
+    // the number of occurrences of every distinct element
+    public static <K> ObjIntHashMap<K> counts(final Stream<? extends K> stream) {
+        return stream.collect(ObjIntHashMap::new,
+                              (map, element) -> map.merge(element, 1, Integer::sum),
+                              (left, right) -> left.mergeAll(right, Integer::sum));
+    }
+
+    private static int mix(final int hash) {
+        final int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(final Object key) {
+        return slotOf(key) >= 0;
+    }
+
+    public int getOrDefault(final Object key, final int defaultValue) {
+        final int slot = slotOf(key);
+        return slot >= 0 ? values[slot] : defaultValue;
+    }
+
+    public void put(final K key, final int value) {
+        final int slot = insertionSlotOf(key);
+        values[slot] = value;
+        if (keys[slot] == null) {
+            add(slot, key);
+        }
+    }
+
+    // stores the value if the key is absent, or the function of the old and the given value; returns the new value
+    public int merge(final K key, final int value, final IntToIntBiFunction function) {
+        final int slot = insertionSlotOf(key);
+        if (keys[slot] != null) {
+            return values[slot] = function.applyAsInt(values[slot], value);
+        }
+        values[slot] = value;
+        add(slot, key);
+        return value;
+    }
+
+    // merges every entry of the other map into this one
+    public void mergeAll(final ObjIntHashMap<? extends K> other, final IntToIntBiFunction function) {
+        other.forEach((key, value) -> merge(key, value, function));
+    }
+
+    public boolean remove(final Object key) {
+        final int slot = slotOf(key);
+        if (slot < 0) {
+            return false;
+        }
+        removeAt(slot);
+        return true;
+    }
+
+    // removes the matching entries; returns whether any was removed
+    @SuppressWarnings("unchecked")
+    public boolean removeIf(final ObjIntPredicate<? super K> filter) {
+        boolean removed = false;
+        int slot = 0;
+        while (slot < keys.length) {
+            // an entry shifted back into the freed slot is tested in turn
+            if (keys[slot] != null && filter.test((K) keys[slot], values[slot])) {
+                removeAt(slot);
+                removed = true;
+            } else {
+                slot++;
+            }
+        }
+        return removed;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, null);
+        size = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(final ObjIntConsumer<? super K> action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                action.accept((K) keys[i], values[i]);
+            }
+        }
+    }
+
+    // in no particular order, the same order as values(); the map must not be modified while streamed
+    @SuppressWarnings("unchecked")
+    public Stream<K> keys() {
+        return Arrays.stream(keys).filter(Objects::nonNull).map(key -> (K) key);
+    }
+
+    public IntStream values() {
+        final Object[] slotKeys = keys;
+        final int[] slotValues = values;
+        return IntStream.range(0, slotKeys.length).filter(i -> slotKeys[i] != null).map(i -> slotValues[i]);
+    }
+
+    // boxes every value, for APIs expecting a Map
+    public Map<K, Integer> toMap() {
+        final Map<K, Integer> map = new HashMap<>(size * 2);
+        forEach(map::put);
+        return map;
+    }
+
+    private int slotOf(final Object key) {
+        if (key == null) {
+            return -1;
+        }
+        final int mask = keys.length - 1;
+        int slot = mix(key.hashCode()) & mask;
+        Object current;
+        while ((current = keys[slot]) != null) {
+            if (current.equals(key)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    // the slot holding the key, or the free slot where it belongs
+    private int insertionSlotOf(final K key) {
+        Objects.requireNonNull(key, "key");
+        final int mask = keys.length - 1;
+        int slot = mix(key.hashCode()) & mask;
+        Object current;
+        while ((current = keys[slot]) != null && !current.equals(key)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void add(final int slot, final K key) {
+        keys[slot] = key;
+        if (++size * 2 > keys.length) {
+            resize();
+        }
+    }
+
+    private void removeAt(int hole) {
+        final int mask = keys.length - 1;
+        int next = (hole + 1) & mask;
+        while (keys[next] != null) {
+            final int home = mix(keys[next].hashCode()) & mask;
+            // the entry at 'next' may fill the hole unless its home lies cyclically in (hole, next]
+            final boolean stays = hole <= next
+                    ? hole < home && home <= next
+                    : hole < home || home <= next;
+            if (!stays) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = null;
+        size--;
+    }
+
+    private void resize() {
+        final Object[] oldKeys = keys;
+        final int[] oldValues = values;
+        keys = new Object[oldKeys.length * 2];
+        values = new int[oldKeys.length * 2];
+        final int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int slot = mix(oldKeys[i].hashCode()) & mask;
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        final ObjIntHashMap<?> that = (ObjIntHashMap<?>) o;
+        if (size != that.size) return false;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                final int slot = that.slotOf(keys[i]);
+                if (slot < 0 || that.values[slot] != values[i]) return false;
+            }
+        }
+        return true;
+    }
+
+    // the sum of key.hashCode() ^ value over the entries, like Map.hashCode() for Integer values
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                hash += keys[i].hashCode() ^ values[i];
+            }
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        final var builder = new StringBuilder("{");
+        forEach((key, value) -> {
+            if (builder.length() > 1) {
+                builder.append(", ");
+            }
+            builder.append(key).append('=').append(value);
+        });
+        return builder.append('}').toString();
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.backstreetbrogrammer.function;
+
+import java.util.Objects;
+
+/**
+ * A {@link java.util.function.BiPredicate} of an object and an {@code int}, the predicate counterpart of
+ * {@link java.util.function.ObjIntConsumer}.
+ */
+@FunctionalInterface
+public interface ObjIntPredicate<T> {
+
+    boolean test(T object, int value);
+
+    default ObjIntPredicate<T> and(final ObjIntPredicate<? super T> other) {
+        Objects.requireNonNull(other);
+        return (object, value) -> test(object, value) && other.test(object, value);
+    }
+
+    default ObjIntPredicate<T> or(final ObjIntPredicate<? super T> other) {
+        Objects.requireNonNull(other);
+        return (object, value) -> test(object, value) || other.test(object, value);
+    }
+
+    default ObjIntPredicate<T> negate() {
+        return (object, value) -> !test(object, value);
+    }
+
+}
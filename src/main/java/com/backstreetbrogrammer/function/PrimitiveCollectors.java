@@ -0,0 +1,76 @@
+package com.backstreetbrogrammer.function;
+
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collector;
+
+/**
+ * Collectors into {@link IntArrayList}, {@link IntIntHashMap} and {@link ObjIntHashMap}, so that a pipeline like
+ * {@code students.stream().collect(groupingBy(Student::getAge, counting()))} keeps its keys and values primitive:
+ * <pre>
+ *     final IntIntHashMap studentsPerAge = students.stream()
+ *                                                  .collect(PrimitiveCollectors.countingByInt(Student::getAge));
+ * </pre>
+ * For an {@code IntStream}, which has no {@code collect(Collector)}, see {@link IntArrayList#from} and
+ * {@link IntIntHashMap#counts}.
+ */
+public final class PrimitiveCollectors {
+
+    private PrimitiveCollectors() {
+    }
+
+    public static <T> Collector<T, ?, IntArrayList> toIntList(final ToIntFunction<? super T> mapper) {
+        return Collector.of(IntArrayList::new,
+                            (list, element) -> list.add(mapper.applyAsInt(element)),
+                            (left, right) -> {
+                                left.addAll(right);
+                                return left;
+                            });
+    }
+
+    // like Collectors.toMap(keyMapper, valueMapper, mergeFunction)
+    public static <T> Collector<T, ?, IntIntHashMap> toIntIntMap(final ToIntFunction<? super T> keyMapper,
+                                                                 final ToIntFunction<? super T> valueMapper,
+                                                                 final IntToIntBiFunction mergeFunction) {
+        return Collector.of(IntIntHashMap::new,
+                            (map, element) -> map.merge(keyMapper.applyAsInt(element),
+                                                        valueMapper.applyAsInt(element),
+                                                        mergeFunction),
+                            (left, right) -> {
+                                left.mergeAll(right, mergeFunction);
+                                return left;
+                            },
+                            Collector.Characteristics.UNORDERED);
+    }
+
+    // like Collectors.groupingBy(classifier, counting()), with an int key and an int count
+    public static <T> Collector<T, ?, IntIntHashMap> countingByInt(final ToIntFunction<? super T> classifier) {
+        return toIntIntMap(classifier, element -> 1, Integer::sum);
+    }
+
+    public static <T, K> Collector<T, ?, ObjIntHashMap<K>> toObjIntMap(final Function<? super T, ? extends K> keyMapper,
+                                                                      final ToIntFunction<? super T> valueMapper,
+                                                                      final IntToIntBiFunction mergeFunction) {
+        return Collector.of(ObjIntHashMap::new,
+                            (map, element) -> map.merge(keyMapper.apply(element),
+                                                        valueMapper.applyAsInt(element),
+                                                        mergeFunction),
+                            (left, right) -> {
+                                left.mergeAll(right, mergeFunction);
+                                return left;
+                            },
+                            Collector.Characteristics.UNORDERED);
+    }
+
+    // like Collectors.groupingBy(classifier, counting())
+    public static <T, K> Collector<T, ?, ObjIntHashMap<K>> counting(final Function<? super T, ? extends K> classifier) {
+        return toObjIntMap(classifier, element -> 1, Integer::sum);
+    }
+
+    // like Collectors.groupingBy(classifier, summingInt(mapper))
+    public static <T, K> Collector<T, ?, ObjIntHashMap<K>> summingInt(final Function<? super T, ? extends K> classifier,
+                                                                     final ToIntFunction<? super T> mapper) {
+        return toObjIntMap(classifier, mapper, Integer::sum);
+    }
+
+}
@@ -1,31 +1,288 @@
 package com.backstreetbrogrammer.model;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+/**
+ * A course and its roster of enrolled students.
+ * <p>
+ * The roster is an immutable snapshot, replaced on every enrollment or unenrollment (lock-free, by compare-and-set),
+ * so any number of threads can enroll, unenroll and read concurrently. Snapshots are stored as chunks of at most
+ * {@value #CHUNK_SIZE} students: a write copies the chunk it touches and the array of chunk references, sharing every
+ * other chunk with the previous snapshot. Readers never copy: {@link #getStudents()} returns the current snapshot and
+ * {@link #students()} streams it.
+ * <p>
+ * Any two adjacent chunks hold more than {@value #CHUNK_SIZE} students together, so that a roster of {@code n} students
+ * has at most {@code 2 * n / CHUNK_SIZE + 1} chunks, however it was enrolled and unenrolled.
+ */
 public class Course {
 
+    static final int CHUNK_SIZE = 64;
+
     private final String courseName;
-    private final List<Student> students = new ArrayList<>();
+    private final AtomicReference<Roster> roster;
 
     public Course(final String courseName, final Student... students) {
         this.courseName = courseName;
-        this.students.addAll(List.of(students));
+        this.roster = new AtomicReference<>(Roster.of(students));
     }
 
     public String getCourseName() {
         return courseName;
     }
 
+    // immutable snapshot of the roster, later enrollments are not visible in it
     public List<Student> getStudents() {
-        return List.copyOf(students);
+        return roster.get();
+    }
+
+    public Stream<Student> students() {
+        return StreamSupport.stream(roster.get().spliterator(), false);
+    }
+
+    public int size() {
+        return roster.get().size();
+    }
+
+    int chunkCount() {
+        return roster.get().chunks.length;
+    }
+
+    public void enroll(final Student student) {
+        Objects.requireNonNull(student);
+        Roster current;
+        do {
+            current = roster.get();
+        } while (!roster.compareAndSet(current, current.with(student)));
+    }
+
+    // removes the first enrollment of this student, returns false if the student is not enrolled
+    public boolean unenroll(final Student student) {
+        Roster current;
+        Roster next;
+        do {
+            current = roster.get();
+            next = current.without(student);
+            if (next == current) {
+                return false;
+            }
+        } while (!roster.compareAndSet(current, next));
+        return true;
     }
 
     @Override
     public String toString() {
         return "Course{" +
                 "courseName='" + courseName + '\'' +
-                ", students=" + students +
+                ", students=" + roster.get() +
                 '}';
     }
+
+    private static final class Roster extends AbstractList<Student> implements RandomAccess {
+
+        private static final Roster EMPTY = new Roster(new Student[0][]);
+
+        private final Student[][] chunks;
+        private final int[] offsets; // offsets[c] is the index of the first student of chunk c, then the size
+
+        private Roster(final Student[][] chunks) {
+            this.chunks = chunks;
+            this.offsets = new int[chunks.length + 1];
+            for (int c = 0; c < chunks.length; c++) {
+                offsets[c + 1] = offsets[c] + chunks[c].length;
+            }
+        }
+
+        private static Roster of(final Student[] students) {
+            final Student[][] chunks = new Student[(students.length + CHUNK_SIZE - 1) / CHUNK_SIZE][];
+            for (int c = 0; c < chunks.length; c++) {
+                chunks[c] = Arrays.copyOfRange(students, c * CHUNK_SIZE,
+                                               Math.min(students.length, (c + 1) * CHUNK_SIZE));
+                for (final Student student : chunks[c]) {
+                    Objects.requireNonNull(student);
+                }
+            }
+            return chunks.length == 0 ? EMPTY : new Roster(chunks);
+        }
+
+        private Roster with(final Student student) {
+            final int last = chunks.length - 1;
+            if (last < 0 || chunks[last].length == CHUNK_SIZE) {
+                final Student[][] next = Arrays.copyOf(chunks, chunks.length + 1);
+                next[last + 1] = new Student[]{student};
+                return new Roster(next);
+            }
+            final Student[][] next = chunks.clone();
+            final Student[] chunk = Arrays.copyOf(chunks[last], chunks[last].length + 1);
+            chunk[chunk.length - 1] = student;
+            next[last] = chunk;
+            return new Roster(next);
+        }
+
+        // returns this roster if the student is not in it
+        private Roster without(final Object student) {
+            for (int c = 0; c < chunks.length; c++) {
+                final Student[] chunk = chunks[c];
+                for (int i = 0; i < chunk.length; i++) {
+                    if (Objects.equals(chunk[i], student)) {
+                        return without(c, i);
+                    }
+                }
+            }
+            return this;
+        }
+
+        // an emptied chunk is dropped, and a chunk is merged with its previous, or else its next, neighbour when both
+        // fit in a single chunk: only the pairs involving chunk c may have shrunk to CHUNK_SIZE students or less
+        private Roster without(final int c, final int i) {
+            final Student[] chunk = chunks[c];
+            final Student[] shrunk = new Student[chunk.length - 1];
+            System.arraycopy(chunk, 0, shrunk, 0, i);
+            System.arraycopy(chunk, i + 1, shrunk, i, shrunk.length - i);
+
+            if (shrunk.length == 0) {
+                final Student[][] next = new Student[chunks.length - 1][];
+                System.arraycopy(chunks, 0, next, 0, c);
+                System.arraycopy(chunks, c + 1, next, c, next.length - c);
+                return next.length == 0 ? EMPTY : new Roster(next);
+            }
+            if (c > 0 && chunks[c - 1].length + shrunk.length <= CHUNK_SIZE) {
+                return merged(c - 1, chunks[c - 1], shrunk);
+            }
+            if (c + 1 < chunks.length && shrunk.length + chunks[c + 1].length <= CHUNK_SIZE) {
+                return merged(c, shrunk, chunks[c + 1]);
+            }
+            final Student[][] next = chunks.clone();
+            next[c] = shrunk;
+            return new Roster(next);
+        }
+
+        // replaces the chunks at 'first' and 'first + 1' with the concatenation of left and right
+        private Roster merged(final int first, final Student[] left, final Student[] right) {
+            final Student[] merged = Arrays.copyOf(left, left.length + right.length);
+            System.arraycopy(right, 0, merged, left.length, right.length);
+            final Student[][] next = new Student[chunks.length - 1][];
+            System.arraycopy(chunks, 0, next, 0, first);
+            next[first] = merged;
+            System.arraycopy(chunks, first + 2, next, first + 1, next.length - first - 1);
+            return new Roster(next);
+        }
+
+        @Override
+        public Student get(final int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size());
+            }
+            // the last chunk whose first index is <= index
+            int low = 0;
+            int high = chunks.length - 1;
+            while (low < high) {
+                final int mid = (low + high + 1) >>> 1;
+                if (offsets[mid] <= index) {
+                    low = mid;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return chunks[low][index - offsets[low]];
+        }
+
+        @Override
+        public int size() {
+            return offsets[chunks.length];
+        }
+
+        @Override
+        public void forEach(final Consumer<? super Student> action) {
+            for (final Student[] chunk : chunks) {
+                for (final Student student : chunk) {
+                    action.accept(student);
+                }
+            }
+        }
+
+        @Override
+        public Iterator<Student> iterator() {
+            return Spliterators.iterator(spliterator());
+        }
+
+        @Override
+        public Spliterator<Student> spliterator() {
+            return new RosterSpliterator(this, 0, chunks.length);
+        }
+    }
+
+    // walks whole chunks, and splits between chunks
+    private static final class RosterSpliterator implements Spliterator<Student> {
+
+        private final Roster roster;
+        private int chunk;
+        private int position; // in the current chunk, back to 0 when moving to the next chunk
+        private final int toChunk;
+
+        private RosterSpliterator(final Roster roster, final int chunk, final int toChunk) {
+            this.roster = roster;
+            this.chunk = chunk;
+            this.toChunk = toChunk;
+        }
+
+        @Override
+        public boolean tryAdvance(final Consumer<? super Student> action) {
+            while (chunk < toChunk) {
+                final Student[] students = roster.chunks[chunk];
+                if (position < students.length) {
+                    action.accept(students[position++]);
+                    return true;
+                }
+                chunk++;
+                position = 0;
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(final Consumer<? super Student> action) {
+            for (; chunk < toChunk; chunk++) {
+                final Student[] students = roster.chunks[chunk];
+                for (; position < students.length; position++) {
+                    action.accept(students[position]);
+                }
+                position = 0;
+            }
+        }
+
+        @Override
+        public Spliterator<Student> trySplit() {
+            if (toChunk - chunk < 2) {
+                return null;
+            }
+            final int mid = (chunk + toChunk) >>> 1;
+            final RosterSpliterator prefix = new RosterSpliterator(roster, chunk, mid);
+            prefix.position = position;
+            chunk = mid;
+            position = 0;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return roster.offsets[toChunk] - roster.offsets[chunk] - position;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+        }
+    }
+
 }
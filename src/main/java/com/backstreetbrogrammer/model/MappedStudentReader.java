@@ -0,0 +1,161 @@
+package com.backstreetbrogrammer.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Reads a file written by {@link StudentRecords} straight from a memory-mapped buffer: opening it costs one
+ * {@code mmap}, whatever the number of students, and nothing is parsed up front.
+ * <p>
+ * Ages are read from the records on access, so {@link #ages()} never allocates per student. Each distinct name or
+ * course is decoded once, on first access, into a cache allocated by pages of 1024 strings, and then shared by every
+ * student referencing it; the streamed {@link Student} and {@link StudentWithCourse} objects are therefore plain small
+ * objects pointing to shared strings. The file must stay below 2 GB.
+ */
+public final class MappedStudentReader {
+
+    private static final int STRING_PAGE_BITS = 10;
+    private static final int STRING_PAGE_SIZE = 1 << STRING_PAGE_BITS;
+
+    private final ByteBuffer buffer;
+    private final int recordSize;
+    private final int size;
+    private final int stringOffsets;
+    private final int stringBytes;
+    private final int stringCount;
+    private final String[][] stringPages; // decoded lazily, a race only decodes a string twice
+
+    private MappedStudentReader(final ByteBuffer buffer, final int recordSize, final int size,
+                                final int stringCount) {
+        this.buffer = buffer;
+        this.recordSize = recordSize;
+        this.size = size;
+        this.stringOffsets = StudentRecords.HEADER_SIZE + size * recordSize;
+        this.stringBytes = stringOffsets + (stringCount + 1) * Integer.BYTES;
+        this.stringCount = stringCount;
+        this.stringPages = new String[(stringCount + STRING_PAGE_SIZE - 1) >>> STRING_PAGE_BITS][];
+    }
+
+    public static MappedStudentReader open(final Path path) throws IOException {
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long fileSize = channel.size();
+            if (fileSize < StudentRecords.HEADER_SIZE || fileSize > Integer.MAX_VALUE) {
+                throw new IOException("Not a student file: " + path);
+            }
+            final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0L, fileSize)
+                                             .order(ByteOrder.LITTLE_ENDIAN);
+            final int recordSize = buffer.getInt(Integer.BYTES);
+            final long size = buffer.getInt(Integer.BYTES * 2);
+            final long stringCount = buffer.getInt(Integer.BYTES * 3);
+            if (buffer.getInt(0) != StudentRecords.MAGIC
+                    || (recordSize != StudentRecords.STUDENT_RECORD_SIZE
+                    && recordSize != StudentRecords.STUDENT_WITH_COURSE_RECORD_SIZE)
+                    || size < 0 || stringCount < 0) {
+                throw new IOException("Not a student file: " + path);
+            }
+            final long offsets = StudentRecords.HEADER_SIZE + size * recordSize;
+            final long bytes = offsets + (stringCount + 1) * Integer.BYTES;
+            if (bytes > fileSize || bytes + buffer.getInt((int) (bytes - Integer.BYTES)) != fileSize) {
+                throw new IOException("Truncated student file: " + path);
+            }
+            return new MappedStudentReader(buffer, recordSize, (int) size, (int) stringCount);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean hasCourses() {
+        return recordSize == StudentRecords.STUDENT_WITH_COURSE_RECORD_SIZE;
+    }
+
+    public int distinctStrings() {
+        return stringCount;
+    }
+
+    public int ageAt(final int index) {
+        return buffer.getInt(record(index));
+    }
+
+    public String nameAt(final int index) {
+        return stringOf(buffer.getInt(record(index) + Integer.BYTES));
+    }
+
+    public String courseAt(final int index) {
+        if (!hasCourses()) {
+            throw new IllegalStateException("The file has no courses");
+        }
+        return stringOf(buffer.getInt(record(index) + Integer.BYTES * 2));
+    }
+
+    public Student studentAt(final int index) {
+        return new Student(nameAt(index), ageAt(index));
+    }
+
+    public StudentWithCourse studentWithCourseAt(final int index) {
+        return new StudentWithCourse(nameAt(index), ageAt(index), courseAt(index));
+    }
+
+    public IntStream ages() {
+        return IntStream.range(0, size).map(i -> buffer.getInt(StudentRecords.HEADER_SIZE + i * recordSize));
+    }
+
+    public Stream<Student> students() {
+        return IntStream.range(0, size).mapToObj(this::studentAt);
+    }
+
+    public Stream<StudentWithCourse> studentsWithCourse() {
+        if (!hasCourses()) {
+            throw new IllegalStateException("The file has no courses");
+        }
+        return IntStream.range(0, size).mapToObj(this::studentWithCourseAt);
+    }
+
+    private int record(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return StudentRecords.HEADER_SIZE + index * recordSize;
+    }
+
+    private String stringOf(final int id) {
+        if (id < 0) {
+            return null;
+        }
+        String[] page = stringPages[id >>> STRING_PAGE_BITS];
+        if (page == null) {
+            page = new String[STRING_PAGE_SIZE];
+            stringPages[id >>> STRING_PAGE_BITS] = page;
+        }
+        String string = page[id & (STRING_PAGE_SIZE - 1)];
+        if (string == null) {
+            final int from = buffer.getInt(stringOffsets + id * Integer.BYTES);
+            final int to = buffer.getInt(stringOffsets + (id + 1) * Integer.BYTES);
+            final byte[] bytes = new byte[to - from];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = buffer.get(stringBytes + from + i);
+            }
+            string = new String(bytes, StandardCharsets.UTF_8);
+            page[id & (STRING_PAGE_SIZE - 1)] = string;
+        }
+        return string;
+    }
+
+    @Override
+    public String toString() {
+        return "MappedStudentReader{" +
+                "size=" + size +
+                ", hasCourses=" + hasCourses() +
+                ", distinctStrings=" + stringCount +
+                '}';
+    }
+
+}
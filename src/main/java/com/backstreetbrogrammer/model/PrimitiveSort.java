@@ -0,0 +1,211 @@
+package com.backstreetbrogrammer.model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Stable LSD radix sort (a single counting sort when the keys span at most 2^16 values, like ages) of students by an
+ * {@code int} key, with no boxing and no comparator call per comparison.
+ * <p>
+ * A secondary order by name is obtained by first ranking the distinct names and radix sorting on that rank, so that
+ * the final pass on the key keeps equal keys ordered by name. The parallel variants compute the histograms and scatter
+ * the elements of each chunk on the fork-join common pool.
+ */
+public final class PrimitiveSort {
+
+    private static final int DIGIT_BITS = 16;
+    private static final int PARALLEL_CHUNK_SIZE = 1 << 16;
+
+    private PrimitiveSort() {
+    }
+
+    public static <T> void sortByInt(final List<T> list, final ToIntFunction<? super T> key) {
+        sortByInt(list, key, null, false);
+    }
+
+    public static <T> void sortByInt(final List<T> list, final ToIntFunction<? super T> key,
+                                     final Function<? super T, String> thenByName) {
+        sortByInt(list, key, thenByName, false);
+    }
+
+    public static <T> void parallelSortByInt(final List<T> list, final ToIntFunction<? super T> key) {
+        sortByInt(list, key, null, true);
+    }
+
+    public static <T> void parallelSortByInt(final List<T> list, final ToIntFunction<? super T> key,
+                                             final Function<? super T, String> thenByName) {
+        sortByInt(list, key, thenByName, true);
+    }
+
+    // returns a view of the table sorted by age, then by name
+    public static StudentTable sortByAgeThenName(final StudentTable table) {
+        return sortByAgeThenName(table, false);
+    }
+
+    public static StudentTable parallelSortByAgeThenName(final StudentTable table) {
+        return sortByAgeThenName(table, true);
+    }
+
+    private static StudentTable sortByAgeThenName(final StudentTable table, final boolean parallel) {
+        final int size = table.size();
+        final int[] ages = new int[size];
+        final int[] nameIds = new int[size];
+        for (int i = 0; i < size; i++) {
+            ages[i] = table.ageAt(i);
+            nameIds[i] = table.nameIdAt(i);
+        }
+
+        // ranks of the dictionary ids in name order: the names are compared once per distinct name
+        final Integer[] ids = IntStream.range(0, table.distinctNames()).boxed().toArray(Integer[]::new);
+        Arrays.sort(ids, (id1, id2) -> table.nameOfId(id1).compareTo(table.nameOfId(id2)));
+        final int[] rankOfId = new int[ids.length];
+        for (int rank = 0; rank < ids.length; rank++) {
+            rankOfId[ids[rank]] = rank;
+        }
+        final int[] nameRanks = new int[size];
+        for (int i = 0; i < size; i++) {
+            nameRanks[i] = rankOfId[nameIds[i]];
+        }
+
+        int[] order = identity(size);
+        order = radixSort(order, nameRanks, parallel);
+        order = radixSort(order, ages, parallel);
+        return table.permute(order);
+    }
+
+    private static <T> void sortByInt(final List<T> list, final ToIntFunction<? super T> key,
+                                      final Function<? super T, String> thenByName, final boolean parallel) {
+        @SuppressWarnings("unchecked") final T[] elements = (T[]) list.toArray();
+        final int size = elements.length;
+        final int[] keys = new int[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = key.applyAsInt(elements[i]);
+        }
+
+        int[] order = identity(size);
+        if (thenByName != null) {
+            order = radixSort(order, nameRanks(elements, thenByName), parallel);
+        }
+        order = radixSort(order, keys, parallel);
+
+        final ListIterator<T> iterator = list.listIterator();
+        for (final int index : order) {
+            iterator.next();
+            iterator.set(elements[index]);
+        }
+    }
+
+    private static <T> int[] nameRanks(final T[] elements, final Function<? super T, String> toName) {
+        final String[] names = new String[elements.length];
+        final Map<String, Integer> ranks = new HashMap<>();
+        for (int i = 0; i < elements.length; i++) {
+            names[i] = toName.apply(elements[i]);
+            ranks.put(names[i], 0);
+        }
+        final String[] distinct = ranks.keySet().toArray(new String[0]);
+        Arrays.sort(distinct);
+        for (int rank = 0; rank < distinct.length; rank++) {
+            ranks.put(distinct[rank], rank);
+        }
+        final int[] nameRanks = new int[elements.length];
+        for (int i = 0; i < elements.length; i++) {
+            nameRanks[i] = ranks.get(names[i]);
+        }
+        return nameRanks;
+    }
+
+    private static int[] identity(final int size) {
+        final int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        return order;
+    }
+
+    // stably reorders 'order' by keys[order[i]], one counting pass per 16-bit digit of (key - min)
+    private static int[] radixSort(int[] order, final int[] keys, final boolean parallel) {
+        if (order.length < 2) {
+            return order;
+        }
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (final int key : keys) {
+            min = Math.min(min, key);
+            max = Math.max(max, key);
+        }
+        final long range = (long) max - min;
+        final int bits = Math.max(1, Long.SIZE - Long.numberOfLeadingZeros(range));
+        for (int shift = 0; shift < bits; shift += DIGIT_BITS) {
+            final int digitBits = Math.min(DIGIT_BITS, bits - shift);
+            order = parallel && order.length > PARALLEL_CHUNK_SIZE
+                    ? parallelCountingPass(order, keys, min, shift, digitBits)
+                    : countingPass(order, keys, min, shift, digitBits);
+        }
+        return order;
+    }
+
+    private static int digit(final int key, final int min, final int shift, final int mask) {
+        return (int) ((((long) key - min) >>> shift) & mask);
+    }
+
+    private static int[] countingPass(final int[] order, final int[] keys, final int min, final int shift,
+                                      final int digitBits) {
+        final int mask = (1 << digitBits) - 1;
+        final int[] offsets = new int[mask + 2];
+        for (final int index : order) {
+            offsets[digit(keys[index], min, shift, mask) + 1]++;
+        }
+        for (int d = 1; d < offsets.length; d++) {
+            offsets[d] += offsets[d - 1];
+        }
+        final int[] sorted = new int[order.length];
+        for (final int index : order) {
+            sorted[offsets[digit(keys[index], min, shift, mask)]++] = index;
+        }
+        return sorted;
+    }
+
+    // each chunk gets its own histogram; offsets are laid out digit by digit, then chunk by chunk, to stay stable
+    private static int[] parallelCountingPass(final int[] order, final int[] keys, final int min, final int shift,
+                                              final int digitBits) {
+        final int mask = (1 << digitBits) - 1;
+        final int buckets = mask + 1;
+        final int chunks = (order.length + PARALLEL_CHUNK_SIZE - 1) / PARALLEL_CHUNK_SIZE;
+        final int[][] histograms = new int[chunks][];
+
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            final int[] histogram = new int[buckets];
+            final int to = Math.min(order.length, (chunk + 1) * PARALLEL_CHUNK_SIZE);
+            for (int i = chunk * PARALLEL_CHUNK_SIZE; i < to; i++) {
+                histogram[digit(keys[order[i]], min, shift, mask)]++;
+            }
+            histograms[chunk] = histogram;
+        });
+
+        int offset = 0;
+        for (int d = 0; d < buckets; d++) {
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                final int count = histograms[chunk][d];
+                histograms[chunk][d] = offset;
+                offset += count;
+            }
+        }
+
+        final int[] sorted = new int[order.length];
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            final int[] offsets = histograms[chunk];
+            final int to = Math.min(order.length, (chunk + 1) * PARALLEL_CHUNK_SIZE);
+            for (int i = chunk * PARALLEL_CHUNK_SIZE; i < to; i++) {
+                sorted[offsets[digit(keys[order[i]], min, shift, mask)]++] = order[i];
+            }
+        });
+        return sorted;
+    }
+
+}
@@ -0,0 +1,132 @@
+package com.backstreetbrogrammer.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes students to a fixed-layout binary file, read back by {@link MappedStudentReader}.
+ * <p>
+ * The file holds a header, then one record per student ({@code int} age, {@code int} name id and, for
+ * {@link StudentWithCourse}, {@code int} course id), then a string table: the names and courses are
+ * dictionary-encoded, each distinct string being stored once as UTF-8, behind an {@code int[]} of offsets. A
+ * {@code null} string is written as id {@code -1}. Every number is little-endian.
+ */
+public final class StudentRecords {
+
+    static final int MAGIC = 0x53545544; // "STUD"
+    static final int HEADER_SIZE = Integer.BYTES * 4; // magic, record size, records, strings
+    static final int STUDENT_RECORD_SIZE = Integer.BYTES * 2;
+    static final int STUDENT_WITH_COURSE_RECORD_SIZE = Integer.BYTES * 3;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private StudentRecords() {
+    }
+
+    public static void write(final Path path, final Collection<? extends Student> students) throws IOException {
+        final Dictionary dictionary = new Dictionary();
+        final int[] records = new int[students.size() * 2];
+        int i = 0;
+        for (final Student student : students) {
+            records[i++] = student.getAge();
+            records[i++] = dictionary.idOf(student.getName());
+        }
+        write(path, STUDENT_RECORD_SIZE, records, dictionary);
+    }
+
+    public static void writeWithCourse(final Path path, final Collection<? extends StudentWithCourse> students)
+            throws IOException {
+        final Dictionary dictionary = new Dictionary();
+        final int[] records = new int[students.size() * 3];
+        int i = 0;
+        for (final StudentWithCourse student : students) {
+            records[i++] = student.getAge();
+            records[i++] = dictionary.idOf(student.getName());
+            records[i++] = dictionary.idOf(student.getCourse());
+        }
+        write(path, STUDENT_WITH_COURSE_RECORD_SIZE, records, dictionary);
+    }
+
+    // writes through a temp file, which then replaces the target
+    private static void write(final Path path, final int recordSize, final int[] records,
+                              final Dictionary dictionary) throws IOException {
+        final Path tempPath = Files.createTempFile(path.toAbsolutePath().getParent(), path.getFileName().toString(),
+                                                   ".tmp");
+        try {
+            try (final FileChannel target = FileChannel.open(tempPath, StandardOpenOption.WRITE)) {
+                final ByteBuffer out = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+                final int recordCount = records.length / (recordSize / Integer.BYTES);
+                out.putInt(MAGIC).putInt(recordSize).putInt(recordCount).putInt(dictionary.strings.size());
+                for (final int value : records) {
+                    putInt(out, value, target);
+                }
+
+                final List<byte[]> encoded = new ArrayList<>(dictionary.strings.size());
+                int offset = 0;
+                for (final String string : dictionary.strings) {
+                    final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+                    encoded.add(bytes);
+                    putInt(out, offset, target);
+                    offset += bytes.length;
+                }
+                putInt(out, offset, target);
+                for (final byte[] bytes : encoded) {
+                    for (final byte b : bytes) {
+                        if (!out.hasRemaining()) {
+                            flush(out, target);
+                        }
+                        out.put(b);
+                    }
+                }
+                flush(out, target);
+            }
+            Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempPath);
+        }
+    }
+
+    private static void putInt(final ByteBuffer out, final int value, final FileChannel target) throws IOException {
+        if (out.remaining() < Integer.BYTES) {
+            flush(out, target);
+        }
+        out.putInt(value);
+    }
+
+    private static void flush(final ByteBuffer out, final FileChannel target) throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            target.write(out);
+        }
+        out.clear();
+    }
+
+    private static final class Dictionary {
+
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> strings = new ArrayList<>();
+
+        private int idOf(final String string) {
+            if (string == null) {
+                return -1;
+            }
+            return ids.computeIfAbsent(string, key -> {
+                strings.add(key);
+                return strings.size() - 1;
+            });
+        }
+    }
+
+}
@@ -0,0 +1,175 @@
+package com.backstreetbrogrammer.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Column-oriented, immutable table of students: ages are kept in an {@code int[]} and names are dictionary-encoded as
+ * an {@code int[]} of ids into a pool of distinct names.
+ * <p>
+ * Scanning {@link #ages()} reads one contiguous array instead of chasing a pointer per {@link Student}, and repeated
+ * names are stored once. Filtering returns a view sharing the same columns; {@link #students()} adapts the table back
+ * to {@code Stream<Student>} for existing pipelines.
+ */
+public final class StudentTable {
+
+    private final int[] ages;
+    private final int[] nameIds;
+    private final String[] namePool;
+    private final int[] rows; // selected rows of a filtered view, or null when every row is visible
+    private final int size;
+
+    private StudentTable(final int[] ages, final int[] nameIds, final String[] namePool, final int[] rows,
+                         final int size) {
+        this.ages = ages;
+        this.nameIds = nameIds;
+        this.namePool = namePool;
+        this.rows = rows;
+        this.size = size;
+    }
+
+    public static StudentTable of(final Collection<? extends Student> students) {
+        final Builder builder = new Builder(students.size());
+        students.forEach(student -> builder.add(student.getName(), student.getAge()));
+        return builder.build();
+    }
+
+    public static Builder builder() {
+        return new Builder(16);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int distinctNames() {
+        return namePool.length;
+    }
+
+    public int ageAt(final int index) {
+        return ages[row(index)];
+    }
+
+    public String nameAt(final int index) {
+        return namePool[nameIds[row(index)]];
+    }
+
+    public Student studentAt(final int index) {
+        final int row = row(index);
+        return new Student(namePool[nameIds[row]], ages[row]);
+    }
+
+    public IntStream ages() {
+        if (rows == null) {
+            return Arrays.stream(ages, 0, size);
+        }
+        return Arrays.stream(rows, 0, size).map(row -> ages[row]);
+    }
+
+    public Stream<String> names() {
+        return rowStream().mapToObj(row -> namePool[nameIds[row]]);
+    }
+
+    public Stream<Student> students() {
+        return rowStream().mapToObj(row -> new Student(namePool[nameIds[row]], ages[row]));
+    }
+
+    public StudentTable whereAge(final IntPredicate predicate) {
+        return select(rowStream().filter(row -> predicate.test(ages[row])).toArray());
+    }
+
+    // the predicate is evaluated once per distinct name, not once per row
+    public StudentTable whereName(final Predicate<String> predicate) {
+        final BitSet matchingIds = new BitSet(namePool.length);
+        for (int id = 0; id < namePool.length; id++) {
+            if (predicate.test(namePool[id])) {
+                matchingIds.set(id);
+            }
+        }
+        return select(rowStream().filter(row -> matchingIds.get(nameIds[row])).toArray());
+    }
+
+    // view listing the rows at the given positions of this table, in that order
+    StudentTable permute(final int[] positions) {
+        final int[] selectedRows = new int[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            selectedRows[i] = row(positions[i]);
+        }
+        return select(selectedRows);
+    }
+
+    int nameIdAt(final int index) {
+        return nameIds[row(index)];
+    }
+
+    String nameOfId(final int id) {
+        return namePool[id];
+    }
+
+    private StudentTable select(final int[] selectedRows) {
+        return new StudentTable(ages, nameIds, namePool, selectedRows, selectedRows.length);
+    }
+
+    private IntStream rowStream() {
+        return rows == null ? IntStream.range(0, size) : Arrays.stream(rows, 0, size);
+    }
+
+    private int row(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return rows == null ? index : rows[index];
+    }
+
+    @Override
+    public String toString() {
+        return "StudentTable{" +
+                "size=" + size +
+                ", distinctNames=" + namePool.length +
+                '}';
+    }
+
+    public static final class Builder {
+
+        private int[] ages;
+        private int[] nameIds;
+        private int size;
+        private final Map<String, Integer> dictionary = new HashMap<>();
+        private final List<String> namePool = new ArrayList<>();
+
+        private Builder(final int capacity) {
+            ages = new int[Math.max(capacity, 1)];
+            nameIds = new int[ages.length];
+        }
+
+        public Builder add(final String name, final int age) {
+            if (size == ages.length) {
+                final int capacity = ages.length * 2;
+                ages = Arrays.copyOf(ages, capacity);
+                nameIds = Arrays.copyOf(nameIds, capacity);
+            }
+            ages[size] = age;
+            nameIds[size] = dictionary.computeIfAbsent(name, key -> {
+                namePool.add(key);
+                return namePool.size() - 1;
+            });
+            size++;
+            return this;
+        }
+
+        public StudentTable build() {
+            return new StudentTable(Arrays.copyOf(ages, size), Arrays.copyOf(nameIds, size),
+                                    namePool.toArray(new String[0]), null, size);
+        }
+    }
+
+}
@@ -1,12 +1,15 @@
 package com.backstreetbrogrammer.model;
 
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class StudentWithCourse {
 
     private final String name;
     private final int age;
     private final String course;
+    private int hash; // cached, 0 until computed, like String.hashCode()
 
     public StudentWithCourse(final String name, final int age, final String course) {
         this.name = name;
@@ -42,8 +45,65 @@ public class StudentWithCourse {
         return age == that.age && Objects.equals(name, that.name) && Objects.equals(course, that.course);
     }
 
+    // same value as Objects.hash(name, age, course), without the varargs array and the boxed age
     @Override
     public int hashCode() {
-        return Objects.hash(name, age, course);
+        int h = hash;
+        if (h == 0) {
+            h = 31 * (31 * (31 + Objects.hashCode(name)) + age) + Objects.hashCode(course);
+            hash = h;
+        }
+        return h;
+    }
+
+    /**
+     * Canonical instances of the course names, which are few and repeated by many students, e.g. the rows of one file:
+     * students created by {@link #student} share one {@code String} per course, so that grouping them by course with
+     * {@code Collectors.groupingBy()} mostly ends at the {@code ==} check of {@link String#equals}, and takes less
+     * memory. A pool is meant to live as long as one load, and holds at most {@code maxSize} names: beyond that, names
+     * are returned as they are. Since students may come from other pools or from the constructor, group them with
+     * {@code equals()}, never by identity.
+     */
+    public static final class CoursePool {
+
+        public static final int DEFAULT_MAX_SIZE = 1024;
+
+        private final ConcurrentMap<String, String> courses = new ConcurrentHashMap<>();
+        private final int maxSize;
+
+        public CoursePool() {
+            this(DEFAULT_MAX_SIZE);
+        }
+
+        public CoursePool(final int maxSize) {
+            if (maxSize < 0) {
+                throw new IllegalArgumentException("maxSize must not be negative: " + maxSize);
+            }
+            this.maxSize = maxSize;
+        }
+
+        // same as the constructor, with the canonical course name
+        public StudentWithCourse student(final String name, final int age, final String course) {
+            return new StudentWithCourse(name, age, canonical(course));
+        }
+
+        public String canonical(final String course) {
+            if (course == null) {
+                return null;
+            }
+            final String canonical = courses.get(course);
+            if (canonical != null) {
+                return canonical;
+            }
+            if (courses.size() >= maxSize) {
+                return course; // concurrent callers may still add a few names beyond maxSize
+            }
+            final String previous = courses.putIfAbsent(course, course);
+            return previous == null ? course : previous;
+        }
+
+        public int size() {
+            return courses.size();
+        }
     }
 }
@@ -0,0 +1,78 @@
+package com.backstreetbrogrammer.ch01_introductionToLambdas;
+
+import com.backstreetbrogrammer.model.Student;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class AdaptivePredicateTest {
+
+    private static final Pattern NAME = Pattern.compile("[A-Z][a-z]+\\d*");
+
+    // slow and almost never failing, then fast and selective
+    private static final Predicate<Student> WELL_FORMED_NAME = student -> NAME.matcher(student.getName()).matches();
+    private static final Predicate<Student> NOT_EMPTY_NAME = student -> !student.getName().isEmpty();
+    private static final Predicate<Student> OLDER_THAN_24 = student -> student.getAge() > 24;
+
+    private static List<Student> students(final int size, final int minAge) {
+        final var random = new SplittableRandom(42L);
+        return IntStream.range(0, size)
+                        .mapToObj(i -> new Student("Student" + i, minAge + random.nextInt(10)))
+                        .collect(Collectors.toList());
+    }
+
+    @Test
+    void testAllOfMovesTheCheapSelectiveClauseFirst() {
+        final List<Student> students = students(200_000, 16);
+        final AdaptivePredicate<Student> adaptive = AdaptivePredicate.allOf(WELL_FORMED_NAME, NOT_EMPTY_NAME,
+                                                                            OLDER_THAN_24);
+        final Predicate<Student> fixed = WELL_FORMED_NAME.and(NOT_EMPTY_NAME).and(OLDER_THAN_24);
+
+        for (final Student student : students) {
+            assertEquals(fixed.test(student), adaptive.test(student));
+        }
+        assertEquals(2, adaptive.order().get(0), adaptive::toString);
+    }
+
+    @Test
+    void testOrderFollowsTheData() {
+        final AdaptivePredicate<Student> adaptive = AdaptivePredicate.allOf(WELL_FORMED_NAME, OLDER_THAN_24);
+        students(100_000, 16).forEach(adaptive::test);
+        assertEquals(List.of(1, 0), adaptive.order());
+
+        // now everybody is older than 24, and one name in two is malformed
+        final List<Student> older = students(200_000, 25);
+        for (int i = 0; i < older.size(); i++) {
+            final Student student = older.get(i);
+            final Student tested = i % 2 == 0 ? new Student("?" + student.getName(), student.getAge()) : student;
+            assertEquals(i % 2 != 0, adaptive.test(tested));
+        }
+        assertEquals(List.of(0, 1), adaptive.order());
+    }
+
+    @Test
+    void testAnyOfMatchesOrChainUnderParallel() {
+        final List<Student> students = students(200_000, 16);
+        final Predicate<Student> youngerThan17 = student -> student.getAge() < 17;
+        final Predicate<Student> nameEndsWith7 = student -> student.getName().endsWith("7");
+        final AdaptivePredicate<Student> adaptive = AdaptivePredicate.anyOf(youngerThan17, nameEndsWith7,
+                                                                            OLDER_THAN_24);
+
+        assertEquals(students.stream().filter(youngerThan17.or(nameEndsWith7).or(OLDER_THAN_24)).count(),
+                     students.parallelStream().filter(adaptive).count());
+    }
+
+    @Test
+    void testNoClause() {
+        assertThrows(IllegalArgumentException.class, () -> AdaptivePredicate.allOf(List.of()));
+    }
+
+}
@@ -0,0 +1,180 @@
+package com.backstreetbrogrammer.ch01_introductionToLambdas;
+
+import com.backstreetbrogrammer.model.Student;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BatchingSinkTest {
+
+    private static final List<Student> STUDENTS = IntStream.range(0, 100_000)
+                                                           .mapToObj(i -> new Student("Zoë" + i, 16 + i % 10))
+                                                           .collect(Collectors.toList());
+
+    private static final BatchingSink.Encoder<Student> CSV =
+            (student, out) -> out.append(student.getName()).append(',').append(student.getAge()).append('\n');
+
+    private static List<String> expectedLines() {
+        return STUDENTS.stream().map(s -> s.getName() + "," + s.getAge()).sorted().collect(Collectors.toList());
+    }
+
+    private static List<String> sortedLines(final Path file) throws IOException {
+        return Files.readAllLines(file, StandardCharsets.UTF_8).stream().sorted().collect(Collectors.toList());
+    }
+
+    @Test
+    void testParallelForEach(@TempDir final Path dir) throws IOException {
+        final Path file = dir.resolve("students.csv");
+        try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             final BatchingSink<Student> sink = BatchingSink.of(channel, CSV, 4_096)) {
+            STUDENTS.parallelStream().forEach(sink);
+        }
+        assertEquals(expectedLines(), sortedLines(file));
+    }
+
+    @Test
+    void testAsyncParallelForEach(@TempDir final Path dir) throws IOException {
+        final Path file = dir.resolve("students.csv");
+        try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             final BatchingSink<Student> sink = BatchingSink.async(channel, CSV, 4_096, 4)) {
+            STUDENTS.parallelStream().forEach(sink);
+            sink.flush();
+            assertEquals(expectedLines(), sortedLines(file));
+        }
+    }
+
+    @Test
+    void testElementsLargerThanTheByteBuffer() {
+        final var bytes = new ByteArrayOutputStream();
+        final String huge = "é".repeat(100_000); // 200,000 bytes in UTF-8
+        try (final BatchingSink<Object> sink = BatchingSink.lines(Channels.newChannel(bytes))) {
+            sink.accept("first");
+            sink.accept(huge);
+            sink.accept("last");
+        }
+        assertEquals("first\n" + huge + "\nlast\n", bytes.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testFullQueueBlocksTheProducers() throws InterruptedException {
+        final CountDownLatch release = new CountDownLatch(1);
+        final var bytes = new ByteArrayOutputStream();
+        final WritableByteChannel slow = new WritableByteChannel() {
+            private final WritableByteChannel target = Channels.newChannel(bytes);
+
+            @Override
+            public int write(final ByteBuffer src) throws IOException {
+                try {
+                    release.await();
+                } catch (final InterruptedException e) {
+                    throw new IOException(e);
+                }
+                return target.write(src);
+            }
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        final BatchingSink<Object> sink = BatchingSink.async(slow, BatchingSink.Encoder.lines(), 16, 2);
+        final Thread producer = new Thread(() -> IntStream.range(0, 1_000).forEach(sink::accept));
+        producer.start();
+
+        producer.join(500L);
+        assertTrue(producer.isAlive(), "the producer should wait for the writer");
+
+        release.countDown();
+        producer.join(TimeUnit.SECONDS.toMillis(10L));
+        assertFalse(producer.isAlive());
+        sink.close();
+        assertEquals(IntStream.range(0, 1_000).mapToObj(i -> i + "\n").collect(Collectors.joining()),
+                     bytes.toString(StandardCharsets.UTF_8));
+        assertThrows(IllegalStateException.class, () -> sink.accept(0));
+    }
+
+    @Test
+    void testWriteFailureIsReported() {
+        final WritableByteChannel failing = new WritableByteChannel() {
+            @Override
+            public int write(final ByteBuffer src) throws IOException {
+                throw new IOException("disk full");
+            }
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        final BatchingSink<Object> sink = BatchingSink.async(failing, BatchingSink.Encoder.lines(), 16, 2);
+        sink.accept("hello");
+        assertThrows(UncheckedIOException.class, sink::flush);
+        assertThrows(UncheckedIOException.class, sink::close);
+    }
+
+    @Test
+    void testRuntimeFailureDoesNotStopTheWriter() {
+        final WritableByteChannel broken = new WritableByteChannel() {
+            @Override
+            public int write(final ByteBuffer src) {
+                throw new IllegalArgumentException("broken channel");
+            }
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        final BatchingSink<Object> sink = BatchingSink.async(broken, BatchingSink.Encoder.lines(), 16, 2);
+        assertTimeoutPreemptively(Duration.ofSeconds(10L), () -> {
+            // more batches than the queue holds: the writer must go on draining after the failure
+            final Thread producer = new Thread(() -> {
+                try {
+                    IntStream.range(0, 1_000).forEach(sink::accept);
+                } catch (final IllegalStateException expected) {
+                    // the failure is reported to the producer too
+                }
+            });
+            producer.start();
+            producer.join();
+            final IllegalStateException e = assertThrows(IllegalStateException.class, sink::close);
+            assertEquals("broken channel", e.getCause().getMessage());
+        });
+    }
+
+}
@@ -0,0 +1,104 @@
+package com.backstreetbrogrammer.ch01_introductionToLambdas;
+
+import com.backstreetbrogrammer.model.Student;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class ComparatorBuilderTest {
+
+    private static final List<Student> STUDENTS = students(50_000);
+
+    private static List<Student> students(final int size) {
+        final var random = new SplittableRandom(42L);
+        final int[] edges = {Integer.MIN_VALUE, Integer.MIN_VALUE + 1, -1, 0, 1, Integer.MAX_VALUE};
+        return IntStream.range(0, size)
+                        .mapToObj(i -> new Student("Student" + random.nextInt(100),
+                                                   i % 10 == 0 ? edges[random.nextInt(edges.length)]
+                                                               : random.nextInt(-20, 20)))
+                        .collect(Collectors.toList());
+    }
+
+    private static long ageTimesName(final Student student) {
+        return (long) student.getAge() * student.getName().length();
+    }
+
+    // Student has no equals(): stable sorts must produce the very same instances in the same order
+    private static void assertSameOrder(final List<Student> expected, final List<Student> actual) {
+        assertEquals(expected.size(), actual.size());
+        final var iterator = actual.iterator();
+        for (int i = 0; i < expected.size(); i++) {
+            assertSame(expected.get(i), iterator.next(), "at index " + i);
+        }
+    }
+
+    private static void assertSortsLike(final Comparator<Student> expected, final ComparatorBuilder<Student> actual) {
+        final List<Student> sorted = STUDENTS.stream().sorted(expected).collect(Collectors.toList());
+        assertSameOrder(sorted, STUDENTS.stream().sorted(actual).collect(Collectors.toList()));
+        assertSameOrder(sorted, STUDENTS.parallelStream().sorted(actual).collect(Collectors.toList()));
+
+        final List<Student> list = new ArrayList<>(STUDENTS);
+        actual.sort(list);
+        assertSameOrder(sorted, list);
+        final List<Student> linkedList = new LinkedList<>(STUDENTS);
+        actual.sort(linkedList);
+        assertSameOrder(sorted, linkedList);
+    }
+
+    @Test
+    void testSingleKeysMatchComparatorComparing() {
+        assertSortsLike(Comparator.comparingInt(Student::getAge),
+                        ComparatorBuilder.byInt(Student::getAge));
+        assertSortsLike(Comparator.comparingInt(Student::getAge).reversed(),
+                        ComparatorBuilder.<Student>byInt(Student::getAge).descending());
+        assertSortsLike(Comparator.comparingLong(ComparatorBuilderTest::ageTimesName),
+                        ComparatorBuilder.byLong(ComparatorBuilderTest::ageTimesName));
+        assertSortsLike(Comparator.comparing(Student::getName),
+                        ComparatorBuilder.byString(Student::getName));
+    }
+
+    @Test
+    void testChainsMatchThenComparing() {
+        assertSortsLike(Comparator.comparing(Student::getName).thenComparingInt(Student::getAge),
+                        ComparatorBuilder.<Student>byString(Student::getName).thenInt(Student::getAge));
+        assertSortsLike(Comparator.comparing(Student::getName).thenComparingInt(Student::getAge).reversed(),
+                        ComparatorBuilder.<Student>byString(Student::getName).thenInt(Student::getAge).descending());
+        assertSortsLike(Comparator.comparing(Student::getName)
+                                  .reversed()
+                                  .thenComparingLong(ComparatorBuilderTest::ageTimesName),
+                        ComparatorBuilder.<Student>byString(Student::getName)
+                                         .descending()
+                                         .thenLong(ComparatorBuilderTest::ageTimesName));
+        assertSortsLike(Comparator.comparingInt(Student::getAge)
+                                  .thenComparing(Student::getName)
+                                  .reversed()
+                                  .reversed(),
+                        ComparatorBuilder.<Student>byInt(Student::getAge)
+                                         .thenString(Student::getName)
+                                         .descending()
+                                         .descending());
+    }
+
+    @Test
+    void testBuilderIsImmutable() {
+        final ComparatorBuilder<Student> byAge = ComparatorBuilder.byInt(Student::getAge);
+        byAge.thenString(Student::getName);
+        byAge.descending();
+
+        final var john = new Student("John", 18);
+        final var mary = new Student("Mary", 18);
+        assertEquals(0, byAge.compare(john, mary));
+        assertEquals(Integer.signum(Comparator.comparingInt(Student::getAge).compare(john, new Student("Tom", 21))),
+                     Integer.signum(byAge.compare(john, new Student("Tom", 21))));
+    }
+
+}
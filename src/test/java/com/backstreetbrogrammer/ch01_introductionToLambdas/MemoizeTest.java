@@ -0,0 +1,101 @@
+package com.backstreetbrogrammer.ch01_introductionToLambdas;
+
+import com.backstreetbrogrammer.model.Student;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MemoizeTest {
+
+    @Test
+    void testRepeatedKeysAreComputedOnce() {
+        final AtomicInteger calls = new AtomicInteger();
+        final Memoize.CachedFunction<Student, String> toName = Memoize.function(student -> {
+            calls.incrementAndGet();
+            return student.getName();
+        }, 100);
+
+        final var john = new Student("John", 18);
+        final var mary = new Student("Mary", 16);
+        for (int i = 0; i < 10; i++) {
+            assertEquals("John", toName.apply(john));
+            assertEquals("Mary", toName.apply(mary));
+        }
+
+        assertEquals(2, calls.get());
+        assertEquals(2L, toName.stats().getMisses());
+        assertEquals(18L, toName.stats().getHits());
+        assertEquals(0.9D, toName.stats().getHitRate(), 1e-9);
+        assertThrows(NullPointerException.class, () -> toName.apply(null));
+    }
+
+    @Test
+    void testSizeStaysWithinMaxSize() {
+        final Memoize.CachedToIntFunction<String> toLength = Memoize.toIntFunction(String::length, 1_000);
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(Integer.toString(i).length(), toLength.applyAsInt(Integer.toString(i)));
+            assertTrue(toLength.size() <= 1_000);
+        }
+        assertEquals(9_000L, toLength.stats().getEvictions());
+
+        toLength.invalidateAll();
+        assertEquals(0, toLength.size());
+    }
+
+    @Test
+    void testHotKeysSurviveAScanOfOneOffKeys() {
+        final AtomicInteger calls = new AtomicInteger();
+        final Memoize.CachedToLongFunction<Integer> square = Memoize.toLongFunction(i -> {
+            calls.incrementAndGet();
+            return (long) i * i;
+        }, 1_000);
+        // hit a second time, the hot keys move to the protected lists
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < 100; i++) {
+                square.applyAsLong(i);
+            }
+        }
+        for (int i = 1_000; i < 100_000; i++) {
+            square.applyAsLong(i);
+        }
+        final int callsAfterScan = calls.get();
+        for (int i = 0; i < 100; i++) {
+            assertEquals((long) i * i, square.applyAsLong(i));
+        }
+        assertEquals(callsAfterScan, calls.get());
+    }
+
+    @Test
+    void testExpiredEntriesAreRecomputed() throws InterruptedException {
+        final AtomicInteger calls = new AtomicInteger();
+        final Memoize.CachedFunction<String, Integer> cached = Memoize.function(key -> calls.incrementAndGet(), 10,
+                                                                               Duration.ofMillis(50L));
+        assertEquals(1, cached.apply("key"));
+        assertEquals(1, cached.apply("key"));
+        Thread.sleep(100L);
+        assertEquals(2, cached.apply("key"));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testParallelStream() {
+        final Memoize.CachedFunction<Integer, String> toText = Memoize.function(i -> "#" + i, 500);
+
+        final long mismatches = IntStream.range(0, 1_000_000)
+                                         .parallel()
+                                         .map(i -> i % 1_000)
+                                         .filter(i -> !toText.apply(i).equals("#" + i))
+                                         .count();
+
+        assertEquals(0L, mismatches);
+        assertTrue(toText.size() <= 500);
+        assertEquals(1_000_000L, toText.stats().getHits() + toText.stats().getMisses());
+    }
+
+}
@@ -0,0 +1,87 @@
+package com.backstreetbrogrammer.ch02_mapFilterReduce;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CrossProductTest {
+
+    private static List<String> letters(final int size) {
+        return IntStream.range(0, size).mapToObj(i -> "L" + i).collect(Collectors.toList());
+    }
+
+    private static List<Integer> numbers(final int size) {
+        return IntStream.range(0, size).boxed().collect(Collectors.toCollection(LinkedList::new));
+    }
+
+    private static List<String> nestedFlatMap(final List<String> left, final List<Integer> right) {
+        return left.stream().flatMap(a -> right.stream().map(b -> a + b)).collect(Collectors.toList());
+    }
+
+    @Test
+    void testStreamMatchesNestedFlatMap() {
+        for (final int[] sizes : new int[][]{{0, 5}, {5, 0}, {1, 1}, {3, 7}, {1, 10_000}, {10_000, 1}, {150, 90}}) {
+            final List<String> left = letters(sizes[0]);
+            final List<Integer> right = numbers(sizes[1]);
+            final CrossProduct<String, Integer> product = CrossProduct.of(left, right);
+            final List<String> expected = nestedFlatMap(left, right);
+
+            assertEquals(expected.size(), product.size());
+            assertEquals(expected, product.stream((a, b) -> a + b).collect(Collectors.toList()));
+            assertEquals(expected, product.stream((a, b) -> a + b).parallel().collect(Collectors.toList()));
+            for (int index = 0; index < expected.size(); index += 97) {
+                assertEquals(expected.get(index), product.left(index) + product.right(index));
+            }
+        }
+    }
+
+    @Test
+    void testForEachPairMatchesNestedFlatMap() {
+        final List<String> left = letters(150);
+        final List<Integer> right = numbers(90);
+        final CrossProduct<String, Integer> product = CrossProduct.of(left, right);
+        final List<String> expected = nestedFlatMap(left, right);
+
+        final List<String> sequential = new LinkedList<>();
+        product.forEachPair((a, b) -> sequential.add(a + b));
+        assertEquals(expected, sequential);
+
+        final var parallel = new ConcurrentLinkedQueue<String>();
+        final var pool = new ForkJoinPool(4);
+        try {
+            pool.submit(() -> product.parallelForEachPair((a, b) -> parallel.add(a + b))).join();
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(expected.stream().sorted().collect(Collectors.toList()),
+                     parallel.stream().sorted().collect(Collectors.toList()));
+
+        final var count = new LongAdder();
+        CrossProduct.of(letters(1), numbers(0)).parallelForEachPair((a, b) -> count.increment());
+        assertEquals(0L, count.sum());
+    }
+
+    @Test
+    void testSplitsAreSizedAndEven() {
+        final Spliterator<String> spliterator = CrossProduct.of(letters(3), numbers(100_000))
+                                                            .stream((a, b) -> a + b)
+                                                            .spliterator();
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED));
+
+        final Spliterator<String> prefix = spliterator.trySplit();
+        assertEquals(150_000L, prefix.estimateSize());
+        assertEquals(150_000L, spliterator.estimateSize());
+        assertEquals(150_000L, prefix.getExactSizeIfKnown());
+    }
+
+}
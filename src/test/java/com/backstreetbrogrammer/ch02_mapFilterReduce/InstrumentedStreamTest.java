@@ -0,0 +1,75 @@
+package com.backstreetbrogrammer.ch02_mapFilterReduce;
+
+import com.backstreetbrogrammer.model.Student;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class InstrumentedStreamTest {
+
+    private static final List<Student> STUDENTS = IntStream.range(0, 200_000)
+                                                           .mapToObj(i -> new Student("Student" + i, 16 + i % 10))
+                                                           .collect(Collectors.toList());
+
+    @Test
+    void testCountsPerStageUnderParallel() {
+        final var metrics = new InstrumentedStream.Metrics();
+        final long count = InstrumentedStream.of(STUDENTS.stream(), metrics)
+                                             .parallel()
+                                             .mapToInt("age", Student::getAge)
+                                             .filter("olderThan20", age -> age >= 20)
+                                             .filter("even", age -> age % 2 == 0)
+                                             .count();
+
+        assertEquals(STUDENTS.stream().filter(s -> s.getAge() >= 20 && s.getAge() % 2 == 0).count(), count);
+        final List<InstrumentedStream.StageStats> stages = metrics.snapshot();
+        assertEquals(List.of("age", "olderThan20", "even"),
+                     stages.stream().map(InstrumentedStream.StageStats::getName).collect(Collectors.toList()));
+        assertEquals(200_000L, stages.get(0).getIn());
+        assertEquals(200_000L, stages.get(0).getOut());
+        assertEquals(120_000L, stages.get(1).getOut());
+        assertEquals(0.6D, stages.get(1).getSelectivity(), 1e-9);
+        assertEquals(120_000L, stages.get(2).getIn());
+        assertEquals(count, stages.get(2).getOut());
+        assertTrue(stages.stream().allMatch(stage -> stage.getNanos() > 0L));
+    }
+
+    @Test
+    void testFlatMapCountsProducedElements() {
+        final var metrics = new InstrumentedStream.Metrics();
+        final List<String> letters = InstrumentedStream.of(IntStream.range(0, 3), metrics)
+                                                       .mapToObj("name", i -> STUDENTS.get(i).getName())
+                                                       .flatMap("letters", name -> name.chars()
+                                                                                       .mapToObj(Character::toString))
+                                                       .collect(Collectors.toList());
+
+        assertEquals(24, letters.size());
+        assertEquals(3L, metrics.snapshot().get(1).getIn());
+        assertEquals(24L, metrics.snapshot().get(1).getOut());
+
+        metrics.reset();
+        assertEquals(0L, metrics.snapshot().get(1).getOut());
+    }
+
+    @Test
+    void testDisabledRecordsNothing() {
+        final var metrics = new InstrumentedStream.Metrics();
+        InstrumentedStream.setEnabled(false);
+        try {
+            final int sum = InstrumentedStream.of(STUDENTS.stream(), metrics)
+                                              .mapToInt("age", Student::getAge)
+                                              .filter("olderThan20", age -> age >= 20)
+                                              .sum();
+            assertEquals(STUDENTS.stream().mapToInt(Student::getAge).filter(age -> age >= 20).sum(), sum);
+            assertEquals(List.of(), metrics.snapshot());
+        } finally {
+            InstrumentedStream.setEnabled(true);
+        }
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.backstreetbrogrammer.ch03_buildingStream;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CharStatsTest {
+
+    private static final String[] PIECES = {"a", "b", "e", " ", "\n", "é", "ß", "Ж", "中", "😀", "𝄞", "\uD800", "\uDC00"};
+
+    // random text spanning several parallel chunks, with a surrogate pair across the first chunk boundary
+    private static String text() {
+        final var random = new SplittableRandom(42L);
+        final var builder = new StringBuilder();
+        while (builder.length() < (1 << 16) - 1) {
+            builder.append(PIECES[random.nextInt(PIECES.length)]);
+        }
+        builder.setLength((1 << 16) - 1);
+        builder.append("😀");
+        while (builder.length() < 300_000) {
+            builder.append(PIECES[random.nextInt(PIECES.length)]);
+        }
+        return builder.toString();
+    }
+
+    private static Map<Integer, Long> histogram(final CharStats stats) {
+        return stats.distinct().boxed().collect(Collectors.toMap(Function.identity(), stats::count));
+    }
+
+    @Test
+    void testMatchesCodePointsGrouping() {
+        final String text = text();
+        final Map<Integer, Long> expected = text.codePoints()
+                                                .boxed()
+                                                .collect(Collectors.groupingBy(Function.identity(),
+                                                                               Collectors.counting()));
+        final long total = text.codePoints().count();
+
+        final char[] chars = text.toCharArray();
+        for (final CharStats stats : new CharStats[]{CharStats.of(text),
+                                                     CharStats.parallelOf(text),
+                                                     CharStats.of(chars, 0, chars.length),
+                                                     CharStats.of(text.codePoints()),
+                                                     CharStats.of(text.codePoints().parallel())}) {
+            assertEquals(expected, histogram(stats));
+            assertEquals(total, stats.total());
+            assertEquals(expected.size(), stats.distinctCount());
+            assertArrayEquals(text.codePoints().distinct().sorted().toArray(), stats.distinct().toArray());
+        }
+    }
+
+    @Test
+    void testTopNMatchesSortedCounts() {
+        final String text = text();
+        final Map<Integer, Long> counts = text.codePoints()
+                                              .boxed()
+                                              .collect(Collectors.groupingBy(Function.identity(),
+                                                                             Collectors.counting()));
+        final Comparator<Map.Entry<Integer, Long>> byCountThenCodePoint =
+                Map.Entry.<Integer, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey());
+
+        for (final int n : new int[]{0, 1, 5, counts.size(), counts.size() + 10}) {
+            final int[] expected = counts.entrySet()
+                                         .stream()
+                                         .sorted(byCountThenCodePoint)
+                                         .limit(n)
+                                         .mapToInt(Map.Entry::getKey)
+                                         .toArray();
+            assertArrayEquals(expected, CharStats.of(text).topN(n));
+            assertArrayEquals(expected, CharStats.parallelOf(text).topN(n));
+        }
+        assertThrows(IllegalArgumentException.class, () -> CharStats.of(text).topN(-1));
+    }
+
+    @Test
+    void testEmptyTextAndInvalidCodePoints() {
+        final CharStats empty = CharStats.parallelOf("");
+
+        assertEquals(0L, empty.total());
+        assertEquals(0, empty.distinctCount());
+        assertEquals(0L, empty.count(-1));
+        assertEquals(0L, empty.count(Character.MAX_CODE_POINT + 1));
+        assertThrows(IllegalArgumentException.class, () -> empty.add(Character.MAX_CODE_POINT + 1));
+    }
+
+}
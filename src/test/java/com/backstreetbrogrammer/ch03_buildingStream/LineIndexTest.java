@@ -0,0 +1,85 @@
+package com.backstreetbrogrammer.ch03_buildingStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LineIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testPagedLinesMatchSkipAndLimit() throws IOException {
+        final Path path = tempDir.resolve("lines.txt");
+        Files.writeString(path, IntStream.range(0, 1000)
+                                         .mapToObj(i -> "line-" + i)
+                                         .collect(Collectors.joining("\n")));
+
+        assertEquals(1000L, LineIndex.of(path).lineCount());
+        assertTrue(Files.exists(LineIndex.sidecarOf(path)));
+
+        for (final long skip : new long[]{0, 1, 63, 64, 65, 127, 128, 990, 999, 1000, 2000}) {
+            assertEquals(skipAndLimit(path, skip, 10), pagedLines(path, skip, 10), "skip = " + skip);
+        }
+    }
+
+    @Test
+    void testIndexIsRebuiltWhenFileChanges() throws IOException {
+        final Path path = tempDir.resolve("words.txt");
+        Files.writeString(path, "a\nb\nc\n");
+        assertEquals(List.of("b", "c"), pagedLines(path, 1, 5));
+
+        Files.writeString(path, "x\ny\nz\nw\n");
+        Files.setLastModifiedTime(path, FileTime.fromMillis(Files.getLastModifiedTime(path).toMillis() + 2000L));
+
+        assertEquals(4L, LineIndex.of(path).lineCount());
+        assertEquals(List.of("y", "z", "w"), pagedLines(path, 1, 5));
+    }
+
+    @Test
+    void testOnlyLineFeedsEndLines() throws IOException {
+        final Path path = tempDir.resolve("carriage-returns.txt");
+        // a lone '\r' inside every third line, CRLF endings on every fifth one
+        final String text = IntStream.range(0, 500)
+                                     .mapToObj(i -> "line-" + i + (i % 3 == 0 ? "\rstill-" + i : "")
+                                             + (i % 5 == 0 ? "\r\n" : "\n"))
+                                     .collect(Collectors.joining());
+        Files.writeString(path, text);
+        final List<String> expected = Stream.of(text.split("\n"))
+                                            .map(line -> line.endsWith("\r") ? line.substring(0, line.length() - 1)
+                                                                             : line)
+                                            .collect(Collectors.toList());
+
+        assertEquals(500L, LineIndex.of(path).lineCount());
+        for (final long skip : new long[]{0, 1, 63, 64, 65, 300, 499}) {
+            assertEquals(expected.subList((int) skip, (int) Math.min(skip + 10, expected.size())),
+                         pagedLines(path, skip, 10), "skip = " + skip);
+        }
+        assertEquals("line-3\rstill-3", pagedLines(path, 3, 1).get(0));
+    }
+
+    private static List<String> pagedLines(final Path path, final long skip, final long limit) throws IOException {
+        try (final Stream<String> lines = LineIndex.pagedLines(path, skip, limit)) {
+            return lines.collect(Collectors.toList());
+        }
+    }
+
+    private static List<String> skipAndLimit(final Path path, final long skip, final long limit) throws IOException {
+        try (final Stream<String> lines = Files.lines(path)) {
+            return lines.skip(skip).limit(limit).collect(Collectors.toList());
+        }
+    }
+
+}
@@ -0,0 +1,73 @@
+package com.backstreetbrogrammer.ch03_buildingStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class MappedLinesTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testSameLinesAsFilesLines() throws IOException {
+        final Path path = Path.of("src", "main", "resources", "200words.txt");
+        final MappedLines mappedLines = MappedLines.of(path);
+
+        assertEquals(readAll(path), mappedLines.lines().collect(Collectors.toList()));
+        assertEquals(200L, mappedLines.count());
+    }
+
+    @Test
+    void testParallelLinesAcrossSmallRegions() throws IOException {
+        final String content = IntStream.range(0, 50_000)
+                                        .mapToObj(i -> "line-" + i + (i % 7 == 0 ? "\r\n" : "\n"))
+                                        .collect(Collectors.joining()) + "héllo wörld"; // no trailing newline
+        final Path path = write("big.txt", content);
+
+        // 4 KB regions, so that lines and splits straddle many region boundaries
+        final MappedLines mappedLines = MappedLines.of(path, StandardCharsets.UTF_8, 12);
+
+        final List<String> expected = readAll(path);
+        assertEquals(expected, mappedLines.lines().parallel().collect(Collectors.toList()));
+        assertEquals(expected.size(), mappedLines.lines().parallel().count());
+        assertEquals(expected.size(), mappedLines.count());
+    }
+
+    @Test
+    void testEdgeCases() throws IOException {
+        assertEquals(0L, MappedLines.of(write("empty.txt", "")).count());
+        assertEquals(List.of(), MappedLines.of(write("empty2.txt", "")).lines().collect(Collectors.toList()));
+        assertEquals(List.of("", "", "a"), MappedLines.of(write("blank.txt", "\n\na\n")).lines()
+                                                      .collect(Collectors.toList()));
+        assertEquals(3L, MappedLines.of(write("blank2.txt", "\n\na")).count());
+    }
+
+    @Test
+    void testRejectsCharsetWithMultibyteNewline() throws IOException {
+        final Path path = write("utf16.txt", "a");
+        assertThrows(IllegalArgumentException.class, () -> MappedLines.of(path, StandardCharsets.UTF_16));
+    }
+
+    private Path write(final String name, final String content) throws IOException {
+        return Files.writeString(tempDir.resolve(name), content);
+    }
+
+    private static List<String> readAll(final Path path) throws IOException {
+        try (final Stream<String> lines = Files.lines(path)) {
+            return lines.collect(Collectors.toList());
+        }
+    }
+
+}
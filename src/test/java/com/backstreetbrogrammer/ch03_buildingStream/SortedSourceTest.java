@@ -0,0 +1,89 @@
+package com.backstreetbrogrammer.ch03_buildingStream;
+
+import com.backstreetbrogrammer.model.Student;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SortedSourceTest {
+
+    private static final Comparator<Student> BY_AGE = Comparator.comparingInt(Student::getAge);
+
+    // 1,000 students per age from 10 to 29, sorted by age
+    private static final List<Student> STUDENTS = IntStream.range(0, 20_000)
+                                                           .mapToObj(i -> new Student("Student" + i, 10 + i / 1_000))
+                                                           .collect(Collectors.toList());
+
+    @Test
+    void testTakeWhileAndDropWhileMatchStreams() {
+        final SortedSource<Student> byAge = SortedSource.of(STUDENTS, BY_AGE);
+        for (final int age : new int[]{5, 10, 17, 18, 29, 30}) {
+            final Predicate<Student> younger = student -> student.getAge() < age;
+            assertEquals(STUDENTS.stream().takeWhile(younger).collect(Collectors.toList()),
+                         byAge.takeWhile(younger).collect(Collectors.toList()));
+            assertEquals(STUDENTS.stream().dropWhile(younger).collect(Collectors.toList()),
+                         byAge.dropWhile(younger).parallel().collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    void testBoundaryIsFoundByBinarySearch() {
+        final var tests = new AtomicInteger();
+        final long count = SortedSource.of(STUDENTS, BY_AGE)
+                                       .takeWhile(student -> tests.incrementAndGet() > 0 && student.getAge() < 18)
+                                       .count();
+        assertEquals(8_000L, count);
+        assertTrue(tests.get() <= 15, () -> tests.get() + " tests");
+    }
+
+    @Test
+    void testRangeBetweenWithDuplicates() {
+        final SortedSource<Integer> numbers = SortedSource.of(1, 2, 2, 2, 3, 5, 5, 8);
+        assertEquals(List.of(2, 2, 2, 3), numbers.rangeBetween(2, 5).collect(Collectors.toList()));
+        assertEquals(List.of(5, 5, 8), numbers.rangeBetween(4, 9).collect(Collectors.toList()));
+        assertEquals(List.of(), numbers.rangeBetween(5, 5).collect(Collectors.toList()));
+        assertEquals(List.of(), numbers.rangeBetween(9, 10).collect(Collectors.toList()));
+        assertThrows(IllegalArgumentException.class, () -> numbers.rangeBetween(5, 2));
+
+        // not RandomAccess: copied first
+        final SortedSource<Student> byAge = SortedSource.of(new LinkedList<>(STUDENTS), BY_AGE);
+        assertEquals(STUDENTS.subList(8_000, 11_000),
+                     byAge.rangeBetween(new Student("", 18), new Student("", 21)).collect(Collectors.toList()));
+    }
+
+    @Test
+    void testSpliteratorSplitsExactlyInHalves() {
+        final Spliterator<Student> spliterator = SortedSource.of(STUDENTS, BY_AGE)
+                                                             .rangeBetween(new Student("", 12), new Student("", 15))
+                                                             .spliterator();
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.SORTED));
+        assertSame(BY_AGE, spliterator.getComparator());
+        assertEquals(3_000L, spliterator.getExactSizeIfKnown());
+
+        final Spliterator<Student> prefix = spliterator.trySplit();
+        assertEquals(1_500L, prefix.getExactSizeIfKnown());
+        assertEquals(1_500L, spliterator.getExactSizeIfKnown());
+
+        final List<Student> visited = new ArrayList<>();
+        prefix.forEachRemaining(visited::add);
+        spliterator.forEachRemaining(visited::add);
+        assertEquals(STUDENTS.subList(2_000, 5_000), visited);
+
+        assertNull(SortedSource.of(1, 2, 3).stream().spliterator().getComparator());
+    }
+
+}
@@ -0,0 +1,100 @@
+package com.backstreetbrogrammer.ch03_buildingStream;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+public class TokenizerTest {
+
+    private static final String[] PIECES = {"lorem", "ipsum", "a", "é", "😀", " ", "  ", "\t", "\n", "\r\n", "\u000B",
+            "\f", ",", ",,", " "};
+
+    // long enough to split into several parallel chunks
+    private static String text(final long seed) {
+        final var random = new SplittableRandom(seed);
+        final var builder = new StringBuilder();
+        while (builder.length() < 300_000) {
+            builder.append(PIECES[random.nextInt(PIECES.length)]);
+        }
+        return builder.toString();
+    }
+
+    private static List<String> split(final String text, final String regex) {
+        return Arrays.stream(text.split(regex)).filter(token -> !token.isEmpty()).collect(Collectors.toList());
+    }
+
+    private static void assertTokenizesLike(final List<String> expected, final Tokenizer tokenizer,
+                                            final String text) {
+        assertEquals(expected, tokenizer.tokens(text).map(CharSequence::toString).collect(Collectors.toList()));
+        assertEquals(expected, tokenizer.tokens(text).parallel().map(CharSequence::toString)
+                                        .collect(Collectors.toList()));
+        assertEquals(expected.size(), tokenizer.count(text));
+        assertEquals(expected.size(), tokenizer.parallelCount(text));
+
+        final List<String> visited = new ArrayList<>();
+        tokenizer.forEachToken(text, (source, start, end) -> visited.add(source.subSequence(start, end).toString()));
+        assertEquals(expected, visited);
+    }
+
+    @Test
+    void testWhitespaceMatchesSplitOnWhitespaceRegex() {
+        for (final String text : List.of(text(1L), text(2L), "", " ", "word", "  leading and trailing  ")) {
+            assertTokenizesLike(split(text, "\\s+"), Tokenizer.whitespace(), text);
+        }
+    }
+
+    @Test
+    void testDelimiterMatchesSplitOnThatChar() {
+        for (final String text : List.of(text(3L), "", ",", "a,,b,", ",a")) {
+            assertTokenizesLike(split(text, ","), Tokenizer.on(','), text);
+        }
+    }
+
+    @Test
+    void testTokensEqualByText() {
+        final String text = "to be or not to be";
+        final List<CharSequence> tokens = Tokenizer.whitespace().tokens(text).collect(Collectors.toList());
+
+        assertEquals(List.of("to", "be", "or", "not"),
+                     tokens.stream().distinct().map(CharSequence::toString).collect(Collectors.toList()));
+        assertEquals(tokens.get(0), tokens.get(4));
+        assertEquals(tokens.get(0).hashCode(), tokens.get(4).hashCode());
+        assertEquals("not".hashCode(), tokens.get(3).hashCode());
+        assertNotEquals(tokens.get(0), "to");
+        assertNotEquals(tokens.get(0), tokens.get(1));
+        assertEquals(tokens.get(1), Tokenizer.on(',').tokens(new StringBuilder("x,be")).skip(1).findFirst().get());
+        assertEquals(tokens.get(3).subSequence(0, 2), tokens.get(3).subSequence(0, 2));
+        assertNotEquals(tokens.get(3).subSequence(0, 2), tokens.get(3).subSequence(1, 3));
+    }
+
+    @Test
+    void testDistinctAndGroupingByMatchWords() {
+        final String text = text(4L);
+        final Map<String, Long> expected = split(text, "\\s+").stream()
+                                                               .collect(Collectors.groupingBy(word -> word,
+                                                                                              Collectors.counting()));
+
+        for (final boolean parallel : new boolean[]{false, true}) {
+            final Stream<CharSequence> tokens = Tokenizer.whitespace().tokens(text);
+            final Map<CharSequence, Long> counts = (parallel ? tokens.parallel() : tokens)
+                    .collect(Collectors.groupingBy(token -> token, Collectors.counting()));
+            assertEquals(expected, counts.entrySet().stream()
+                                         .collect(Collectors.toMap(entry -> entry.getKey().toString(),
+                                                                   Map.Entry::getValue)));
+            final Stream<CharSequence> distinct = Tokenizer.whitespace().tokens(text);
+            assertEquals(expected.keySet(), (parallel ? distinct.parallel() : distinct).distinct()
+                                                                                       .map(CharSequence::toString)
+                                                                                       .collect(Collectors.toSet()));
+        }
+    }
+
+}
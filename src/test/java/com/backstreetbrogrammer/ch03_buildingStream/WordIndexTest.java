@@ -0,0 +1,83 @@
+package com.backstreetbrogrammer.ch03_buildingStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WordIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testFrequenciesAndLinesMatchStreams() throws IOException {
+        final Path path = tempDir.resolve("text.txt");
+        // ~6 MB, so that the file is scanned in more than one chunk
+        Files.writeString(path, IntStream.range(0, 400_000)
+                                         .mapToObj(i -> "w" + (i % 97) + " x" + (i % 13) + "\tw" + (i % 7) + " w" + (i % 97))
+                                         .collect(Collectors.joining("\n", "", "\nlast")));
+
+        final List<String> lines = Files.readAllLines(path);
+        final Map<String, Long> frequencies = lines.stream()
+                                                   .flatMap(line -> List.of(line.split("\\s+")).stream())
+                                                   .collect(Collectors.groupingBy(Function.identity(),
+                                                                                  TreeMap::new,
+                                                                                  Collectors.counting()));
+        final WordIndex index = WordIndex.build(path);
+
+        assertEquals(lines.size(), index.lineCount());
+        assertEquals(frequencies.size(), index.distinctWords());
+        assertEquals(List.copyOf(frequencies.keySet()), index.words().collect(Collectors.toList()));
+        assertEquals(frequencies.values().stream().mapToLong(Long::longValue).sum(), index.totalWords());
+        frequencies.forEach((word, frequency) -> assertEquals(frequency, index.frequency(word), word));
+
+        for (final String word : List.of("w0", "w5", "x12", "last")) {
+            final List<Integer> expected = IntStream.range(0, lines.size())
+                                                    .filter(line -> List.of(lines.get(line).split("\\s+"))
+                                                                        .contains(word))
+                                                    .boxed()
+                                                    .collect(Collectors.toList());
+            assertEquals(expected, index.lines(word).boxed().collect(Collectors.toList()), word);
+            assertEquals(expected.size(), index.lineFrequency(word));
+        }
+        assertEquals(0L, index.frequency("missing"));
+        assertEquals(0L, index.lines("missing").count());
+    }
+
+    @Test
+    void testSavedIndexIsMappedBackAndRebuiltWhenFileChanges() throws IOException {
+        final Path path = tempDir.resolve("words.txt");
+        Files.writeString(path, "b a\n\nc a é\n");
+
+        final WordIndex built = WordIndex.of(path);
+        assertTrue(Files.exists(WordIndex.sidecarOf(path)));
+        final WordIndex loaded = WordIndex.load(WordIndex.sidecarOf(path));
+        assertEquals(List.of("a", "b", "c", "é"), loaded.words().collect(Collectors.toList()));
+        assertEquals(3L, loaded.lineCount());
+        assertEquals(List.of(0, 2), loaded.lines("a").boxed().collect(Collectors.toList()));
+        assertEquals(built.frequency("é"), loaded.frequency("é"));
+
+        Files.writeString(path, "z\nz z\n");
+        Files.setLastModifiedTime(path, FileTime.fromMillis(Files.getLastModifiedTime(path).toMillis() + 2000L));
+
+        final WordIndex rebuilt = WordIndex.of(path);
+        assertEquals(new TreeSet<>(List.of("z")), rebuilt.words().collect(Collectors.toCollection(TreeSet::new)));
+        assertEquals(3L, rebuilt.frequency("z"));
+        assertEquals(0L, rebuilt.frequency("a"));
+    }
+
+}
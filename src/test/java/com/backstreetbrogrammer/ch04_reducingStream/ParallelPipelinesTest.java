@@ -0,0 +1,110 @@
+package com.backstreetbrogrammer.ch04_reducingStream;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ParallelPipelinesTest {
+
+    private static final List<Integer> NUMBERS = IntStream.rangeClosed(1, 100_000)
+                                                          .boxed()
+                                                          .collect(Collectors.toList());
+
+    @Test
+    void testSumReduceRunsOnlyOnTheDedicatedPool() {
+        try (final ParallelPipelines pipelines = ParallelPipelines.dedicated("sum", 4, 1_000)) {
+            final Set<String> threads = ConcurrentHashMap.newKeySet();
+            final long sum = pipelines.invoke(() -> pipelines.stream(NUMBERS)
+                                                             .peek(n -> threads.add(Thread.currentThread().getName()))
+                                                             .mapToLong(Integer::longValue)
+                                                             .sum());
+
+            assertEquals(5_000_050_000L, sum);
+            assertFalse(threads.isEmpty());
+            assertTrue(threads.stream().allMatch(name -> name.startsWith("sum-worker-")), threads::toString);
+        }
+    }
+
+    @Test
+    void testSaturatedPoolDoesNotDelayAnotherPool() throws InterruptedException {
+        try (final ParallelPipelines saturated = ParallelPipelines.dedicated("saturated", 2, 1_000);
+             final ParallelPipelines isolated = ParallelPipelines.dedicated("isolated", 2, 1_000)) {
+            // every worker of the saturated pool blocks, and more pipelines queue behind them
+            final CountDownLatch release = new CountDownLatch(1);
+            final CountDownLatch started = new CountDownLatch(2);
+            for (int i = 0; i < 4; i++) {
+                saturated.pool().execute(() -> {
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            assertTrue(started.await(10L, TimeUnit.SECONDS));
+            try {
+                assertTrue(saturated.metrics().getQueuedSubmissions() + saturated.metrics().getQueuedTasks() > 0L,
+                           saturated::toString);
+                assertTimeoutPreemptively(Duration.ofSeconds(10L), () -> {
+                    for (int run = 0; run < 20; run++) {
+                        final int sum = isolated.invoke(() -> isolated.stream(NUMBERS)
+                                                                      .reduce(0, Integer::sum, Integer::sum));
+                        assertEquals(705_082_704, sum); // overflowed, as with a sequential reduction
+                    }
+                });
+                assertEquals(2, saturated.metrics().getActiveThreads());
+            } finally {
+                release.countDown();
+            }
+        }
+    }
+
+    @Test
+    void testSourceIsNotSplitBelowTheThreshold() {
+        try (final ParallelPipelines pipelines = ParallelPipelines.dedicated("split", 2, 10_000)) {
+            final List<Spliterator<Integer>> leaves = new ArrayList<>();
+            split(pipelines.stream(NUMBERS).spliterator(), leaves);
+
+            assertEquals(NUMBERS.size(), leaves.stream().mapToLong(Spliterator::estimateSize).sum());
+            assertTrue(leaves.stream().allMatch(leaf -> leaf.estimateSize() <= 10_000L));
+            assertTrue(leaves.stream().allMatch(leaf -> leaf.estimateSize() >= 5_000L));
+        }
+    }
+
+    private static void split(final Spliterator<Integer> spliterator, final List<Spliterator<Integer>> leaves) {
+        final Spliterator<Integer> prefix = spliterator.trySplit();
+        if (prefix == null) {
+            leaves.add(spliterator);
+        } else {
+            split(prefix, leaves);
+            split(spliterator, leaves);
+        }
+    }
+
+    @Test
+    void testIntStreamOnSharedPool() {
+        final int[] ages = IntStream.range(0, 50_000).map(i -> 16 + i % 10).toArray();
+        final var pipelines = ParallelPipelines.on(ForkJoinPool.commonPool(), 512);
+
+        assertEquals(IntStream.of(ages).filter(age -> age >= 20).count(),
+                     (long) pipelines.invoke(() -> pipelines.intStream(ages).filter(age -> age >= 20).count()));
+        assertTrue(pipelines.metrics().getSteals() >= 0L);
+    }
+
+}
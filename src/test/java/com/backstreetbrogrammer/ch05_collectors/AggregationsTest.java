@@ -0,0 +1,113 @@
+package com.backstreetbrogrammer.ch05_collectors;
+
+import com.backstreetbrogrammer.model.Student;
+import com.backstreetbrogrammer.model.TestData;
+import org.junit.jupiter.api.Test;
+
+import java.util.DoubleSummaryStatistics;
+import java.util.IntSummaryStatistics;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.DoubleStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AggregationsTest {
+
+    private static final List<Student> STUDENTS = TestData.students(100_000, 500, -50, 50);
+
+    private static void assertSameStatistics(final IntSummaryStatistics expected, final IntSummaryStatistics actual) {
+        assertEquals(expected.toString(), actual.toString());
+    }
+
+    private static void assertSameStatistics(final DoubleSummaryStatistics expected,
+                                             final DoubleSummaryStatistics actual) {
+        assertEquals(expected.getCount(), actual.getCount());
+        assertEquals(expected.getSum(), actual.getSum());
+        assertEquals(expected.getMin(), actual.getMin());
+        assertEquals(expected.getMax(), actual.getMax());
+        assertEquals(expected.getAverage(), actual.getAverage());
+    }
+
+    @Test
+    void testMatchesTheJdkCollectors() {
+        final Aggregations<Student> aggregations = new Aggregations<>();
+        final Aggregations.IntMetric age = aggregations.summarizingInt(Student::getAge);
+        final Aggregations.DoubleMetric tenth = aggregations.summarizingDouble(student -> student.getAge() / 10.0);
+        final Predicate<Student> olderThan20 = student -> student.getAge() > 20;
+        final Aggregations.Partition partition = aggregations.partitioningBy(olderThan20);
+
+        for (final boolean parallel : new boolean[]{false, true}) {
+            final Aggregations.Result result = (parallel ? STUDENTS.parallelStream() : STUDENTS.stream())
+                    .collect(aggregations.collector());
+
+            assertEquals(STUDENTS.size(), result.count());
+            assertSameStatistics(STUDENTS.stream().collect(Collectors.summarizingInt(Student::getAge)),
+                                 result.get(age));
+            // the same splits, hence the same compensated sums
+            assertSameStatistics((parallel ? STUDENTS.parallelStream() : STUDENTS.stream())
+                                         .collect(Collectors.summarizingDouble(student -> student.getAge() / 10.0)),
+                                 result.get(tenth));
+            final Map<Boolean, Long> counts = STUDENTS.stream()
+                                                      .collect(Collectors.partitioningBy(olderThan20,
+                                                                                         Collectors.counting()));
+            assertEquals(counts, result.partitionCounts(partition));
+            assertEquals(counts.get(true), result.get(partition));
+        }
+    }
+
+    @Test
+    void testDoubleSumsAreCompensated() {
+        final Aggregations<Double> aggregations = new Aggregations<>();
+        final Aggregations.DoubleMetric value = aggregations.summarizingDouble(Double::doubleValue);
+        final List<Double> tenths = DoubleStream.generate(() -> 0.1).limit(1_000_000).boxed()
+                                                .collect(Collectors.toList());
+
+        double naive = 0.0;
+        for (final double tenth : tenths) {
+            naive += tenth;
+        }
+        final double sequential = tenths.stream().collect(aggregations.collector()).get(value).getSum();
+        final double parallel = tenths.parallelStream().collect(aggregations.collector()).get(value).getSum();
+
+        assertEquals(tenths.stream().collect(Collectors.summarizingDouble(Double::doubleValue)).getSum(), sequential);
+        assertEquals(100_000.0, sequential, 1e-9);
+        assertEquals(100_000.0, parallel, 1e-9);
+        assertTrue(Math.abs(naive - 100_000.0) > 1e-9, "naive summation drifts: " + naive);
+    }
+
+    @Test
+    void testInfinitiesAndNaNsMatchSummarizingDouble() {
+        final Aggregations<Double> aggregations = new Aggregations<>();
+        final Aggregations.DoubleMetric value = aggregations.summarizingDouble(Double::doubleValue);
+
+        for (final List<Double> values : List.of(List.of(1.0, Double.POSITIVE_INFINITY, 2.0),
+                                                 List.of(1.0, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY),
+                                                 List.of(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY),
+                                                 List.of(1.0, Double.NaN, 2.0),
+                                                 List.of(Double.MAX_VALUE, Double.MAX_VALUE, -1.0))) {
+            final DoubleSummaryStatistics expected = values.stream()
+                                                           .collect(Collectors.summarizingDouble(Double::doubleValue));
+            assertSameStatistics(expected, values.stream().collect(aggregations.collector()).get(value));
+            assertSameStatistics(expected, values.parallelStream().collect(aggregations.collector()).get(value));
+        }
+    }
+
+    @Test
+    void testEmptyStreamAndForeignHandles() {
+        final Aggregations<Student> aggregations = new Aggregations<>();
+        final Aggregations.IntMetric age = aggregations.summarizingInt(Student::getAge);
+        final Aggregations.Partition partition = aggregations.partitioningBy(student -> student.getAge() > 20);
+        final Aggregations.Result result = List.<Student>of().parallelStream().collect(aggregations.collector());
+
+        assertSameStatistics(new IntSummaryStatistics(), result.get(age));
+        assertEquals(Map.of(false, 0L, true, 0L), result.partitionCounts(partition));
+        assertThrows(IllegalArgumentException.class,
+                     () -> result.get(new Aggregations<Student>().summarizingInt(Student::getAge)));
+    }
+
+}
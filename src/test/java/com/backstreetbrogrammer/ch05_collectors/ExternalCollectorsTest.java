@@ -0,0 +1,247 @@
+package com.backstreetbrogrammer.ch05_collectors;
+
+import com.backstreetbrogrammer.model.StudentWithCourse;
+import com.backstreetbrogrammer.model.TestData;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ExternalCollectorsTest {
+
+    private static StudentWithCourse student(final long seed) {
+        final var random = new SplittableRandom(seed);
+        return new StudentWithCourse("Student" + random.nextInt(1_000_000), random.nextInt(16, 60),
+                                     TestData.course(random));
+    }
+
+    private static long runFiles() throws IOException {
+        try (final Stream<Path> files = Files.list(Path.of(System.getProperty("java.io.tmpdir")))) {
+            return files.filter(file -> file.getFileName().toString().startsWith("external-run-")).count();
+        }
+    }
+
+    @Test
+    void testBufferStaysWithinBudgetWhileSorting() throws IOException {
+        final int rows = 2_000_000;
+        final int budget = 10_000;
+        final long filesBefore = runFiles();
+        final Comparator<StudentWithCourse> byAge = Comparator.comparingInt(StudentWithCourse::getAge);
+        final var spiller = new ExternalCollectors.Spiller<>(byAge, ExternalCollectors.Codec.studentsWithCourse(),
+                                                             budget);
+        for (int i = 0; i < rows; i++) {
+            spiller.accept(student(i));
+            assertTrue(spiller.buffered() <= budget);
+        }
+        // 200 spilled runs, merged by groups of MERGE_WIDTH as they pile up
+        assertTrue(spiller.runCount() < 2 * ExternalCollectors.MERGE_WIDTH, "runs: " + spiller.runCount());
+
+        long count = 0L;
+        try (final Stream<StudentWithCourse> sorted = spiller.sorted()) {
+            final var iterator = sorted.iterator();
+            StudentWithCourse previous = null;
+            while (iterator.hasNext()) {
+                final StudentWithCourse next = iterator.next();
+                if (previous != null) {
+                    assertTrue(previous.getAge() <= next.getAge());
+                }
+                previous = next;
+                count++;
+            }
+        }
+        assertEquals(rows, count);
+        assertEquals(filesBefore, runFiles());
+    }
+
+    @Test
+    void testCombinedRunsAreMergedDownBeforeTheFinalMerge() throws IOException {
+        final long filesBefore = runFiles();
+        final Comparator<StudentWithCourse> byAge = Comparator.comparingInt(StudentWithCourse::getAge);
+        final ExternalCollectors.Codec<StudentWithCourse> codec = ExternalCollectors.Codec.studentsWithCourse();
+        final int budget = 10;
+        final int runsPerLeaf = ExternalCollectors.MERGE_WIDTH - 1; // too few for a leaf to compact its own runs
+
+        // 16 leaves, combined as a parallel stream does: pairwise, left before right
+        final List<StudentWithCourse> students = new ArrayList<>();
+        List<ExternalCollectors.Spiller<StudentWithCourse>> level = new ArrayList<>();
+        for (int leaf = 0; leaf < 16; leaf++) {
+            final var spiller = new ExternalCollectors.Spiller<>(byAge, codec, budget);
+            for (int i = 0; i < runsPerLeaf * budget + budget / 2; i++) {
+                final StudentWithCourse student = student(students.size());
+                students.add(student);
+                spiller.accept(student);
+            }
+            assertEquals(runsPerLeaf, spiller.runCount());
+            level.add(spiller);
+        }
+        while (level.size() > 1) {
+            final List<ExternalCollectors.Spiller<StudentWithCourse>> next = new ArrayList<>();
+            for (int i = 0; i < level.size(); i += 2) {
+                next.add(level.get(i).combine(level.get(i + 1)));
+                assertTrue(next.get(next.size() - 1).runCount() <= ExternalCollectors.MERGE_WIDTH);
+            }
+            level = next;
+        }
+        final var combined = level.get(0);
+        assertTrue(combined.runCount() <= ExternalCollectors.MERGE_WIDTH, "runs: " + combined.runCount());
+
+        final List<StudentWithCourse> expected = new ArrayList<>(students);
+        expected.sort(byAge);
+        try (final Stream<StudentWithCourse> sorted = combined.sorted()) {
+            assertEquals(expected, sorted.collect(Collectors.toList()));
+        }
+        assertEquals(filesBefore, runFiles());
+    }
+
+    @Test
+    void testSortIsStableAcrossRunsAndThreads() {
+        final List<StudentWithCourse> students = IntStream.range(0, 50_000)
+                                                          .mapToObj(ExternalCollectorsTest::student)
+                                                          .collect(Collectors.toList());
+        final Comparator<StudentWithCourse> byCourse = Comparator.comparing(StudentWithCourse::getCourse);
+        final List<StudentWithCourse> expected = new ArrayList<>(students);
+        expected.sort(byCourse);
+
+        try (final Stream<StudentWithCourse> sorted = students.parallelStream().collect(
+                ExternalCollectors.externalSorted(byCourse, ExternalCollectors.Codec.studentsWithCourse(), 1_000))) {
+            final List<StudentWithCourse> actual = sorted.collect(Collectors.toList());
+            assertEquals(expected, actual);
+            // read back from the runs as one canonical instance per course name, apart from the buffered tail
+            final Set<String> javaRead = Collections.newSetFromMap(new IdentityHashMap<>());
+            actual.stream()
+                  .map(StudentWithCourse::getCourse)
+                  .filter(course -> course.equals("Java") && course != TestData.COURSES.get(0))
+                  .forEach(javaRead::add);
+            assertEquals(1, javaRead.size());
+        }
+    }
+
+    @Test
+    void testGroupingByMatchesCollectors() {
+        final List<StudentWithCourse> students = IntStream.range(0, 100_000)
+                                                          .mapToObj(ExternalCollectorsTest::student)
+                                                          .collect(Collectors.toList());
+        final Map<String, Double> expected =
+                students.stream()
+                        .collect(Collectors.groupingBy(StudentWithCourse::getCourse, TreeMap::new,
+                                                       Collectors.averagingInt(StudentWithCourse::getAge)));
+
+        final Map<String, Double> actual = new TreeMap<>();
+        final List<String> keys = new ArrayList<>();
+        try (final Stream<Map.Entry<String, Double>> groups = students.parallelStream().collect(
+                ExternalCollectors.groupingBy(StudentWithCourse::getCourse, Comparator.naturalOrder(),
+                                              Collectors.averagingInt(StudentWithCourse::getAge),
+                                              ExternalCollectors.Codec.studentsWithCourse(), 4_096))) {
+            groups.forEach(group -> {
+                keys.add(group.getKey());
+                actual.put(group.getKey(), group.getValue());
+            });
+        }
+        assertEquals(new ArrayList<>(expected.keySet()), keys);
+        assertEquals(expected.size(), actual.size());
+        expected.forEach((course, average) -> assertEquals(average, actual.get(course), 1e-9));
+    }
+
+    @Test
+    void testRunsAreDeletedWhenTheCodecFails() throws IOException, InterruptedException {
+        final long filesBefore = runFiles();
+        final ExternalCollectors.Codec<String> strings = ExternalCollectors.Codec.strings();
+        final ExternalCollectors.Codec<String> failing = new ExternalCollectors.Codec<>() {
+            @Override
+            public void write(final DataOutput out, final String value) throws IOException {
+                if (value.equals("s5000")) {
+                    throw new IOException("disk full");
+                }
+                strings.write(out, value);
+            }
+
+            @Override
+            public String read(final DataInput in) throws IOException {
+                return strings.read(in);
+            }
+        };
+        for (final boolean parallel : new boolean[]{false, true}) {
+            final Stream<String> input = IntStream.range(0, 10_000).mapToObj(i -> "s" + i);
+            assertThrows(UncheckedIOException.class,
+                         () -> (parallel ? input.parallel() : input)
+                                 .collect(ExternalCollectors.externalSorted(Comparator.naturalOrder(), failing, 100)));
+            // the failing accumulator deletes its runs at once, the other parallel leaves, which may still be
+            // running, once they are garbage collected
+            int attempts = 0;
+            do {
+                System.gc();
+                Thread.sleep(100L);
+            } while (runFiles() != filesBefore && ++attempts < 100);
+            assertEquals(filesBefore, runFiles());
+        }
+    }
+
+    @Test
+    void testRunsAreDeletedWhenTheDownstreamFails() throws IOException {
+        final long filesBefore = runFiles();
+        final Collector<String, ?, Long> failingCount = Collectors.reducing(0L, s -> {
+            if (s.startsWith("k7")) {
+                throw new IllegalStateException("downstream failure");
+            }
+            return 1L;
+        }, Long::sum);
+        assertThrows(IllegalStateException.class, () -> {
+            try (final Stream<Map.Entry<String, Long>> groups =
+                         IntStream.range(0, 10_000)
+                                  .mapToObj(i -> "k" + i % 10)
+                                  .collect(ExternalCollectors.groupingBy(s -> s, Comparator.naturalOrder(),
+                                                                         failingCount,
+                                                                         ExternalCollectors.Codec.strings(), 100))) {
+                groups.forEach(group -> assertEquals(1_000L, group.getValue()));
+            }
+        });
+        assertEquals(filesBefore, runFiles());
+    }
+
+    @Test
+    void testCodecsHandleLongAndNullStrings() {
+        final String longName = "é".repeat(100_000); // over the 64 KB limit of writeUTF()
+        final List<StudentWithCourse> students = List.of(new StudentWithCourse(longName, 20, "Java"),
+                                                         new StudentWithCourse(null, 18, null),
+                                                         new StudentWithCourse("Ana", 19, "Python"));
+        final Comparator<StudentWithCourse> byAge = Comparator.comparingInt(StudentWithCourse::getAge);
+        try (final Stream<StudentWithCourse> sorted = students.stream().collect(
+                ExternalCollectors.externalSorted(byAge, ExternalCollectors.Codec.studentsWithCourse(), 1))) {
+            final List<StudentWithCourse> expected = new ArrayList<>(students);
+            expected.sort(byAge);
+            assertEquals(expected, sorted.collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    void testSmallInputStaysInMemory() {
+        try (final Stream<Map.Entry<String, Long>> groups =
+                     Stream.of("b", "a", "c", "a")
+                           .collect(ExternalCollectors.groupingBy(s -> s, Collectors.counting(),
+                                                                  ExternalCollectors.Codec.strings()))) {
+            assertEquals("[a=2, b=1, c=1]", groups.collect(Collectors.toList()).toString());
+        }
+    }
+
+}
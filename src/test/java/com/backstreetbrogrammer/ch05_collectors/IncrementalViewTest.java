@@ -0,0 +1,120 @@
+package com.backstreetbrogrammer.ch05_collectors;
+
+import com.backstreetbrogrammer.model.StudentWithCourse;
+import com.backstreetbrogrammer.model.TestData;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.IntSummaryStatistics;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class IncrementalViewTest {
+
+    @Test
+    void testViewMatchesCollectorsUnderInsertsAndDeletes() {
+        final IncrementalView<StudentWithCourse> view = new IncrementalView<>();
+        final IncrementalView.Grouping<String> agePerCourse =
+                view.groupingBy(StudentWithCourse::getCourse, StudentWithCourse::getAge);
+        final IncrementalView.Grouping<Boolean> agePerOlderThan20 =
+                view.partitioningBy(student -> student.getAge() > 20, StudentWithCourse::getAge);
+
+        final List<StudentWithCourse> students = new ArrayList<>();
+        final var random = new SplittableRandom(42L);
+        for (int step = 0; step < 50_000; step++) {
+            if (!students.isEmpty() && random.nextInt(5) < 2) {
+                final StudentWithCourse student = students.remove(random.nextInt(students.size()));
+                view.delete(student);
+            } else {
+                // a wide age range, so that min and max often leave with the deleted students
+                final var student = new StudentWithCourse("Student" + step, random.nextInt(-1000, 1000),
+                                                          TestData.course(random));
+                students.add(student);
+                view.insert(student);
+            }
+            if (step % 997 == 0) {
+                assertEquals(summaries(students.stream()
+                                               .collect(Collectors.groupingBy(StudentWithCourse::getCourse,
+                                                                              Collectors.summarizingInt(
+                                                                                      StudentWithCourse::getAge)))),
+                             summaries(agePerCourse.snapshot()));
+                assertEquals(summaries(students.stream()
+                                               .collect(Collectors.partitioningBy(student -> student.getAge() > 20,
+                                                                                  Collectors.summarizingInt(
+                                                                                          StudentWithCourse::getAge)))),
+                             summaries(agePerOlderThan20.snapshot()));
+            }
+        }
+
+        students.forEach(view::delete);
+        assertEquals(Map.of(), agePerCourse.snapshot());
+        assertEquals(0L, agePerOlderThan20.get(true).getCount());
+        assertEquals(2, agePerOlderThan20.snapshot().size());
+    }
+
+    @Test
+    void testDeletingUnknownElementChangesNothing() {
+        final IncrementalView<StudentWithCourse> view = new IncrementalView<>();
+        final IncrementalView.Grouping<String> agePerCourse =
+                view.groupingBy(StudentWithCourse::getCourse, StudentWithCourse::getAge);
+        view.insert(new StudentWithCourse("John", 18, "Java"));
+
+        assertThrows(IllegalArgumentException.class, () -> view.delete(new StudentWithCourse("Mary", 16, "Java")));
+        assertThrows(IllegalStateException.class,
+                     () -> view.groupingBy(StudentWithCourse::getName, StudentWithCourse::getAge));
+        assertEquals(1L, agePerCourse.get("Java").getCount());
+        assertEquals(18, agePerCourse.get("Java").getMin());
+    }
+
+    @Test
+    void testReadersSeeConsistentSummariesWhileWritersRun() throws InterruptedException {
+        final IncrementalView<StudentWithCourse> view = new IncrementalView<>();
+        final IncrementalView.Grouping<String> agePerCourse =
+                view.groupingBy(StudentWithCourse::getCourse, StudentWithCourse::getAge);
+
+        final AtomicBoolean done = new AtomicBoolean();
+        final AtomicReference<String> failure = new AtomicReference<>();
+        final Thread reader = new Thread(() -> {
+            while (!done.get()) {
+                final IntSummaryStatistics java = agePerCourse.get("Java");
+                // every student is 16 or 25: any torn read would break one of these
+                if (java.getCount() > 0 && (java.getMin() < 16 || java.getMax() > 25
+                        || java.getSum() < 16L * java.getCount() || java.getSum() > 25L * java.getCount())) {
+                    failure.set(java.toString());
+                }
+            }
+        });
+        reader.start();
+        final List<StudentWithCourse> students = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            final var student = new StudentWithCourse("Student" + i, i % 2 == 0 ? 16 : 25, "Java");
+            view.insert(student);
+            students.add(student);
+            if (i % 3 == 0) {
+                view.delete(students.remove(students.size() / 2));
+            }
+        }
+        done.set(true);
+        reader.join();
+
+        assertNull(failure.get());
+        assertEquals(students.size(), agePerCourse.get("Java").getCount());
+    }
+
+    // IntSummaryStatistics has no equals()
+    private static <K> Map<K, String> summaries(final Map<K, IntSummaryStatistics> statistics) {
+        final Map<K, String> summaries = new TreeMap<>();
+        statistics.forEach((key, value) -> summaries.put(key, value.toString()));
+        return summaries;
+    }
+
+}
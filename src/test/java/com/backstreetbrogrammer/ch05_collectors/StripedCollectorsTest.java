@@ -0,0 +1,87 @@
+package com.backstreetbrogrammer.ch05_collectors;
+
+import com.backstreetbrogrammer.model.Student;
+import com.backstreetbrogrammer.model.TestData;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class StripedCollectorsTest {
+
+    private static final List<Student> STUDENTS = TestData.students(100_000, 500, -50, 50);
+
+    // sequential, parallel on the common pool, and parallel on several workers even on a single CPU
+    private static <R> void assertCollectsLike(final Collector<Student, ?, R> expected,
+                                               final Collector<Student, ?, R> actual) {
+        final R result = STUDENTS.stream().collect(expected);
+        assertEquals(result, STUDENTS.stream().collect(actual));
+        assertEquals(result, STUDENTS.parallelStream().collect(actual));
+        final var pool = new ForkJoinPool(4);
+        try {
+            assertEquals(result, pool.submit(() -> STUDENTS.parallelStream().collect(actual)).join());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testMatchesGroupingBy() {
+        assertCollectsLike(Collectors.groupingBy(Student::getName, Collectors.counting()),
+                           StripedCollectors.counting(Student::getName));
+        assertCollectsLike(Collectors.groupingBy(Student::getAge, Collectors.counting()),
+                           StripedCollectors.countingByInt(Student::getAge));
+        assertCollectsLike(Collectors.groupingBy(Student::getName,
+                                                 Collectors.summingLong(Student::getAge)),
+                           StripedCollectors.summingInt(Student::getName, Student::getAge));
+    }
+
+    @Test
+    void testMatchesMinAndMaxBy() {
+        final Map<String, Long> min = STUDENTS.stream().collect(
+                Collectors.groupingBy(Student::getName,
+                                      Collectors.collectingAndThen(
+                                              Collectors.summarizingInt(Student::getAge),
+                                              statistics -> (long) statistics.getMin())));
+        final Map<String, Long> max = STUDENTS.stream().collect(
+                Collectors.groupingBy(Student::getName,
+                                      Collectors.collectingAndThen(
+                                              Collectors.summarizingInt(Student::getAge),
+                                              statistics -> (long) statistics.getMax())));
+
+        assertEquals(min, STUDENTS.stream().collect(StripedCollectors.minInt(Student::getName, Student::getAge)));
+        assertEquals(min,
+                     STUDENTS.parallelStream().collect(StripedCollectors.minInt(Student::getName, Student::getAge)));
+        assertEquals(max, STUDENTS.stream().collect(StripedCollectors.maxInt(Student::getName, Student::getAge)));
+        assertEquals(max,
+                     STUDENTS.parallelStream().collect(StripedCollectors.maxInt(Student::getName, Student::getAge)));
+    }
+
+    @Test
+    void testCollectorCanBeReused() {
+        final var collector = StripedCollectors.<Student, String>counting(Student::getName);
+        final Map<String, Long> expected = STUDENTS.stream()
+                                                   .collect(Collectors.groupingBy(Student::getName,
+                                                                                  Collectors.counting()));
+
+        assertEquals(expected, STUDENTS.parallelStream().collect(collector));
+        assertEquals(expected, STUDENTS.parallelStream().collect(collector));
+    }
+
+    @Test
+    void testNullKeyIsRejected() {
+        final List<Student> students = List.of(new Student("John", 18), new Student(null, 16));
+
+        assertThrows(NullPointerException.class,
+                     () -> students.stream().collect(StripedCollectors.counting(Student::getName)));
+        assertThrows(NullPointerException.class,
+                     () -> students.parallelStream().collect(StripedCollectors.counting(Student::getName)));
+    }
+
+}
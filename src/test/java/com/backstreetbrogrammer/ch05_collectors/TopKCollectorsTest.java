@@ -0,0 +1,65 @@
+package com.backstreetbrogrammer.ch05_collectors;
+
+import com.backstreetbrogrammer.model.Student;
+import com.backstreetbrogrammer.model.TestData;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TopKCollectorsTest {
+
+    private static final List<Student> STUDENTS = TestData.students(20_000, 20_000, -10_000, 10_000);
+    private static final int[] KS = {0, 1, 9, 10, 11, 16, 100, 5_000, 20_000, 50_000};
+
+    // which of several equal ages make the cut is unspecified: compare the ages only
+    private static List<Integer> ages(final List<Student> students) {
+        return students.stream().map(Student::getAge).collect(Collectors.toList());
+    }
+
+    private static void assertSelects(final Comparator<Student> order, final int k,
+                                      final Collector<Student, ?, List<Student>> collector) {
+        final List<Integer> expected = ages(STUDENTS.stream().sorted(order).limit(k).collect(Collectors.toList()));
+        assertEquals(expected, ages(STUDENTS.stream().collect(collector)));
+        assertEquals(expected, ages(STUDENTS.parallelStream().collect(collector)));
+    }
+
+    @Test
+    void testMatchesSortedLimit() {
+        final Comparator<Student> byAge = Comparator.comparingInt(Student::getAge);
+        for (final int k : KS) {
+            assertSelects(byAge.reversed(), k, TopKCollectors.topK(k, byAge));
+            assertSelects(byAge, k, TopKCollectors.bottomK(k, byAge));
+            assertSelects(byAge.reversed(), k, TopKCollectors.topKByInt(k, Student::getAge));
+            assertSelects(byAge, k, TopKCollectors.bottomKByInt(k, Student::getAge));
+        }
+    }
+
+    @Test
+    void testHugeKDoesNotAllocateUpFront() {
+        final List<Student> students = STUDENTS.subList(0, 3);
+
+        assertEquals(ages(students.stream()
+                                  .sorted(Comparator.comparingInt(Student::getAge).reversed())
+                                  .collect(Collectors.toList())),
+                     ages(students.parallelStream().collect(TopKCollectors.topKByInt(Integer.MAX_VALUE,
+                                                                                     Student::getAge))));
+        assertEquals(3, students.stream()
+                                .collect(TopKCollectors.bottomK(Integer.MAX_VALUE,
+                                                                Comparator.comparing(Student::getName)))
+                                .size());
+    }
+
+    @Test
+    void testNegativeKIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> TopKCollectors.topKByInt(-1, Student::getAge));
+        assertThrows(IllegalArgumentException.class,
+                     () -> TopKCollectors.bottomK(-1, Comparator.comparing(Student::getName)));
+    }
+
+}
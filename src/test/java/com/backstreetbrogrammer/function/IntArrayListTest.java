@@ -0,0 +1,71 @@
+package com.backstreetbrogrammer.function;
+
+import com.backstreetbrogrammer.model.Student;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IntArrayListTest {
+
+    @Test
+    void testAddGetSetRemove() {
+        final var list = new IntArrayList();
+        assertTrue(list.isEmpty());
+        for (int i = 0; i < 100; i++) {
+            list.add(i);
+        }
+        assertEquals(100, list.size());
+        assertEquals(42, list.get(42));
+        assertEquals(42, list.set(42, -1));
+        assertEquals(-1, list.get(42));
+        assertEquals(0, list.removeAt(0));
+        assertEquals(99, list.size());
+        assertEquals(41, list.indexOf(-1));
+        assertFalse(list.contains(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(99));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(-1));
+
+        assertTrue(list.removeIf(value -> value % 2 == 0));
+        assertFalse(list.removeIf(value -> value % 2 == 0));
+        assertEquals(IntStream.range(0, 100).filter(i -> i % 2 != 0).sum() - 1, list.stream().sum());
+    }
+
+    @Test
+    void testSortEqualsAndToString() {
+        final IntArrayList list = IntArrayList.of(3, 1, 2);
+        list.sort();
+        assertArrayEquals(new int[]{1, 2, 3}, list.toArray());
+        assertEquals("[1, 2, 3]", list.toString());
+        assertEquals(IntArrayList.of(1, 2, 3), list);
+        assertEquals(IntArrayList.of(1, 2, 3).hashCode(), list.hashCode());
+        assertEquals(List.of(1, 2, 3).hashCode(), list.hashCode());
+
+        list.replaceAll(value -> value * 10);
+        assertEquals(IntArrayList.of(10, 20, 30), list);
+        list.clear();
+        assertEquals(new IntArrayList(), list);
+    }
+
+    @Test
+    void testCollectorsKeepTheEncounterOrder() {
+        final List<Student> students = IntStream.range(0, 100_000)
+                                                .mapToObj(i -> new Student("Student" + i, 16 + i % 10))
+                                                .collect(Collectors.toList());
+        final int[] expected = students.stream().mapToInt(Student::getAge).toArray();
+
+        assertArrayEquals(expected, students.parallelStream()
+                                            .collect(PrimitiveCollectors.toIntList(Student::getAge))
+                                            .toArray());
+        assertArrayEquals(expected, IntArrayList.from(students.parallelStream().mapToInt(Student::getAge))
+                                                .toArray());
+    }
+
+}
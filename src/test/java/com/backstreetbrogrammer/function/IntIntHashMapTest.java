@@ -0,0 +1,76 @@
+package com.backstreetbrogrammer.function;
+
+import com.backstreetbrogrammer.model.Student;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IntIntHashMapTest {
+
+    @Test
+    void testMatchesHashMapUnderRandomOperations() {
+        final var random = new SplittableRandom(42L);
+        final var map = new IntIntHashMap();
+        final Map<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 200_000; i++) {
+            final int key = random.nextInt(2_000) - 1_000;
+            final int value = random.nextInt(100);
+            switch (random.nextInt(4)) {
+                case 0:
+                    map.put(key, value);
+                    expected.put(key, value);
+                    break;
+                case 1:
+                    assertEquals(expected.merge(key, value, Integer::sum), map.merge(key, value, Integer::sum));
+                    break;
+                case 2:
+                    assertEquals(expected.remove(key) != null, map.remove(key));
+                    break;
+                default:
+                    assertEquals(expected.getOrDefault(key, -1), map.getOrDefault(key, -1));
+                    assertEquals(expected.containsKey(key), map.containsKey(key));
+                    break;
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        assertEquals(expected, map.toMap());
+        assertEquals(expected.hashCode(), map.hashCode());
+        assertEquals(expected.keySet().stream().mapToInt(Integer::intValue).sum(), map.keys().sum());
+        assertEquals(expected.values().stream().mapToInt(Integer::intValue).sum(), map.values().sum());
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(0));
+        assertEquals("{}", map.toString());
+    }
+
+    @Test
+    void testCountingByIntMatchesGroupingBy() {
+        final List<Student> students = IntStream.range(0, 100_000)
+                                                .mapToObj(i -> new Student("Student" + i, 16 + i % 10))
+                                                .collect(Collectors.toList());
+        final Map<Integer, Integer> expected =
+                students.stream().collect(Collectors.groupingBy(Student::getAge,
+                                                                Collectors.summingInt(student -> 1)));
+
+        final IntIntHashMap perAge = students.parallelStream()
+                                             .collect(PrimitiveCollectors.countingByInt(Student::getAge));
+        assertEquals(expected, perAge.toMap());
+        assertEquals(perAge, IntIntHashMap.counts(students.parallelStream().mapToInt(Student::getAge)));
+        assertEquals(expected.keySet().stream().collect(Collectors.toMap(Function.identity(), age -> age)),
+                     students.stream()
+                             .collect(PrimitiveCollectors.toIntIntMap(Student::getAge, Student::getAge, Math::max))
+                             .toMap());
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.backstreetbrogrammer.function;
+
+import com.backstreetbrogrammer.model.Student;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ObjIntHashMapTest {
+
+    @Test
+    void testMatchesHashMapUnderRandomOperations() {
+        final var random = new SplittableRandom(42L);
+        final var map = new ObjIntHashMap<String>();
+        final Map<String, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 200_000; i++) {
+            final String key = "key" + random.nextInt(2_000);
+            final int value = random.nextInt(100);
+            switch (random.nextInt(4)) {
+                case 0:
+                    map.put(key, value);
+                    expected.put(key, value);
+                    break;
+                case 1:
+                    assertEquals(expected.merge(key, value, Integer::sum), map.merge(key, value, Integer::sum));
+                    break;
+                case 2:
+                    assertEquals(expected.remove(key) != null, map.remove(key));
+                    break;
+                default:
+                    assertEquals(expected.getOrDefault(key, -1), map.getOrDefault(key, -1));
+                    assertEquals(expected.containsKey(key), map.containsKey(key));
+                    break;
+            }
+        }
+        assertEquals(expected, map.toMap());
+        assertEquals(expected.hashCode(), map.hashCode());
+        assertEquals(expected.keySet(), map.keys().collect(Collectors.toSet()));
+
+        assertTrue(map.removeIf((key, value) -> value > 50 || key.endsWith("7")));
+        expected.entrySet().removeIf(entry -> entry.getValue() > 50 || entry.getKey().endsWith("7"));
+        assertEquals(expected, map.toMap());
+        assertEquals(expected.size(), map.size());
+
+        assertThrows(NullPointerException.class, () -> map.put(null, 1));
+        assertFalse(map.containsKey(null));
+    }
+
+    @Test
+    void testCollectorsMatchGroupingBy() {
+        final List<Student> students = IntStream.range(0, 100_000)
+                                                .mapToObj(i -> new Student("Student" + i % 100, 16 + i % 10))
+                                                .collect(Collectors.toList());
+
+        final ObjIntHashMap<String> perName = students.parallelStream()
+                                                      .collect(PrimitiveCollectors.counting(Student::getName));
+        assertEquals(students.stream().collect(Collectors.groupingBy(Student::getName,
+                                                                     Collectors.summingInt(student -> 1))),
+                     perName.toMap());
+        assertEquals(perName, ObjIntHashMap.counts(students.parallelStream().map(Student::getName)));
+
+        assertEquals(students.stream().collect(Collectors.groupingBy(Student::getName,
+                                                                     Collectors.summingInt(Student::getAge))),
+                     students.parallelStream()
+                             .collect(PrimitiveCollectors.summingInt(Student::getName, Student::getAge))
+                             .toMap());
+        assertEquals(students.stream().collect(Collectors.toMap(Student::getName, Student::getAge, Math::min)),
+                     students.stream()
+                             .collect(PrimitiveCollectors.toObjIntMap(Function.identity(), Student::getAge,
+                                                                      Math::min))
+                             .toMap()
+                             .entrySet()
+                             .stream()
+                             .collect(Collectors.toMap(entry -> entry.getKey().getName(), Map.Entry::getValue,
+                                                       Math::min)));
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.backstreetbrogrammer.function;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PrimitiveFunctionsTest {
+
+    @Test
+    void testIntIntConsumerAndThen() {
+        final List<String> calls = new ArrayList<>();
+        final IntIntConsumer first = (left, right) -> calls.add("first " + left + " " + right);
+        final IntIntConsumer second = (left, right) -> calls.add("second " + (left + right));
+
+        first.andThen(second).accept(3, 4);
+        assertEquals(List.of("first 3 4", "second 7"), calls);
+    }
+
+    @Test
+    void testObjIntPredicateCombinators() {
+        final ObjIntPredicate<String> longerThan = (s, length) -> s.length() > length;
+        final ObjIntPredicate<String> startsWithA = (s, length) -> s.startsWith("A");
+
+        assertTrue(longerThan.test("Hello", 3));
+        assertFalse(longerThan.negate().test("Hello", 3));
+        assertTrue(longerThan.and(startsWithA).test("Alice", 3));
+        assertFalse(longerThan.and(startsWithA).test("Hello", 3));
+        assertTrue(longerThan.or(startsWithA).test("Al", 3));
+        assertFalse(longerThan.or(startsWithA).test("Bo", 3));
+    }
+
+    @Test
+    void testIntToIntBiFunctionIsAnIntBinaryOperator() {
+        final IntToIntBiFunction sum = Integer::sum;
+        final IntToIntBiFunction doubledSum = sum.andThen(value -> value * 2);
+
+        assertEquals(14, doubledSum.applyAsInt(3, 4));
+        assertEquals(10, IntStream.rangeClosed(1, 4).reduce(0, sum));
+    }
+
+    @Test
+    void testCharPredicateCombinators() {
+        final CharPredicate vowel = CharPredicate.anyOf("aeiou");
+        final CharPredicate letter = Character::isLetter;
+        final CharPredicate consonant = letter.and(vowel.negate());
+
+        assertTrue(consonant.test('b'));
+        assertFalse(consonant.test('a'));
+        assertFalse(consonant.test('1'));
+        assertTrue(vowel.or(Character::isDigit).test('1'));
+        assertEquals(9L, "Hello Students".chars().filter(consonant.asIntPredicate()).count());
+    }
+
+}
@@ -0,0 +1,108 @@
+package com.backstreetbrogrammer.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CourseTest {
+
+    @Test
+    void testRosterMatchesListUnderEnrollAndUnenroll() {
+        final Student[] pool = IntStream.range(0, 500)
+                                        .mapToObj(i -> new Student("Student" + i, 16 + i % 10))
+                                        .toArray(Student[]::new);
+        final var course = new Course("Java", pool[0], pool[1], pool[2]);
+        final List<Student> expected = new ArrayList<>(List.of(pool[0], pool[1], pool[2]));
+
+        final var random = new SplittableRandom(42L);
+        for (int step = 0; step < 20_000; step++) {
+            final Student student = pool[random.nextInt(pool.length)];
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(student), course.unenroll(student));
+            } else {
+                course.enroll(student);
+                expected.add(student);
+            }
+            if (step % 1000 == 0) {
+                assertEquals(expected, course.getStudents());
+                assertEquals(expected, course.students().parallel().collect(Collectors.toList()));
+            }
+        }
+        assertEquals(expected.size(), course.size());
+        assertEquals(expected, course.getStudents());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), course.getStudents().get(i));
+        }
+    }
+
+    @Test
+    void testChunkCountStaysBounded() {
+        final Student[] pool = IntStream.range(0, 100 * Course.CHUNK_SIZE)
+                                        .mapToObj(i -> new Student("Student" + i, 16 + i % 10))
+                                        .toArray(Student[]::new);
+        final var course = new Course("Databases", pool);
+        final List<Student> expected = new ArrayList<>(List.of(pool));
+
+        // all but the first student of every chunk, front to back: each shrunk chunk has a full chunk after it
+        for (int c = 0; c < 100; c++) {
+            for (int i = 1; i < Course.CHUNK_SIZE; i++) {
+                final Student student = pool[c * Course.CHUNK_SIZE + i];
+                assertTrue(course.unenroll(student));
+                expected.remove(student);
+                assertTrue(course.chunkCount() <= 2 * course.size() / Course.CHUNK_SIZE + 1,
+                           course.chunkCount() + " chunks for " + course.size() + " students");
+            }
+        }
+        assertEquals(expected, course.getStudents());
+
+        final var random = new SplittableRandom(42L);
+        for (int step = 0; step < 20_000; step++) {
+            final Student student = pool[random.nextInt(pool.length)];
+            if (random.nextInt(2) == 0) {
+                assertEquals(expected.remove(student), course.unenroll(student));
+            } else {
+                course.enroll(student);
+                expected.add(student);
+            }
+            assertTrue(course.chunkCount() <= 2 * course.size() / Course.CHUNK_SIZE + 1,
+                       course.chunkCount() + " chunks for " + course.size() + " students");
+        }
+        assertEquals(expected, course.getStudents());
+        assertEquals(expected, course.students().parallel().collect(Collectors.toList()));
+    }
+
+    @Test
+    void testSnapshotIsNotAffectedByLaterWrites() {
+        final var john = new Student("John", 18);
+        final var mary = new Student("Mary", 16);
+        final var course = new Course("Python", john);
+
+        final List<Student> snapshot = course.getStudents();
+        course.enroll(mary);
+        course.unenroll(john);
+
+        assertEquals(List.of(john), snapshot);
+        assertEquals(List.of(mary), course.getStudents());
+        assertFalse(course.unenroll(john));
+    }
+
+    @Test
+    void testConcurrentEnrollmentsAreNotLost() {
+        final var course = new Course("Algorithms");
+        IntStream.range(0, 10_000)
+                 .parallel()
+                 .forEach(i -> course.enroll(new Student("Student" + i, 20)));
+
+        assertEquals(10_000, course.size());
+        assertEquals(10_000L, course.students().map(Student::getName).distinct().count());
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.backstreetbrogrammer.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MappedStudentReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testStudentsRoundTrip() throws IOException {
+        final List<Student> students = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            students.add(new Student("Student-" + (i % 37) + (i % 5 == 0 ? "é" : ""), 16 + i % 10));
+        }
+        final Path path = tempDir.resolve("students.bin");
+        StudentRecords.write(path, students);
+
+        final MappedStudentReader reader = MappedStudentReader.open(path);
+        assertEquals(students.size(), reader.size());
+        assertFalse(reader.hasCourses());
+        assertEquals(students.stream().map(Student::getName).distinct().count(), reader.distinctStrings());
+        assertEquals(students.stream().map(Student::toString).collect(Collectors.toList()),
+                     reader.students().map(Student::toString).collect(Collectors.toList()));
+        assertEquals(students.stream().mapToInt(Student::getAge).sum(), reader.ages().parallel().sum());
+        assertSame(reader.nameAt(0), reader.nameAt(185)); // decoded once, then shared
+    }
+
+    @Test
+    void testStudentsWithCourseRoundTrip() throws IOException {
+        final List<StudentWithCourse> students = List.of(new StudentWithCourse("John", 18, "Python"),
+                                                         new StudentWithCourse("Mary", 16, "Java"),
+                                                         new StudentWithCourse("Python", 21, null));
+        final Path path = tempDir.resolve("courses.bin");
+        StudentRecords.writeWithCourse(path, students);
+
+        final MappedStudentReader reader = MappedStudentReader.open(path);
+        assertTrue(reader.hasCourses());
+        assertEquals(4, reader.distinctStrings());
+        assertEquals(students, reader.studentsWithCourse().collect(Collectors.toList()));
+    }
+
+    @Test
+    void testTruncatedFileIsRejected() throws IOException {
+        final Path path = tempDir.resolve("truncated.bin");
+        StudentRecords.write(path, List.of(new Student("John", 18), new Student("Mary", 16)));
+        final byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 1));
+
+        assertThrows(IOException.class, () -> MappedStudentReader.open(path));
+    }
+
+}
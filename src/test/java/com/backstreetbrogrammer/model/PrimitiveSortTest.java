@@ -0,0 +1,98 @@
+package com.backstreetbrogrammer.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class PrimitiveSortTest {
+
+    // more than one parallel chunk of 2^16 elements
+    private static final int SIZE = 200_000;
+
+    private static List<Student> students(final int size, final int minAge, final int maxAge) {
+        final var random = new SplittableRandom(42L);
+        return IntStream.range(0, size)
+                        .mapToObj(i -> new Student("Student" + random.nextInt(1_000),
+                                                   (int) random.nextLong(minAge, maxAge + 1L)))
+                        .collect(Collectors.toList());
+    }
+
+    // Student has no equals(): the sorts must produce the very same instances in the same order
+    private static void assertSameOrder(final List<Student> expected, final List<Student> actual) {
+        assertEquals(expected.size(), actual.size());
+        final var iterator = actual.iterator();
+        for (int i = 0; i < expected.size(); i++) {
+            assertSame(expected.get(i), iterator.next(), "at index " + i);
+        }
+    }
+
+    @Test
+    void testMatchesStableListSort() {
+        for (final List<Student> students : List.of(students(SIZE, 16, 25),
+                                                    students(SIZE, Integer.MIN_VALUE, Integer.MAX_VALUE))) {
+            final List<Student> expected = new ArrayList<>(students);
+            expected.sort(Comparator.comparingInt(Student::getAge));
+
+            final List<Student> sequential = new ArrayList<>(students);
+            PrimitiveSort.sortByInt(sequential, Student::getAge);
+            assertSameOrder(expected, sequential);
+
+            final List<Student> parallel = new ArrayList<>(students);
+            PrimitiveSort.parallelSortByInt(parallel, Student::getAge);
+            assertSameOrder(expected, parallel);
+        }
+    }
+
+    @Test
+    void testThenByNameMatchesComparatorChain() {
+        final List<Student> students = students(SIZE, -5, 5);
+        final List<Student> expected = new ArrayList<>(students);
+        expected.sort(Comparator.comparingInt(Student::getAge).thenComparing(Student::getName));
+
+        final List<Student> sequential = new LinkedList<>(students);
+        PrimitiveSort.sortByInt(sequential, Student::getAge, Student::getName);
+        assertSameOrder(expected, sequential);
+
+        final List<Student> parallel = new ArrayList<>(students);
+        PrimitiveSort.parallelSortByInt(parallel, Student::getAge, Student::getName);
+        assertSameOrder(expected, parallel);
+    }
+
+    @Test
+    void testTableSortMatchesComparatorChain() {
+        final List<Student> students = students(SIZE, 16, 25);
+        final StudentTable table = StudentTable.of(students);
+        final List<String> expected = students.stream()
+                                              .sorted(Comparator.comparingInt(Student::getAge)
+                                                                .thenComparing(Student::getName))
+                                              .map(Student::toString)
+                                              .collect(Collectors.toList());
+
+        assertEquals(expected, PrimitiveSort.sortByAgeThenName(table).students().map(Student::toString)
+                                            .collect(Collectors.toList()));
+        assertEquals(expected, PrimitiveSort.parallelSortByAgeThenName(table.whereAge(age -> true)).students()
+                                            .parallel().map(Student::toString).collect(Collectors.toList()));
+    }
+
+    @Test
+    void testEmptyAndSingletonLists() {
+        final List<Student> empty = new ArrayList<>();
+        PrimitiveSort.parallelSortByInt(empty, Student::getAge);
+        assertEquals(List.of(), empty);
+
+        final var john = new Student("John", 18);
+        final List<Student> singleton = new ArrayList<>(List.of(john));
+        PrimitiveSort.sortByInt(singleton, Student::getAge, Student::getName);
+        assertSame(john, singleton.get(0));
+    }
+
+}
@@ -0,0 +1,87 @@
+package com.backstreetbrogrammer.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class StudentTableTest {
+
+    private static final List<Function<Stream<Student>, Stream<Student>>> MODES =
+            List.of(Function.identity(), Stream::parallel);
+
+    private static List<Student> students(final int size, final int distinctNames) {
+        final var random = new SplittableRandom(42L);
+        return IntStream.range(0, size)
+                        .mapToObj(i -> new Student("Student" + random.nextInt(distinctNames), 16 + random.nextInt(10)))
+                        .collect(Collectors.toList());
+    }
+
+    // Student has no equals(): compare name and age
+    private static List<String> rows(final Stream<Student> students) {
+        return students.map(student -> student.getName() + ':' + student.getAge()).collect(Collectors.toList());
+    }
+
+    @Test
+    void testColumnsMatchTheRows() {
+        final List<Student> students = students(10_000, 100);
+        final StudentTable table = StudentTable.of(students);
+
+        assertEquals(students.size(), table.size());
+        assertEquals(students.stream().map(Student::getName).distinct().count(), table.distinctNames());
+        assertEquals(rows(students.stream()), rows(table.students()));
+        assertEquals(rows(students.stream()), rows(table.students().parallel()));
+        assertEquals(students.stream().mapToInt(Student::getAge).sum(), table.ages().parallel().sum());
+        assertEquals(students.stream().map(Student::getName).collect(Collectors.toList()),
+                     table.names().parallel().collect(Collectors.toList()));
+        for (int i = 0; i < students.size(); i++) {
+            assertEquals(rows(Stream.of(students.get(i))), rows(Stream.of(table.studentAt(i))));
+            assertEquals(students.get(i).getAge(), table.ageAt(i));
+            assertEquals(students.get(i).getName(), table.nameAt(i));
+        }
+    }
+
+    @Test
+    void testFiltersMatchStreamFilter() {
+        final List<Student> students = students(10_000, 100);
+        final StudentTable table = StudentTable.of(students);
+
+        for (final var mode : MODES) {
+            final StudentTable view = table.whereAge(age -> age > 20).whereName(name -> name.endsWith("7"));
+            final List<Student> expected = mode.apply(students.stream())
+                                               .filter(student -> student.getAge() > 20)
+                                               .filter(student -> student.getName().endsWith("7"))
+                                               .collect(Collectors.toList());
+
+            assertEquals(rows(expected.stream()), rows(mode.apply(view.students())));
+            assertEquals(expected.size(), view.size());
+            assertEquals(expected.stream().mapToInt(Student::getAge).sum(), view.ages().parallel().sum());
+            assertEquals(students.stream().collect(Collectors.groupingBy(Student::getName, Collectors.counting())),
+                         mode.apply(table.students())
+                             .collect(Collectors.groupingBy(Student::getName, Collectors.counting())));
+        }
+    }
+
+    @Test
+    void testBuilderAndBounds() {
+        final StudentTable table = StudentTable.builder()
+                                               .add("John", 18)
+                                               .add("Mary", 16)
+                                               .add("John", 21)
+                                               .build();
+
+        assertEquals(3, table.size());
+        assertEquals(2, table.distinctNames());
+        assertEquals(List.of("John:18", "John:21"), rows(table.whereName("John"::equals).students()));
+        assertThrows(IndexOutOfBoundsException.class, () -> table.ageAt(3));
+        assertThrows(IndexOutOfBoundsException.class, () -> table.whereAge(age -> age > 17).nameAt(2));
+    }
+
+}
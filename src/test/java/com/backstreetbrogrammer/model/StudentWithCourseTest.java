@@ -0,0 +1,80 @@
+package com.backstreetbrogrammer.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class StudentWithCourseTest {
+
+    // every course name is a fresh copy, like the rows of a parsed file
+    private static List<StudentWithCourse> parsed(final int size) {
+        final var random = new SplittableRandom(42L);
+        return IntStream.range(0, size)
+                        .mapToObj(i -> new StudentWithCourse("Student" + random.nextInt(1_000), random.nextInt(16, 26),
+                                                             new String(TestData.course(random))))
+                        .collect(Collectors.toList());
+    }
+
+    @Test
+    void testHashCodeMatchesObjectsHash() {
+        for (final StudentWithCourse student : List.of(new StudentWithCourse("John", 18, "Java"),
+                                                       new StudentWithCourse(null, 0, null),
+                                                       new StudentWithCourse("", -1, "Python"))) {
+            assertEquals(Objects.hash(student.getName(), student.getAge(), student.getCourse()), student.hashCode());
+            assertEquals(student.hashCode(), student.hashCode());
+        }
+    }
+
+    @Test
+    void testPooledStudentsGroupLikeParsedOnes() {
+        final List<StudentWithCourse> parsed = parsed(50_000);
+        final var courses = new StudentWithCourse.CoursePool();
+        final List<StudentWithCourse> pooled = parsed.parallelStream()
+                                                     .map(s -> courses.student(s.getName(), s.getAge(), s.getCourse()))
+                                                     .collect(Collectors.toList());
+
+        assertEquals(parsed, pooled);
+        assertEquals(TestData.COURSES.size(), courses.size());
+        assertEquals(TestData.COURSES.size(), pooled.stream().map(StudentWithCourse::getCourse)
+                                           .filter(course -> course == courses.canonical(course)).distinct().count());
+        final Map<String, Long> expected = parsed.stream()
+                                                 .collect(Collectors.groupingBy(StudentWithCourse::getCourse,
+                                                                                Collectors.counting()));
+        assertEquals(expected, pooled.stream().collect(Collectors.groupingBy(StudentWithCourse::getCourse,
+                                                                             Collectors.counting())));
+        assertEquals(expected, pooled.parallelStream().collect(Collectors.groupingBy(StudentWithCourse::getCourse,
+                                                                                     Collectors.counting())));
+        assertEquals(new HashSet<>(parsed), pooled.parallelStream().collect(Collectors.toSet()));
+    }
+
+    @Test
+    void testPoolIsBoundedAndScoped() {
+        final var courses = new StudentWithCourse.CoursePool(2);
+        final String java = courses.canonical(new String("Java"));
+        final String python = courses.canonical(new String("Python"));
+        final String scala = new String("Scala");
+
+        assertSame(java, courses.canonical(new String("Java")));
+        assertSame(python, courses.student("Mary", 16, new String("Python")).getCourse());
+        assertSame(scala, courses.canonical(scala));
+        assertNotSame(scala, courses.canonical(new String("Scala")));
+        assertEquals(2, courses.size());
+        assertNull(courses.canonical(null));
+
+        assertNotSame(java, new StudentWithCourse.CoursePool().canonical(new String("Java")));
+        assertThrows(IllegalArgumentException.class, () -> new StudentWithCourse.CoursePool(-1));
+    }
+
+}
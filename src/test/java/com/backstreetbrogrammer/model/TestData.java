@@ -0,0 +1,34 @@
+package com.backstreetbrogrammer.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Seeded data shared by the tests, so that each test states only the shape of the data it checks.
+ */
+public final class TestData {
+
+    private static final long SEED = 42L;
+
+    public static final List<String> COURSES = List.of("Java", "Python", "JavaScript", "Advanced Java", "Algorithms");
+
+    private TestData() {
+    }
+
+    // names "Student0" to "Student<distinctNames - 1>", ages in [minAge, maxAge)
+    public static List<Student> students(final int size, final int distinctNames, final int minAge, final int maxAge) {
+        final var random = new SplittableRandom(SEED);
+        final List<Student> students = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            students.add(new Student("Student" + random.nextInt(distinctNames), random.nextInt(minAge, maxAge)));
+        }
+        return students;
+    }
+
+    // one of the COURSES instances
+    public static String course(final SplittableRandom random) {
+        return COURSES.get(random.nextInt(COURSES.size()));
+    }
+
+}